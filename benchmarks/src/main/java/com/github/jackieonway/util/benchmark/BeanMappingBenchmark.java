@@ -0,0 +1,116 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.benchmark;
+
+import com.github.jackieonway.util.bean.BeanUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.jackieonway.util.benchmark.MappingBeans.*;
+
+/**
+ * <p>Orika ({@code copyProperties}) vs generated copiers ({@code copyPropertiesByBeanCopier}) for a single bean,
+ * a list, an order with a nested address and items, and a bean whose properties are converted to other types.
+ * <p>mappers and copiers are created in the warmup, the steady state copy is measured. Run with the gc profiler
+ * to compare the allocation per copy, {@link #main(String[])} adds it:
+ * <blockquote><pre>
+ *     java -jar benchmarks/target/benchmarks.jar BeanMappingBenchmark -prof gc
+ *     java -cp benchmarks/target/benchmarks.jar com.github.jackieonway.util.benchmark.BeanMappingBenchmark
+ * </pre></blockquote>
+ * @author Jackie
+ * @version $id: BeanMappingBenchmark.java v 0.1 2021-10-16 14:30 Jackie Exp $$
+ * @since 1.0.3
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BeanMappingBenchmark {
+
+    private UserDO user;
+
+    private OrderDO order;
+
+    @Setup
+    public void setup() {
+        user = user(1);
+        order = order(1, 10);
+    }
+
+    @Benchmark
+    public UserDTO singleOrika() {
+        return BeanUtils.copyProperties(user, UserDTO.class);
+    }
+
+    @Benchmark
+    public UserDTO singleBeanCopier() {
+        return BeanUtils.copyPropertiesByBeanCopier(user, UserDTO.class);
+    }
+
+    @Benchmark
+    public List<UserDTO> listOrika(Users users) {
+        return BeanUtils.copyProperties(users.users, UserDTO.class);
+    }
+
+    @Benchmark
+    public List<UserDTO> listBeanCopier(Users users) {
+        return BeanUtils.copyPropertiesByBeanCopier(users.users, UserDTO.class);
+    }
+
+    @Benchmark
+    public OrderDTO nestedOrika() {
+        return BeanUtils.copyProperties(order, OrderDTO.class);
+    }
+
+    @Benchmark
+    public OrderDTO nestedBeanCopier() {
+        return BeanUtils.copyPropertiesByBeanCopier(order, OrderDTO.class);
+    }
+
+    @Benchmark
+    public UserView convertingOrika() {
+        return BeanUtils.copyProperties(user, UserView.class);
+    }
+
+    @Benchmark
+    public UserView convertingBeanCopier() {
+        return BeanUtils.copyPropertiesByBeanCopier(user, UserView.class);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Users {
+
+        @Param({"100", "10000"})
+        private int size;
+
+        private List<UserDO> users;
+
+        @Setup
+        public void setup() {
+            users = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                users.add(user(i));
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(BeanMappingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
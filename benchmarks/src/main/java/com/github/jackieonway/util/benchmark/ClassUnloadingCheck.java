@@ -0,0 +1,182 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.benchmark;
+
+import com.github.jackieonway.util.bean.BeanCacheStats;
+import com.github.jackieonway.util.bean.BeanUtils;
+import com.github.jackieonway.util.bean.MappingSpec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>checks that the bean caches do not keep a class loader alive: two beans are loaded by a throwaway class loader,
+ * copied through every cached path of {@link BeanUtils}, and the loader must be collected once it is dropped,
+ * without {@link BeanUtils#clearCache()}. Exits with 1 if the loader survives.
+ * <blockquote><pre>
+ *     java -cp benchmarks/target/benchmarks.jar com.github.jackieonway.util.benchmark.ClassUnloadingCheck
+ * </pre></blockquote>
+ * on JDK 9+ cglib needs {@code --add-opens java.base/java.lang=ALL-UNNAMED} to define the copiers.
+ * @author Jackie
+ * @version $id: ClassUnloadingCheck.java v 0.1 2021-10-25 14:30 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class ClassUnloadingCheck {
+
+    private static final int MAX_GC = 20;
+
+    private ClassUnloadingCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        WeakReference<ClassLoader> loader = copyInThrowawayLoader();
+        for (int i = 0; i < MAX_GC && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        int cachedEntries = 0;
+        for (BeanCacheStats stats : BeanUtils.getCacheStats()) {
+            cachedEntries += stats.getSize();
+        }
+        boolean collected = loader.get() == null;
+        System.out.println("class loader collected: " + collected + ", cached entries: " + cachedEntries);
+        if (!collected || cachedEntries != 0) {
+            System.exit(1);
+        }
+    }
+
+    private static WeakReference<ClassLoader> copyInThrowawayLoader() throws Exception {
+        ClassLoader loader = new ChildFirstClassLoader(ClassUnloadingCheck.class.getClassLoader());
+        Class<?> sourceClass = loader.loadClass(LoadedSource.class.getName());
+        Class<?> targetClass = loader.loadClass(LoadedTarget.class.getName());
+        Object source = sourceClass.getDeclaredConstructor().newInstance();
+        BeanUtils.copyPropertiesByBeanCopier(source, targetClass);
+        BeanUtils.deepCopyPropertiesByBeanCopier(source, targetClass);
+        BeanUtils.deepCopyPropertiesByBeanCopier(source, targetClass,
+                MappingSpec.builder().exclude("name").build());
+        BeanUtils.copyNonNull(source, targetClass.getDeclaredConstructor().newInstance());
+        BeanUtils.diff(source, targetClass.getDeclaredConstructor().newInstance());
+        BeanUtils.fromMap(BeanUtils.toMap(source), targetClass);
+        return new WeakReference<>(loader);
+    }
+
+    public static class LoadedSource {
+
+        private Long id = 1L;
+
+        private String name = "name";
+
+        private List<String> tags = new ArrayList<>();
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+    }
+
+    public static class LoadedTarget {
+
+        private Long id;
+
+        private String name;
+
+        private List<String> tags;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public void setTags(List<String> tags) {
+            this.tags = tags;
+        }
+    }
+
+    /**
+     * defines this class and its nested beans itself instead of delegating to the parent, the nested beans must be
+     * loaded together with their declaring class
+     */
+    private static final class ChildFirstClassLoader extends ClassLoader {
+
+        private static final String PREFIX = ClassUnloadingCheck.class.getName();
+
+        private ChildFirstClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.startsWith(PREFIX)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz == null) {
+                    byte[] bytes = readClass(name);
+                    clazz = defineClass(name, bytes, 0, bytes.length);
+                }
+                if (resolve) {
+                    resolveClass(clazz);
+                }
+                return clazz;
+            }
+        }
+
+        private byte[] readClass(String name) throws ClassNotFoundException {
+            try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                if (in == null) {
+                    throw new ClassNotFoundException(name);
+                }
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.benchmark;
+
+import com.github.jackieonway.util.idgenerator.IdGenerator;
+import com.github.jackieonway.util.idgenerator.SequenceOverflowStrategy;
+import com.github.jackieonway.util.idgenerator.SnowflakeIdGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>contended id generation, plain vs striped, string vs snowflake.
+ * <p>generators borrow the next millisecond on overflow, so the sequence capacity of a millisecond
+ * does not cap the throughput and the cost of generation itself is measured.
+ * <blockquote><pre>
+ *     java -jar benchmarks/target/benchmarks.jar IdGeneratorBenchmark -t 8
+ * </pre></blockquote>
+ * @author Jackie
+ * @version $id: IdGeneratorBenchmark.java v 0.1 2021-09-26 15:20 Jackie Exp $$
+ * @since 1.0.3
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class IdGeneratorBenchmark {
+
+    private IdGenerator idGenerator;
+
+    private IdGenerator stripedIdGenerator;
+
+    private SnowflakeIdGenerator snowflakeIdGenerator;
+
+    private SnowflakeIdGenerator stripedSnowflakeIdGenerator;
+
+    @Setup
+    public void setup() {
+        idGenerator = builder().build();
+        stripedIdGenerator = builder().striped().build();
+        snowflakeIdGenerator = builder().buildSnowflake();
+        stripedSnowflakeIdGenerator = builder().striped().buildSnowflake();
+    }
+
+    @Benchmark
+    public String getSequence() {
+        return idGenerator.getSequence();
+    }
+
+    @Benchmark
+    public String getSequenceStriped() {
+        return stripedIdGenerator.getSequence();
+    }
+
+    @Benchmark
+    public long snowflakeNextLong() {
+        return snowflakeIdGenerator.nextLong();
+    }
+
+    @Benchmark
+    public long snowflakeNextLongStriped() {
+        return stripedSnowflakeIdGenerator.nextLong();
+    }
+
+    @Benchmark
+    public String snowflakeNextString() {
+        return snowflakeIdGenerator.nextString();
+    }
+
+    private static IdGenerator.IdGeneratorBuilder builder() {
+        return IdGenerator.IdGeneratorBuilder.builder()
+                .workId("1")
+                .businessType("1")
+                .overflowStrategy(SequenceOverflowStrategy.BORROW);
+    }
+}
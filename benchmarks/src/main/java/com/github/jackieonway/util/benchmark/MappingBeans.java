@@ -0,0 +1,610 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * <p>beans of {@link BeanMappingBenchmark}: a flat entity and its dto, an entity and a view of other
+ * property types, and an order with a nested address and a list of items.
+ * @author Jackie
+ * @version $id: MappingBeans.java v 0.1 2021-10-16 14:10 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class MappingBeans {
+
+    private MappingBeans() {
+    }
+
+    static UserDO user(long id) {
+        UserDO user = new UserDO();
+        user.setId(id);
+        user.setName("user-" + id);
+        user.setEmail("user-" + id + "@example.com");
+        user.setPhone("1380000" + (1000 + id % 9000));
+        user.setAge((int) (18 + id % 50));
+        user.setActive(id % 2 == 0);
+        user.setLevel((int) (id % 5));
+        user.setBalance(BigDecimal.valueOf(id * 100 + 99, 2));
+        user.setCreateTime(new Date(1600000000000L + id * 1000));
+        user.setVersion(id);
+        return user;
+    }
+
+    static OrderDO order(long id, int items) {
+        AddressDO address = new AddressDO();
+        address.setProvince("Sichuan");
+        address.setCity("Chengdu");
+        address.setStreet("Tianfu Avenue " + id);
+        address.setZipCode("610000");
+        List<OrderItemDO> orderItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            OrderItemDO item = new OrderItemDO();
+            item.setSkuId(id * 100 + i);
+            item.setName("sku-" + i);
+            item.setQuantity(i + 1);
+            item.setPrice(BigDecimal.valueOf(1999 + i, 2));
+            orderItems.add(item);
+        }
+        OrderDO order = new OrderDO();
+        order.setId(id);
+        order.setOrderNo("NO" + id);
+        order.setUserId(id % 1000);
+        order.setAmount(BigDecimal.valueOf(id * 1000, 2));
+        order.setCreateTime(new Date(1600000000000L + id * 1000));
+        order.setAddress(address);
+        order.setItems(orderItems);
+        return order;
+    }
+
+    public static class UserDO {
+        private Long id;
+        private String name;
+        private String email;
+        private String phone;
+        private int age;
+        private boolean active;
+        private Integer level;
+        private BigDecimal balance;
+        private Date createTime;
+        private long version;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+
+        public String getPhone() {
+            return phone;
+        }
+
+        public void setPhone(String phone) {
+            this.phone = phone;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public Integer getLevel() {
+            return level;
+        }
+
+        public void setLevel(Integer level) {
+            this.level = level;
+        }
+
+        public BigDecimal getBalance() {
+            return balance;
+        }
+
+        public void setBalance(BigDecimal balance) {
+            this.balance = balance;
+        }
+
+        public Date getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(Date createTime) {
+            this.createTime = createTime;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public void setVersion(long version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * same properties and types as {@link UserDO}
+     */
+    public static class UserDTO {
+        private Long id;
+        private String name;
+        private String email;
+        private String phone;
+        private int age;
+        private boolean active;
+        private Integer level;
+        private BigDecimal balance;
+        private Date createTime;
+        private long version;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+
+        public String getPhone() {
+            return phone;
+        }
+
+        public void setPhone(String phone) {
+            this.phone = phone;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public void setActive(boolean active) {
+            this.active = active;
+        }
+
+        public Integer getLevel() {
+            return level;
+        }
+
+        public void setLevel(Integer level) {
+            this.level = level;
+        }
+
+        public BigDecimal getBalance() {
+            return balance;
+        }
+
+        public void setBalance(BigDecimal balance) {
+            this.balance = balance;
+        }
+
+        public Date getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(Date createTime) {
+            this.createTime = createTime;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public void setVersion(long version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * properties of {@link UserDO} in other types, every property but the name is converted
+     */
+    public static class UserView {
+        private String id;
+        private String name;
+        private long age;
+        private Integer version;
+        private Long level;
+        private Double balance;
+        private String createTime;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public long getAge() {
+            return age;
+        }
+
+        public void setAge(long age) {
+            this.age = age;
+        }
+
+        public Integer getVersion() {
+            return version;
+        }
+
+        public void setVersion(Integer version) {
+            this.version = version;
+        }
+
+        public Long getLevel() {
+            return level;
+        }
+
+        public void setLevel(Long level) {
+            this.level = level;
+        }
+
+        public Double getBalance() {
+            return balance;
+        }
+
+        public void setBalance(Double balance) {
+            this.balance = balance;
+        }
+
+        public String getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(String createTime) {
+            this.createTime = createTime;
+        }
+    }
+
+    public static class AddressDO {
+        private String province;
+        private String city;
+        private String street;
+        private String zipCode;
+
+        public String getProvince() {
+            return province;
+        }
+
+        public void setProvince(String province) {
+            this.province = province;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+
+        public String getStreet() {
+            return street;
+        }
+
+        public void setStreet(String street) {
+            this.street = street;
+        }
+
+        public String getZipCode() {
+            return zipCode;
+        }
+
+        public void setZipCode(String zipCode) {
+            this.zipCode = zipCode;
+        }
+    }
+
+    public static class AddressDTO {
+        private String province;
+        private String city;
+        private String street;
+        private String zipCode;
+
+        public String getProvince() {
+            return province;
+        }
+
+        public void setProvince(String province) {
+            this.province = province;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+
+        public String getStreet() {
+            return street;
+        }
+
+        public void setStreet(String street) {
+            this.street = street;
+        }
+
+        public String getZipCode() {
+            return zipCode;
+        }
+
+        public void setZipCode(String zipCode) {
+            this.zipCode = zipCode;
+        }
+    }
+
+    public static class OrderItemDO {
+        private Long skuId;
+        private String name;
+        private int quantity;
+        private BigDecimal price;
+
+        public Long getSkuId() {
+            return skuId;
+        }
+
+        public void setSkuId(Long skuId) {
+            this.skuId = skuId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+    }
+
+    public static class OrderItemDTO {
+        private Long skuId;
+        private String name;
+        private int quantity;
+        private BigDecimal price;
+
+        public Long getSkuId() {
+            return skuId;
+        }
+
+        public void setSkuId(Long skuId) {
+            this.skuId = skuId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+    }
+
+    public static class OrderDO {
+        private Long id;
+        private String orderNo;
+        private Long userId;
+        private BigDecimal amount;
+        private Date createTime;
+        private AddressDO address;
+        private List<OrderItemDO> items;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getOrderNo() {
+            return orderNo;
+        }
+
+        public void setOrderNo(String orderNo) {
+            this.orderNo = orderNo;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public Date getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(Date createTime) {
+            this.createTime = createTime;
+        }
+
+        public AddressDO getAddress() {
+            return address;
+        }
+
+        public void setAddress(AddressDO address) {
+            this.address = address;
+        }
+
+        public List<OrderItemDO> getItems() {
+            return items;
+        }
+
+        public void setItems(List<OrderItemDO> items) {
+            this.items = items;
+        }
+    }
+
+    public static class OrderDTO {
+        private Long id;
+        private String orderNo;
+        private Long userId;
+        private BigDecimal amount;
+        private Date createTime;
+        private AddressDTO address;
+        private List<OrderItemDTO> items;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getOrderNo() {
+            return orderNo;
+        }
+
+        public void setOrderNo(String orderNo) {
+            this.orderNo = orderNo;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public Date getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(Date createTime) {
+            this.createTime = createTime;
+        }
+
+        public AddressDTO getAddress() {
+            return address;
+        }
+
+        public void setAddress(AddressDTO address) {
+            this.address = address;
+        }
+
+        public List<OrderItemDTO> getItems() {
+            return items;
+        }
+
+        public void setItems(List<OrderItemDTO> items) {
+            this.items = items;
+        }
+    }
+}
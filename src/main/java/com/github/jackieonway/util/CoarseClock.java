@@ -0,0 +1,154 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util;
+
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * <p>millisecond clock that renders time as yyyyMMddHHmmssSSS in the default time zone.
+ * <p>the last rendered millisecond is shared by all threads, calls in the same millisecond
+ * return the same string without any allocation. A new millisecond in the same minute only
+ * rewrites the ssSSS digits of a copy of the last buffer, the full date is rendered once a minute.
+ * <p>only millis from 1970 to 9999 are rendered by the clock, where its proleptic gregorian calendar and the four
+ * digit year agree with {@link SimpleDateFormat}, other millis are formatted by {@link SimpleDateFormat}.
+ * @author Jackie
+ * @version $id: CoarseClock.java v 0.1 2021-09-28 11:05 Jackie Exp $$
+ * @since 1.0.3
+ */
+public enum CoarseClock {
+
+    /**
+     * CoarseClock 实例
+     */
+    INSTANCE;
+
+    /**
+     * pattern rendered by this clock
+     */
+    public static final String PATTERN = "yyyyMMddHHmmssSSS";
+
+    private static final int LENGTH = PATTERN.length();
+
+    /**
+     * offset of ss in the buffer
+     */
+    private static final int SECOND_OFFSET = 12;
+
+    private static final long MILLIS_PER_MINUTE = 60000L;
+
+    /**
+     * 9999-12-31 00:00:00 UTC, still in 9999 in every time zone
+     */
+    private static final long MAX_RENDERED_MILLIS = 253402214400000L;
+
+    private static volatile Snapshot snapshot = render(0L);
+
+    /**
+     * current time as yyyyMMddHHmmssSSS
+     * @return time
+     */
+    public static String now() {
+        return format(System.currentTimeMillis());
+    }
+
+    /**
+     * millis as yyyyMMddHHmmssSSS
+     * @param millis millis since 1970-01-01 00:00:00 UTC
+     * @return time
+     */
+    public static String format(long millis) {
+        if (!isRendered(millis)) {
+            return new SimpleDateFormat(PATTERN).format(new Date(millis));
+        }
+        return get(millis).text;
+    }
+
+    /**
+     * append millis as yyyyMMddHHmmssSSS to the builder
+     * @param sb string builder
+     * @param millis millis since 1970-01-01 00:00:00 UTC
+     * @return the builder
+     */
+    public static StringBuilder appendTo(StringBuilder sb, long millis) {
+        if (!isRendered(millis)) {
+            return sb.append(new SimpleDateFormat(PATTERN).format(new Date(millis)));
+        }
+        return sb.append(get(millis).chars);
+    }
+
+    /**
+     * whether the millis are rendered by the clock, the digits written are never negative
+     */
+    private static boolean isRendered(long millis) {
+        return millis >= 0 && millis < MAX_RENDERED_MILLIS;
+    }
+
+    private static Snapshot get(long millis) {
+        Snapshot current = snapshot;
+        if (current.millis == millis) {
+            return current;
+        }
+        Snapshot next;
+        long inMinute = millis - current.minuteStart;
+        if (inMinute >= 0 && inMinute < MILLIS_PER_MINUTE) {
+            char[] chars = current.chars.clone();
+            writeSecondAndMillis(chars, (int) inMinute);
+            next = new Snapshot(millis, current.minuteStart, chars);
+        } else {
+            next = render(millis);
+        }
+        snapshot = next;
+        return next;
+    }
+
+    private static Snapshot render(long millis) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+        char[] chars = new char[LENGTH];
+        writeDigits(chars, 0, time.getYear(), 4);
+        writeDigits(chars, 4, time.getMonthValue(), 2);
+        writeDigits(chars, 6, time.getDayOfMonth(), 2);
+        writeDigits(chars, 8, time.getHour(), 2);
+        writeDigits(chars, 10, time.getMinute(), 2);
+        int inMinute = time.getSecond() * 1000 + time.getNano() / 1000000;
+        writeSecondAndMillis(chars, inMinute);
+        return new Snapshot(millis, millis - inMinute, chars);
+    }
+
+    private static void writeSecondAndMillis(char[] chars, int inMinute) {
+        writeDigits(chars, SECOND_OFFSET, inMinute, 5);
+    }
+
+    private static void writeDigits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final long millis;
+
+        /**
+         * millis of the start of the minute, the yyyyMMddHHmm digits are valid for the whole minute
+         */
+        private final long minuteStart;
+
+        private final char[] chars;
+
+        private final String text;
+
+        private Snapshot(long millis, long minuteStart, char[] chars) {
+            this.millis = millis;
+            this.minuteStart = minuteStart;
+            this.chars = chars;
+            this.text = new String(chars);
+        }
+    }
+}
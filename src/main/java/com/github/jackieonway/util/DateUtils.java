@@ -49,6 +49,9 @@ public enum  DateUtils {
             if (StringUtils.isEmpty(pattern)){
                 pattern = DEFAULT_FORMAT;
             }
+            if (CoarseClock.PATTERN.equals(pattern)){
+                return CoarseClock.format(date.getTime());
+            }
             SimpleDateFormat simpleDateFormat = new SimpleDateFormat(pattern);
             return simpleDateFormat.format(date);
         }catch (Exception e){
@@ -262,6 +265,9 @@ public enum  DateUtils {
         if (aDate == null) {
             return "";
         }
+        if (CoarseClock.PATTERN.equals(aMask)){
+            return CoarseClock.format(aDate.getTime());
+        }
         SimpleDateFormat df = new SimpleDateFormat(aMask);
         return df.format(aDate);
     }
@@ -1086,6 +1092,19 @@ public enum  DateUtils {
     }
 
 
+    /**
+     * 格式化日期
+     * yyyyMMddHHmmssSSS, 同一毫秒内重复调用不会重新格式化
+     *
+     * @param millis 待格式化时间
+     * @return String
+     * @since 1.0.3
+     * @see CoarseClock
+     */
+    public static String formatCompactMillis(long millis) {
+        return CoarseClock.format(millis);
+    }
+
     /**
      * 格式化日期
      * yyyy-MM-dd HH:mm:ss
@@ -1107,6 +1126,9 @@ public enum  DateUtils {
      *  @return patten date
      */
     public static String formatPattern(Date date, String pattern) {
+        if (CoarseClock.PATTERN.equals(pattern)){
+            return CoarseClock.format(date.getTime());
+        }
         SimpleDateFormat sd = new SimpleDateFormat(pattern);
         return sd.format(date);
     }
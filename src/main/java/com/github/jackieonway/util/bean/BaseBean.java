@@ -18,6 +18,9 @@ import java.util.function.UnaryOperator;
  *         DO.convertList(list,DTO.class, DTO.config(),DTO.excludes());
  * </pre></blockquote>
  * <p>also can use: {@link BeanUtils#copyProperties(List, Class, Map, List)}
+ * <p>if the config map and the exclude fields only contain flat property names, beans are deep copied
+ * by the generated copiers of {@link BeanUtils#deepCopyPropertiesByBeanCopier(Object, Class, MappingSpec)},
+ * nested paths such as {@code info.hobby} are mapped by Orika
  * @author Jackie
  * @version $id: BaseBean.java v 0.1 2021-09-01 17:05 Jackie Exp $$
  */
@@ -33,7 +36,12 @@ public interface BaseBean {
      * @see BaseBean
      */
     default <E> E convert(Class<E>  clazz){
-       return BeanUtils.copyProperties(this, clazz,configMap(),excludeFields());
+        Map<String, String> configMap = configMap();
+        List<String> excludeFields = excludeFields();
+        if (MappingSpec.isFlat(configMap, excludeFields)) {
+            return BeanUtils.deepCopyPropertiesByBeanCopier(this, clazz, MappingSpec.of(configMap, excludeFields));
+        }
+        return BeanUtils.copyProperties(this, clazz, configMap, excludeFields);
     }
 
     /**
@@ -84,6 +92,9 @@ public interface BaseBean {
      */
     static  <E,T> List<E> convert(List<T> source, Class<E> clazz,
                                   Map<String, String> configMap, List<String> excludeFields){
+        if (MappingSpec.isFlat(configMap, excludeFields)) {
+            return BeanUtils.deepCopyPropertiesByBeanCopier(source, clazz, MappingSpec.of(configMap, excludeFields));
+        }
         return BeanUtils.copyProperties(source, clazz,configMap,excludeFields);
     }
 
@@ -0,0 +1,150 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+/**
+ * snapshot of the counters of a cache of {@link BeanUtils}, see {@link BeanUtils#getCacheStats()}
+ * @author Jackie
+ * @version $id: BeanCacheStats.java v 0.1 2021-10-16 09:30 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class BeanCacheStats {
+
+    private final String name;
+
+    private final int size;
+
+    private final int maximumSize;
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long evictionCount;
+
+    private final long creationCount;
+
+    private final long creationFailureCount;
+
+    private final long totalCreationNanos;
+
+    BeanCacheStats(String name, int size, int maximumSize, long hitCount, long missCount, long evictionCount,
+                   long creationCount, long creationFailureCount, long totalCreationNanos) {
+        this.name = name;
+        this.size = size;
+        this.maximumSize = maximumSize;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.creationCount = creationCount;
+        this.creationFailureCount = creationFailureCount;
+        this.totalCreationNanos = totalCreationNanos;
+    }
+
+    /**
+     * name of the cache
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * cached entries
+     * @return size
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * entries kept before the least recently used are evicted
+     * @return maximum size
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * lookups that found a created value
+     * @return count
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * lookups that created a value or waited for its creation
+     * @return count
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * hits of all lookups, 1 if nothing was looked up
+     * @return rate
+     */
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    /**
+     * entries evicted above the maximum size, entries of unloaded classes are not counted
+     * @return count
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * values created, e.g. generated copier classes
+     * @return count
+     */
+    public long getCreationCount() {
+        return creationCount;
+    }
+
+    /**
+     * creations that threw an exception
+     * @return count
+     */
+    public long getCreationFailureCount() {
+        return creationFailureCount;
+    }
+
+    /**
+     * time spent in creations, failed ones included
+     * @return nanoseconds
+     */
+    public long getTotalCreationNanos() {
+        return totalCreationNanos;
+    }
+
+    /**
+     * average time of a creation
+     * @return nanoseconds, 0 if nothing was created
+     */
+    public long getAverageCreationNanos() {
+        long creations = creationCount + creationFailureCount;
+        return creations == 0 ? 0 : totalCreationNanos / creations;
+    }
+
+    @Override
+    public String toString() {
+        return "BeanCacheStats{" +
+                "name=" + name +
+                ", size=" + size +
+                ", maximumSize=" + maximumSize +
+                ", hit=" + hitCount +
+                ", miss=" + missCount +
+                ", eviction=" + evictionCount +
+                ", creation=" + creationCount +
+                ", creationFailure=" + creationFailureCount +
+                ", totalCreationNanos=" + totalCreationNanos +
+                '}';
+    }
+}
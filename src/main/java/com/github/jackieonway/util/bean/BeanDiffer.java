@@ -0,0 +1,242 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+import net.sf.cglib.asm.$ClassVisitor;
+import net.sf.cglib.asm.$Label;
+import net.sf.cglib.asm.$Type;
+import net.sf.cglib.core.*;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>generated comparator of two beans, compares the readable properties of the same name property by property
+ * without reflection, e.g. to audit-log the changes of an entity.
+ * <p>properties of the same type are compared, primitives without boxing, a primitive and its wrapper are
+ * compared boxed, other references by {@link Objects#deepEquals(Object, Object)} if one type is assignable to
+ * the other. Properties of unrelated types, such as {@code Long} and {@code String}, are not compared.
+ * Renames and excludes of a {@link MappingSpec} map the properties of the old class to the new class, with
+ * skipNulls a null new value is not a change.
+ * @author Jackie
+ * @version $id: BeanDiffer.java v 0.1 2021-10-14 10:30 Jackie Exp $$
+ * @since 1.0.3
+ */
+public abstract class BeanDiffer {
+
+    private static final String CLASS_PROPERTY = "class";
+    private static final BeanDifferKey KEY_FACTORY = (BeanDifferKey) KeyFactory.create(BeanDifferKey.class);
+    private static final $Type BEAN_DIFFER = TypeUtils.parseType(BeanDiffer.class.getName());
+    private static final $Type TYPE_LIST = TypeUtils.parseType(List.class.getName());
+    private static final $Type TYPE_OBJECTS = TypeUtils.parseType(Objects.class.getName());
+    private static final $Type TYPE_PROPERTY_CHANGE = TypeUtils.parseType(PropertyChange.class.getName());
+    private static final Signature DIFF = new Signature("diff", $Type.VOID_TYPE,
+            new $Type[]{Constants.TYPE_OBJECT, Constants.TYPE_OBJECT, TYPE_LIST});
+    private static final Signature DEEP_EQUALS = new Signature("deepEquals", $Type.BOOLEAN_TYPE,
+            new $Type[]{Constants.TYPE_OBJECT, Constants.TYPE_OBJECT});
+    private static final Signature ADD = new Signature("add", $Type.BOOLEAN_TYPE,
+            new $Type[]{Constants.TYPE_OBJECT});
+    private static final Signature PROPERTY_CHANGE = new Signature(Constants.CONSTRUCTOR_NAME, $Type.VOID_TYPE,
+            new $Type[]{Constants.TYPE_STRING, Constants.TYPE_OBJECT, Constants.TYPE_OBJECT});
+
+    interface BeanDifferKey {
+        Object newInstance(String oldClass, String newClass, Object spec);
+    }
+
+    /**
+     * create differ of the class pair
+     * @param oldClass class of the old bean
+     * @param newClass class of the new bean
+     * @param spec property mapping of the old class to the new class
+     * @param <T> old type
+     * @param <E> new type
+     * @return differ
+     */
+    public static <T, E> BeanDiffer create(Class<T> oldClass, Class<E> newClass, MappingSpec spec) {
+        Generator gen = new Generator();
+        gen.setOldClass(oldClass);
+        gen.setNewClass(newClass);
+        gen.setSpec(spec);
+        return gen.create();
+    }
+
+    /**
+     * changed properties of the beans
+     * @param oldBean old bean
+     * @param newBean new bean
+     * @return changes in the property order of the differ, empty if none
+     */
+    public List<PropertyChange> diff(Object oldBean, Object newBean) {
+        Objects.requireNonNull(oldBean, "oldBean can not be null");
+        Objects.requireNonNull(newBean, "newBean can not be null");
+        List<PropertyChange> changes = new ArrayList<>();
+        diff(oldBean, newBean, changes);
+        return changes.isEmpty() ? Collections.emptyList() : changes;
+    }
+
+    /**
+     * add the changed properties of the beans to the list
+     * @param oldBean old bean
+     * @param newBean new bean
+     * @param changes changes
+     */
+    public abstract void diff(Object oldBean, Object newBean, List<PropertyChange> changes);
+
+    public static class Generator extends AbstractClassGenerator {
+        private static final Source SOURCE = new Source(BeanDiffer.class.getName());
+        private Class<?> oldClass;
+        private Class<?> newClass;
+        private MappingSpec spec = MappingSpec.DEFAULT;
+
+        public Generator() {
+            super(SOURCE);
+        }
+
+        public void setOldClass(Class<?> oldClass) {
+            if (!Modifier.isPublic(oldClass.getModifiers())) {
+                setNamePrefix(oldClass.getName());
+            }
+            this.oldClass = oldClass;
+        }
+
+        public void setNewClass(Class<?> newClass) {
+            if (!Modifier.isPublic(newClass.getModifiers())) {
+                setNamePrefix(newClass.getName());
+            }
+            this.newClass = newClass;
+        }
+
+        public void setSpec(MappingSpec spec) {
+            this.spec = Objects.requireNonNull(spec, "spec can not be null");
+        }
+
+        @Override
+        protected ClassLoader getDefaultClassLoader() {
+            return oldClass.getClassLoader();
+        }
+
+        public BeanDiffer create() {
+            return (BeanDiffer) super.create(KEY_FACTORY.newInstance(oldClass.getName(), newClass.getName(), spec));
+        }
+
+        @Override
+        public void generateClass($ClassVisitor v) {
+            ClassEmitter ce = new ClassEmitter(v);
+            ce.begin_class(Constants.V1_2,
+                    Constants.ACC_PUBLIC,
+                    getClassName(),
+                    BEAN_DIFFER,
+                    null,
+                    Constants.SOURCE_FILE);
+            EmitUtils.null_constructor(ce);
+            CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, DIFF, null);
+            Local oldLocal = e.make_local();
+            Local newLocal = e.make_local();
+            Local oldValueLocal = e.make_local(Constants.TYPE_OBJECT);
+            Local newValueLocal = e.make_local(Constants.TYPE_OBJECT);
+            e.load_arg(0);
+            e.checkcast($Type.getType(oldClass));
+            e.store_local(oldLocal);
+            e.load_arg(1);
+            e.checkcast($Type.getType(newClass));
+            e.store_local(newLocal);
+            Map<String, PropertyDescriptor> oldGetters = new HashMap<>();
+            for (PropertyDescriptor getter : ReflectUtils.getBeanGetters(oldClass)) {
+                oldGetters.put(getter.getName(), getter);
+            }
+            for (PropertyDescriptor newGetter : ReflectUtils.getBeanGetters(newClass)) {
+                if (CLASS_PROPERTY.equals(newGetter.getName())) {
+                    continue;
+                }
+                String oldName = spec.sourceOf(newGetter.getName());
+                PropertyDescriptor oldGetter = Objects.isNull(oldName) ? null : oldGetters.get(oldName);
+                if (Objects.isNull(oldGetter) || Objects.isNull(oldGetter.getReadMethod())
+                        || Objects.isNull(newGetter.getReadMethod())) {
+                    continue;
+                }
+                MethodInfo oldRead = ReflectUtils.getMethodInfo(oldGetter.getReadMethod());
+                MethodInfo newRead = ReflectUtils.getMethodInfo(newGetter.getReadMethod());
+                $Type oldType = oldRead.getSignature().getReturnType();
+                $Type newType = newRead.getSignature().getReturnType();
+                if (!comparable(oldGetter.getPropertyType(), newGetter.getPropertyType())) {
+                    continue;
+                }
+                $Label end = e.make_label();
+                //浮点数按包装类比较, NaN 与 NaN 相等
+                boolean primitive = TypeUtils.isPrimitive(oldType) && oldType.equals(newType)
+                        && !$Type.FLOAT_TYPE.equals(oldType) && !$Type.DOUBLE_TYPE.equals(oldType);
+                if (primitive) {
+                    e.load_local(oldLocal);
+                    e.invoke(oldRead);
+                    e.load_local(newLocal);
+                    e.invoke(newRead);
+                    e.if_cmp(oldType, CodeEmitter.EQ, end);
+                }
+                loadValue(e, oldLocal, oldRead, oldValueLocal);
+                loadValue(e, newLocal, newRead, newValueLocal);
+                if (spec.isSkipNulls() && !TypeUtils.isPrimitive(newType)) {
+                    e.load_local(newValueLocal);
+                    e.ifnull(end);
+                }
+                if (!primitive) {
+                    e.load_local(oldValueLocal);
+                    e.load_local(newValueLocal);
+                    e.invoke_static(TYPE_OBJECTS, DEEP_EQUALS);
+                    e.if_jump(CodeEmitter.NE, end);
+                }
+                e.load_arg(2);
+                e.new_instance(TYPE_PROPERTY_CHANGE);
+                e.dup();
+                e.push(newGetter.getName());
+                e.load_local(oldValueLocal);
+                e.load_local(newValueLocal);
+                e.invoke_constructor(TYPE_PROPERTY_CHANGE, PROPERTY_CHANGE);
+                e.invoke_interface(TYPE_LIST, ADD);
+                e.pop();
+                e.mark(end);
+            }
+            e.return_value();
+            e.end_method();
+            ce.end_class();
+        }
+
+        /**
+         * same type, a primitive and its wrapper, or references of which one is assignable to the other,
+         * values of unrelated types could never be equal
+         */
+        private static boolean comparable(Class<?> oldType, Class<?> newType) {
+            Class<?> oldBoxed = TypeConverters.wrap(oldType);
+            Class<?> newBoxed = TypeConverters.wrap(newType);
+            return oldBoxed.isAssignableFrom(newBoxed) || newBoxed.isAssignableFrom(oldBoxed);
+        }
+
+        private static void loadValue(CodeEmitter e, Local beanLocal, MethodInfo read, Local valueLocal) {
+            $Type type = read.getSignature().getReturnType();
+            e.load_local(beanLocal);
+            e.invoke(read);
+            if (TypeUtils.isPrimitive(type)) {
+                $Type boxed = TypeUtils.getBoxedType(type);
+                e.invoke_static(boxed, new Signature("valueOf", boxed, new $Type[]{type}));
+            }
+            e.store_local(valueLocal);
+        }
+
+        @Override
+        protected Object firstInstance(Class type) {
+            return ReflectUtils.newInstance(type);
+        }
+
+        @Override
+        protected Object nextInstance(Object instance) {
+            return instance;
+        }
+    }
+}
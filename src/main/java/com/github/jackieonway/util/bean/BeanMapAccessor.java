@@ -0,0 +1,406 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+import com.github.jackieonway.util.HashMapUtil;
+import net.sf.cglib.asm.$ClassVisitor;
+import net.sf.cglib.asm.$Label;
+import net.sf.cglib.asm.$Type;
+import net.sf.cglib.core.*;
+
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>generated accessor of the readable properties of a bean class by index, without reflection,
+ * the indexes follow the order of {@link #getProperties()}. Used by {@link BeanUtils#toMap(Object)} and
+ * {@link BeanUtils#fromMap(Map, Class)}.
+ * @author Jackie
+ * @version $id: BeanMapAccessor.java v 0.1 2021-10-14 15:40 Jackie Exp $$
+ * @since 1.0.3
+ */
+public abstract class BeanMapAccessor {
+
+    private static final String CLASS_PROPERTY = "class";
+    private static final String SET_PREFIX = "set";
+    private static final String PROPERTIES_FIELD = "PROPERTIES";
+    private static final String PROPERTY_TYPES_FIELD = "PROPERTY_TYPES";
+    private static final BeanMapAccessorKey KEY_FACTORY =
+            (BeanMapAccessorKey) KeyFactory.create(BeanMapAccessorKey.class);
+    private static final $Type BEAN_MAP_ACCESSOR = TypeUtils.parseType(BeanMapAccessor.class.getName());
+    private static final $Type TYPE_STRING_ARRAY = TypeUtils.parseType("String[]");
+    private static final $Type TYPE_CLASS_ARRAY = TypeUtils.parseType("Class[]");
+    private static final $Type TYPE_OBJECT_ARRAY = TypeUtils.parseType("Object[]");
+    private static final $Type ILLEGAL_ARGUMENT_EXCEPTION =
+            TypeUtils.parseType(IllegalArgumentException.class.getName());
+    private static final Signature GET = new Signature("get", Constants.TYPE_OBJECT,
+            new $Type[]{Constants.TYPE_OBJECT, $Type.INT_TYPE});
+    private static final Signature SET = new Signature("set", $Type.VOID_TYPE,
+            new $Type[]{Constants.TYPE_OBJECT, $Type.INT_TYPE, Constants.TYPE_OBJECT});
+    private static final Signature GET_ALL = new Signature("getAll", $Type.VOID_TYPE,
+            new $Type[]{Constants.TYPE_OBJECT, TYPE_OBJECT_ARRAY});
+    private static final Signature GET_PROPERTY_NAMES = new Signature("getPropertyNames", TYPE_STRING_ARRAY,
+            new $Type[0]);
+    private static final Signature GET_PROPERTY_TYPES = new Signature("getPropertyTypes", TYPE_CLASS_ARRAY,
+            new $Type[0]);
+
+    interface BeanMapAccessorKey {
+        Object newInstance(String beanClass);
+    }
+
+    /**
+     * properties, shared by every map of the accessor
+     */
+    private final String[] properties;
+
+    private final Class<?>[] types;
+
+    private final Map<String, Integer> indexes;
+
+    protected BeanMapAccessor() {
+        this.properties = getPropertyNames();
+        this.types = getPropertyTypes();
+        this.indexes = new HashMap<>(HashMapUtil.generateCapacity(properties.length));
+        for (int i = 0; i < properties.length; i++) {
+            indexes.put(properties[i], i);
+        }
+    }
+
+    /**
+     * create accessor of the bean class
+     * @param beanClass bean class
+     * @return accessor
+     */
+    public static BeanMapAccessor create(Class<?> beanClass) {
+        Generator gen = new Generator();
+        gen.setBeanClass(beanClass);
+        return gen.create();
+    }
+
+    /**
+     * value of the property
+     * @param bean bean
+     * @param index property index
+     * @return value, primitives are boxed
+     * @throws IllegalArgumentException if the index is out of range
+     */
+    public abstract Object get(Object bean, int index);
+
+    /**
+     * set the property, a read-only property is left unchanged, null leaves a primitive property unchanged
+     * @param bean bean
+     * @param index property index
+     * @param value value of the property type
+     * @throws IllegalArgumentException if the index is out of range
+     */
+    public abstract void set(Object bean, int index, Object value);
+
+    /**
+     * read every property
+     * @param bean bean
+     * @param values values in property order, at least as long as the properties
+     */
+    public abstract void getAll(Object bean, Object[] values);
+
+    /**
+     * set the property, a value of another type is converted by {@link TypeConverters}
+     * @param bean bean
+     * @param index property index
+     * @param value value
+     * @throws IllegalArgumentException if the value can not be converted to the property type
+     */
+    @SuppressWarnings("unchecked")
+    public void setConverted(Object bean, int index, Object value) {
+        Class<?> type = types[index];
+        if (Objects.nonNull(value) && !TypeConverters.wrap(type).isInstance(value)) {
+            TypeConverter<Object, Object> converter =
+                    (TypeConverter<Object, Object>) TypeConverters.find(value.getClass(), type);
+            if (Objects.isNull(converter)) {
+                throw new IllegalArgumentException(String.format("can not convert %s to %s of property %s",
+                        value.getClass().getName(), type.getName(), properties[index]));
+            }
+            value = converter.convert(value);
+        }
+        set(bean, index, value);
+    }
+
+    /**
+     * index of the property
+     * @param property property
+     * @return index, -1 if the bean has no such readable property
+     */
+    public int indexOf(Object property) {
+        Integer index = indexes.get(property);
+        return Objects.isNull(index) ? -1 : index;
+    }
+
+    /**
+     * number of properties
+     * @return size
+     */
+    public int size() {
+        return properties.length;
+    }
+
+    /**
+     * property at the index
+     * @param index property index
+     * @return property
+     */
+    public String getProperty(int index) {
+        return properties[index];
+    }
+
+    /**
+     * readable properties
+     * @return properties in index order
+     */
+    public List<String> getProperties() {
+        return new ArrayList<>(Arrays.asList(properties));
+    }
+
+    /**
+     * generated, properties in index order
+     * @return properties
+     */
+    protected abstract String[] getPropertyNames();
+
+    /**
+     * generated, property types in index order
+     * @return property types
+     */
+    protected abstract Class<?>[] getPropertyTypes();
+
+    public static class Generator extends AbstractClassGenerator {
+        private static final Source SOURCE = new Source(BeanMapAccessor.class.getName());
+        private Class<?> beanClass;
+
+        public Generator() {
+            super(SOURCE);
+        }
+
+        public void setBeanClass(Class<?> beanClass) {
+            if (!Modifier.isPublic(beanClass.getModifiers())) {
+                setNamePrefix(beanClass.getName());
+            }
+            this.beanClass = beanClass;
+        }
+
+        @Override
+        protected ClassLoader getDefaultClassLoader() {
+            return beanClass.getClassLoader();
+        }
+
+        public BeanMapAccessor create() {
+            return (BeanMapAccessor) super.create(KEY_FACTORY.newInstance(beanClass.getName()));
+        }
+
+        @Override
+        public void generateClass($ClassVisitor v) {
+            List<PropertyDescriptor> getters = new ArrayList<>();
+            for (PropertyDescriptor getter : ReflectUtils.getBeanGetters(beanClass)) {
+                if (!CLASS_PROPERTY.equals(getter.getName()) && Objects.nonNull(getter.getReadMethod())) {
+                    getters.add(getter);
+                }
+            }
+            ClassEmitter ce = new ClassEmitter(v);
+            ce.begin_class(Constants.V1_2,
+                    Constants.ACC_PUBLIC,
+                    getClassName(),
+                    BEAN_MAP_ACCESSOR,
+                    null,
+                    Constants.SOURCE_FILE);
+            EmitUtils.null_constructor(ce);
+            ce.declare_field(Constants.ACC_PRIVATE | Constants.ACC_STATIC | Constants.ACC_FINAL,
+                    PROPERTIES_FIELD, TYPE_STRING_ARRAY, null);
+            ce.declare_field(Constants.ACC_PRIVATE | Constants.ACC_STATIC | Constants.ACC_FINAL,
+                    PROPERTY_TYPES_FIELD, TYPE_CLASS_ARRAY, null);
+            generateGet(ce, getters);
+            generateSet(ce, getters);
+            generateGetAll(ce, getters);
+            generateStaticInitializer(ce, getters);
+            generateGetter(ce, GET_PROPERTY_NAMES, PROPERTIES_FIELD);
+            generateGetter(ce, GET_PROPERTY_TYPES, PROPERTY_TYPES_FIELD);
+            ce.end_class();
+        }
+
+        private void generateGet(ClassEmitter ce, List<PropertyDescriptor> getters) {
+            CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, GET, null);
+            $Type beanType = $Type.getType(beanClass);
+            if (getters.isEmpty()) {
+                e.throw_exception(ILLEGAL_ARGUMENT_EXCEPTION, "property index out of range");
+                e.end_method();
+                return;
+            }
+            e.load_arg(1);
+            e.process_switch(indexes(getters.size()), new ProcessSwitchCallback() {
+                @Override
+                public void processCase(int index, $Label end) {
+                    MethodInfo read = ReflectUtils.getMethodInfo(getters.get(index).getReadMethod());
+                    e.load_arg(0);
+                    e.checkcast(beanType);
+                    e.invoke(read);
+                    box(e, read.getSignature().getReturnType());
+                    e.return_value();
+                }
+
+                @Override
+                public void processDefault() {
+                    e.throw_exception(ILLEGAL_ARGUMENT_EXCEPTION, "property index out of range");
+                }
+            });
+            e.end_method();
+        }
+
+        private void generateSet(ClassEmitter ce, List<PropertyDescriptor> getters) {
+            CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, SET, null);
+            $Type beanType = $Type.getType(beanClass);
+            if (getters.isEmpty()) {
+                e.throw_exception(ILLEGAL_ARGUMENT_EXCEPTION, "property index out of range");
+                e.end_method();
+                return;
+            }
+            e.load_arg(1);
+            e.process_switch(indexes(getters.size()), new ProcessSwitchCallback() {
+                @Override
+                public void processCase(int index, $Label end) {
+                    Method writeMethod = findSetter(getters.get(index));
+                    if (Objects.isNull(writeMethod)) {
+                        e.return_value();
+                        return;
+                    }
+                    MethodInfo write = ReflectUtils.getMethodInfo(writeMethod);
+                    $Type type = write.getSignature().getArgumentTypes()[0];
+                    $Label skip = e.make_label();
+                    if (TypeUtils.isPrimitive(type)) {
+                        e.load_arg(2);
+                        e.ifnull(skip);
+                    }
+                    e.load_arg(0);
+                    e.checkcast(beanType);
+                    e.load_arg(2);
+                    if (TypeUtils.isPrimitive(type)) {
+                        e.unbox(type);
+                    } else {
+                        e.checkcast(type);
+                    }
+                    e.invoke(write);
+                    Class<?> returnType = writeMethod.getReturnType();
+                    if (long.class.equals(returnType) || double.class.equals(returnType)) {
+                        e.pop2();
+                    } else if (!void.class.equals(returnType)) {
+                        e.pop();
+                    }
+                    e.mark(skip);
+                    e.return_value();
+                }
+
+                @Override
+                public void processDefault() {
+                    e.throw_exception(ILLEGAL_ARGUMENT_EXCEPTION, "property index out of range");
+                }
+            });
+            e.end_method();
+        }
+
+        private void generateGetAll(ClassEmitter ce, List<PropertyDescriptor> getters) {
+            CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, GET_ALL, null);
+            Local beanLocal = e.make_local();
+            e.load_arg(0);
+            e.checkcast($Type.getType(beanClass));
+            e.store_local(beanLocal);
+            for (int i = 0; i < getters.size(); i++) {
+                MethodInfo read = ReflectUtils.getMethodInfo(getters.get(i).getReadMethod());
+                e.load_arg(1);
+                e.push(i);
+                e.load_local(beanLocal);
+                e.invoke(read);
+                box(e, read.getSignature().getReturnType());
+                e.aastore();
+            }
+            e.return_value();
+            e.end_method();
+        }
+
+        private void generateStaticInitializer(ClassEmitter ce, List<PropertyDescriptor> getters) {
+            CodeEmitter e = ce.begin_static();
+            String[] names = new String[getters.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = getters.get(i).getName();
+            }
+            EmitUtils.push_array(e, names);
+            e.putfield(PROPERTIES_FIELD);
+            e.push(getters.size());
+            e.newarray(Constants.TYPE_CLASS);
+            for (int i = 0; i < getters.size(); i++) {
+                e.dup();
+                e.push(i);
+                EmitUtils.load_class(e, $Type.getType(getters.get(i).getReadMethod().getReturnType()));
+                e.aastore();
+            }
+            e.putfield(PROPERTY_TYPES_FIELD);
+            e.return_value();
+            e.end_method();
+        }
+
+        private static void generateGetter(ClassEmitter ce, Signature signature, String field) {
+            CodeEmitter e = ce.begin_method(Constants.ACC_PROTECTED, signature, null);
+            e.getfield(field);
+            e.return_value();
+            e.end_method();
+        }
+
+        /**
+         * setter of the property type, also a setter returning a value
+         */
+        private Method findSetter(PropertyDescriptor getter) {
+            Class<?> type = getter.getReadMethod().getReturnType();
+            if (Objects.nonNull(getter.getWriteMethod()) && getter.getWriteMethod().getParameterTypes()[0] == type) {
+                return getter.getWriteMethod();
+            }
+            for (Method method : beanClass.getMethods()) {
+                if (!Modifier.isStatic(method.getModifiers()) && method.getParameterCount() == 1
+                        && method.getParameterTypes()[0] == type && method.getName().startsWith(SET_PREFIX)
+                        && getter.getName().equals(Introspector.decapitalize(method.getName().substring(3)))) {
+                    return method;
+                }
+            }
+            return null;
+        }
+
+        private static int[] indexes(int size) {
+            int[] indexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                indexes[i] = i;
+            }
+            return indexes;
+        }
+
+        private static void box(CodeEmitter e, $Type type) {
+            if (TypeUtils.isPrimitive(type)) {
+                $Type boxed = TypeUtils.getBoxedType(type);
+                e.invoke_static(boxed, new Signature("valueOf", boxed, new $Type[]{type}));
+            }
+        }
+
+        @Override
+        protected Object firstInstance(Class type) {
+            return ReflectUtils.newInstance(type);
+        }
+
+        @Override
+        protected Object nextInstance(Object instance) {
+            return instance;
+        }
+    }
+}
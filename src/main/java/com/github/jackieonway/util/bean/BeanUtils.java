@@ -8,8 +8,10 @@ import ma.glasnost.orika.impl.DefaultMapperFactory;
 import ma.glasnost.orika.metadata.ClassMapBuilder;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 /**
  * Bean转换工具类
@@ -25,16 +27,35 @@ public enum BeanUtils {
     /**
      * 默认字段实例集合
      */
-    private static final Map<String, MapperFacade> CACHE_MAPPER_FACADE_MAP =
-            new ConcurrentHashMap<>(256);
+    private static final ClassPairCache<MapperFacade> CACHE_MAPPER_FACADE_MAP = new ClassPairCache<>("mapperFacade");
 
-    private static final Map<String, CustomBeanCopier> BEAN_COPIER_CACHE_MAP =
-            new ConcurrentHashMap<>(256);
+    private static final ClassPairCache<CustomBeanCopier> BEAN_COPIER_CACHE_MAP = new ClassPairCache<>("beanCopier");
 
-    private static final Object LOCK_OBJECT = new Object();
+    private static final ClassPairCache<CustomBeanCopier> DEEP_BEAN_COPIER_CACHE_MAP =
+            new ClassPairCache<>("deepBeanCopier");
 
-    private static final Map<String, ConstructorAccess<?>> CONSTRUCTOR_ACCESS_CACHE =
-            new ConcurrentHashMap<>(256);
+    private static final ClassPairCache<CustomBeanCopier> SPEC_BEAN_COPIER_CACHE_MAP =
+            new ClassPairCache<>("specBeanCopier");
+
+    private static final ClassPairCache<CustomBeanCopier> DEEP_SPEC_BEAN_COPIER_CACHE_MAP =
+            new ClassPairCache<>("deepSpecBeanCopier");
+
+    private static final ClassPairCache<CustomBeanCopier> MERGE_BEAN_COPIER_CACHE_MAP =
+            new ClassPairCache<>("mergeBeanCopier");
+
+    private static final ClassPairCache<BeanDiffer> BEAN_DIFFER_CACHE_MAP =
+            new ClassPairCache<>("beanDiffer");
+
+    private static final ClassPairCache<ConstructorAccess<?>> CONSTRUCTOR_ACCESS_CACHE =
+            new ClassPairCache<>("constructorAccess");
+
+    private static final ClassPairCache<BeanMapAccessor> BEAN_MAP_ACCESSOR_CACHE =
+            new ClassPairCache<>("beanMapAccessor");
+
+    private static final List<ClassPairCache<?>> CACHES = Collections.unmodifiableList(Arrays.asList(
+            CACHE_MAPPER_FACADE_MAP, BEAN_COPIER_CACHE_MAP, DEEP_BEAN_COPIER_CACHE_MAP, SPEC_BEAN_COPIER_CACHE_MAP,
+            DEEP_SPEC_BEAN_COPIER_CACHE_MAP, MERGE_BEAN_COPIER_CACHE_MAP, BEAN_DIFFER_CACHE_MAP,
+            CONSTRUCTOR_ACCESS_CACHE, BEAN_MAP_ACCESSOR_CACHE));
 
     /**
      * 转换实体（默认字段）
@@ -126,6 +147,27 @@ public enum BeanUtils {
         return mapperFacade.mapAsList(source, targetClass);
     }
 
+    /**
+     * 转换集合（自定义配置）
+     * <p>不小于 parallelThreshold 的集合在 {@link ForkJoinPool#commonPool()} 中分段并行转换, 结果顺序与源集合一致
+     * @param source    数据（集合）
+     * @param targetClass 目标类
+     * @param configMap 自定义配置
+     * @param excludeFields excluded field
+     * @param parallelThreshold 并行转换阈值, {@link Integer#MAX_VALUE} 表示串行转换
+     * @param <T> source class
+     * @param <E> target class
+     * @return 目标类对象集合
+     * @since 1.0.3
+     */
+    public static <E, T> List<E> copyProperties(List<T> source, Class<E> targetClass, Map<String, String> configMap,
+                                                List<String> excludeFields, int parallelThreshold) {
+        T t = source.stream().findFirst().orElseThrow(() -> new NullPointerException("映射集合，数据集合为空"));
+        MapperFacade mapperFacade = getMapperFacade(t.getClass(), targetClass, configMap, excludeFields);
+        return BulkMapper.map(source, e -> mapperFacade.map(e, targetClass), parallelThreshold,
+                ForkJoinPool.commonPool());
+    }
+
     public static <E, T> Collection<E> copyProperties(Collection<T> source, Collection<E> destination,
                                                       Class<E> targetClass) {
         return copyProperties(source, destination, targetClass, null);
@@ -159,6 +201,8 @@ public enum BeanUtils {
 
     /**
      * 转换实体（默认字段）浅复制
+     * <p>类型不兼容的属性通过装箱/拆箱、基本类型拓宽或 {@link TypeConverters} 转换,
+     * 类型不同的嵌套 Bean、集合、数组和 Map 逐个元素转换
      * @param source 数据（对象）
      * @param targetClass 目标类
      * @param <T> source class
@@ -168,18 +212,7 @@ public enum BeanUtils {
     public static <T, E> E copyPropertiesByBeanCopier(T source, Class<E> targetClass) {
         ConstructorAccess<E> constructorAccess = getConstructorAccess(targetClass);
         E target = constructorAccess.newInstance();
-        String cacheKey = source.getClass().getCanonicalName() + "_" + targetClass.getCanonicalName();
-        CustomBeanCopier beanCopier = BEAN_COPIER_CACHE_MAP.get(cacheKey);
-        if (Objects.isNull(beanCopier)) {
-            synchronized (CustomBeanCopier.class) {
-                beanCopier = BEAN_COPIER_CACHE_MAP.get(cacheKey);
-                if (Objects.isNull(beanCopier)) {
-                    beanCopier = CustomBeanCopier.create(source.getClass(), target.getClass(), false);
-                    BEAN_COPIER_CACHE_MAP.put(cacheKey, beanCopier);
-                }
-            }
-        }
-        beanCopier.copy(source, target);
+        getBeanCopier(source.getClass(), targetClass).copy(source, target);
         return target;
     }
 
@@ -193,10 +226,377 @@ public enum BeanUtils {
      * @return 目标类对象集合
      */
     public static <E, T> List<E> copyPropertiesByBeanCopier(List<T> source, Class<E> targetClass) {
+        return copyPropertiesByBeanCopier(source, targetClass, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 转换集合（默认字段）浅拷贝
+     * <p>目标集合预分配容量, BeanCopier 与构造器只解析一次;
+     * 不小于 parallelThreshold 的集合在 {@link ForkJoinPool#commonPool()} 中分段并行转换, 结果顺序与源集合一致
+     * @param source    数据（集合）
+     * @param targetClass 目标类
+     * @param parallelThreshold 并行转换阈值, {@link Integer#MAX_VALUE} 表示串行转换
+     * @param <T> source class
+     * @param <E> target class
+     * @return 目标类对象集合, 源集合中的 null 元素转换为 null
+     * @since 1.0.3
+     */
+    public static <E, T> List<E> copyPropertiesByBeanCopier(List<T> source, Class<E> targetClass,
+                                                            int parallelThreshold) {
+        return copyPropertiesByBeanCopier(source, targetClass, parallelThreshold, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 转换集合（默认字段）浅拷贝
+     * @param source    数据（集合）
+     * @param targetClass 目标类
+     * @param parallelThreshold 并行转换阈值, {@link Integer#MAX_VALUE} 表示串行转换
+     * @param pool 并行转换线程池
+     * @param <T> source class
+     * @param <E> target class
+     * @return 目标类对象集合, 源集合中的 null 元素转换为 null
+     * @since 1.0.3
+     */
+    public static <E, T> List<E> copyPropertiesByBeanCopier(List<T> source, Class<E> targetClass,
+                                                            int parallelThreshold, ForkJoinPool pool) {
+        if (source == null|| source.isEmpty()){
+            return Collections.emptyList();
+        }
+        return BulkMapper.map(source, BulkMapper.copier(getConstructorAccess(targetClass),
+                sourceClass -> getBeanCopier(sourceClass, targetClass)), parallelThreshold, pool);
+    }
+
+    /**
+     * 转换实体（默认字段）深复制
+     * <p>嵌套的 Bean、集合、数组和 Map 逐个元素复制, 不支持循环引用
+     * @param source 数据（对象）
+     * @param targetClass 目标类
+     * @param <T> source class
+     * @param <E> target class
+     * @return 目标类
+     * @since 1.0.3
+     */
+    public static <T, E> E deepCopyPropertiesByBeanCopier(T source, Class<E> targetClass) {
+        ConstructorAccess<E> constructorAccess = getConstructorAccess(targetClass);
+        E target = constructorAccess.newInstance();
+        getDeepBeanCopier(source.getClass(), targetClass).copy(source, target);
+        return target;
+    }
+
+    /**
+     * 转换集合（默认字段）
+     * 深复制
+     * @param source    数据（集合）
+     * @param targetClass 目标类
+     * @param <T> source class
+     * @param <E> target class
+     * @return 目标类对象集合
+     * @since 1.0.3
+     */
+    public static <E, T> List<E> deepCopyPropertiesByBeanCopier(List<T> source, Class<E> targetClass) {
+        return deepCopyPropertiesByBeanCopier(source, targetClass, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 转换集合（默认字段）深复制
+     * <p>不小于 parallelThreshold 的集合在 {@link ForkJoinPool#commonPool()} 中分段并行转换, 结果顺序与源集合一致
+     * @param source    数据（集合）
+     * @param targetClass 目标类
+     * @param parallelThreshold 并行转换阈值, {@link Integer#MAX_VALUE} 表示串行转换
+     * @param <T> source class
+     * @param <E> target class
+     * @return 目标类对象集合, 源集合中的 null 元素转换为 null
+     * @since 1.0.3
+     */
+    public static <E, T> List<E> deepCopyPropertiesByBeanCopier(List<T> source, Class<E> targetClass,
+                                                                int parallelThreshold) {
+        if (source == null|| source.isEmpty()){
+            return Collections.emptyList();
+        }
+        return BulkMapper.map(source, BulkMapper.copier(getConstructorAccess(targetClass),
+                sourceClass -> getDeepBeanCopier(sourceClass, targetClass)), parallelThreshold,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 转换实体（自定义映射）浅复制
+     * <p>属性重命名、排除属性和跳过 null 值编译进生成的 BeanCopier, 按类对和映射规则缓存
+     * @param source 数据（对象）
+     * @param targetClass 目标类
+     * @param spec 映射规则
+     * @param <T> source class
+     * @param <E> target class
+     * @return 目标类
+     * @since 1.0.3
+     */
+    public static <T, E> E copyPropertiesByBeanCopier(T source, Class<E> targetClass, MappingSpec spec) {
+        E target = getConstructorAccess(targetClass).newInstance();
+        getBeanCopier(source.getClass(), targetClass, spec, false).copy(source, target);
+        return target;
+    }
+
+    /**
+     * 转换集合（自定义映射）浅复制
+     * @param source    数据（集合）
+     * @param targetClass 目标类
+     * @param spec 映射规则
+     * @param <T> source class
+     * @param <E> target class
+     * @return 目标类对象集合, 源集合中的 null 元素转换为 null
+     * @since 1.0.3
+     */
+    public static <E, T> List<E> copyPropertiesByBeanCopier(List<T> source, Class<E> targetClass,
+                                                            MappingSpec spec) {
+        if (source == null|| source.isEmpty()){
+            return Collections.emptyList();
+        }
+        return BulkMapper.map(source, BulkMapper.copier(getConstructorAccess(targetClass),
+                sourceClass -> getBeanCopier(sourceClass, targetClass, spec, false)), Integer.MAX_VALUE,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 转换实体（自定义映射）深复制
+     * @param source 数据（对象）
+     * @param targetClass 目标类
+     * @param spec 映射规则
+     * @param <T> source class
+     * @param <E> target class
+     * @return 目标类
+     * @since 1.0.3
+     */
+    public static <T, E> E deepCopyPropertiesByBeanCopier(T source, Class<E> targetClass, MappingSpec spec) {
+        E target = getConstructorAccess(targetClass).newInstance();
+        getBeanCopier(source.getClass(), targetClass, spec, true).copy(source, target);
+        return target;
+    }
+
+    /**
+     * 转换集合（自定义映射）深复制
+     * @param source    数据（集合）
+     * @param targetClass 目标类
+     * @param spec 映射规则
+     * @param <T> source class
+     * @param <E> target class
+     * @return 目标类对象集合, 源集合中的 null 元素转换为 null
+     * @since 1.0.3
+     */
+    public static <E, T> List<E> deepCopyPropertiesByBeanCopier(List<T> source, Class<E> targetClass,
+                                                                MappingSpec spec) {
         if (source == null|| source.isEmpty()){
             return Collections.emptyList();
         }
-        return source.stream().map(e->copyPropertiesByBeanCopier(e, targetClass)).collect(Collectors.toList());
+        return BulkMapper.map(source, BulkMapper.copier(getConstructorAccess(targetClass),
+                sourceClass -> getBeanCopier(sourceClass, targetClass, spec, true)), Integer.MAX_VALUE,
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 合并实体, 只复制源对象中非 null 的属性到已有的目标对象
+     * <p>返回值与目标对象原值不同的属性, 可用于只更新变化的列
+     * @param source 数据（对象）
+     * @param target 目标对象
+     * @param <T> source class
+     * @param <E> target class
+     * @return 变化的属性
+     * @since 1.0.3
+     */
+    public static <T, E> ChangedProperties copyNonNull(T source, E target) {
+        return copyNonNull(source, target, MappingSpec.DEFAULT);
+    }
+
+    /**
+     * 合并实体（自定义映射）, 只复制源对象中非 null 的属性到已有的目标对象
+     * @param source 数据（对象）
+     * @param target 目标对象
+     * @param spec 映射规则
+     * @param <T> source class
+     * @param <E> target class
+     * @return 变化的属性
+     * @since 1.0.3
+     */
+    public static <T, E> ChangedProperties copyNonNull(T source, E target, MappingSpec spec) {
+        return getMerger(source.getClass(), target.getClass(), spec).copyNonNull(source, target);
+    }
+
+    /**
+     * 比较实体, 逐个比较同名属性, 不使用反射
+     * @param oldBean 旧对象
+     * @param newBean 新对象
+     * @return 变化的属性, 没有变化时为空集合
+     * @since 1.0.3
+     */
+    public static List<PropertyChange> diff(Object oldBean, Object newBean) {
+        return diff(oldBean, newBean, MappingSpec.DEFAULT);
+    }
+
+    /**
+     * 比较实体（自定义映射）
+     * @param oldBean 旧对象
+     * @param newBean 新对象
+     * @param spec 旧对象属性到新对象属性的映射规则
+     * @return 变化的属性, 没有变化时为空集合
+     * @since 1.0.3
+     */
+    public static List<PropertyChange> diff(Object oldBean, Object newBean, MappingSpec spec) {
+        return getSpecValue(BEAN_DIFFER_CACHE_MAP, oldBean.getClass(), newBean.getClass(), spec,
+                key -> BeanDiffer.create(oldBean.getClass(), newBean.getClass(), key)).diff(oldBean, newBean);
+    }
+
+    /**
+     * 实体转换为 Map, 属性通过生成的访问类读取, 不使用反射
+     * <p>返回的 Map 按固定顺序包含实体的全部可读属性（含 null 值）, 属性名与顺序由同一实体类的所有 Map 共享,
+     * 可以替换属性值, 不能增删属性, 需要可变 Map 时使用 {@code new HashMap<>(map)}
+     * @param bean 实体
+     * @return 属性 Map
+     * @since 1.0.3
+     */
+    public static Map<String, Object> toMap(Object bean) {
+        BeanMapAccessor accessor = getBeanMapAccessor(bean.getClass());
+        Object[] values = new Object[accessor.size()];
+        accessor.getAll(bean, values);
+        return new FlatBeanMap(accessor, values);
+    }
+
+    /**
+     * Map 转换为实体, 属性通过生成的访问类写入, 不使用反射
+     * <p>忽略实体中不存在或只读的属性, 类型不同的值通过 {@link TypeConverters} 转换, null 值不修改基本类型属性
+     * @param map 属性 Map
+     * @param targetClass 目标类
+     * @param <E> target class
+     * @return 目标类对象
+     * @throws IllegalArgumentException 值无法转换为属性类型
+     * @since 1.0.3
+     */
+    public static <E> E fromMap(Map<String, ?> map, Class<E> targetClass) {
+        E target = getConstructorAccess(targetClass).newInstance();
+        BeanMapAccessor accessor = getBeanMapAccessor(targetClass);
+        if (map instanceof FlatBeanMap && ((FlatBeanMap) map).getAccessor() == accessor) {
+            FlatBeanMap beanMap = (FlatBeanMap) map;
+            for (int i = 0; i < accessor.size(); i++) {
+                accessor.setConverted(target, i, beanMap.getValue(i));
+            }
+            return target;
+        }
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            int index = accessor.indexOf(entry.getKey());
+            if (index >= 0) {
+                accessor.setConverted(target, index, entry.getValue());
+            }
+        }
+        return target;
+    }
+
+    /**
+     * 扫描包及其子包, 按类名后缀配对源类和目标类, 如 {@code UserDO} 与 {@code UserDTO}
+     * @param basePackage 包名
+     * @param sourceSuffix 源类名后缀
+     * @param targetSuffix 目标类名后缀
+     * @return 类对
+     * @since 1.0.3
+     */
+    public static List<ClassPair> scan(String basePackage, String sourceSuffix, String targetSuffix) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (Objects.isNull(classLoader)) {
+            classLoader = BeanUtils.class.getClassLoader();
+        }
+        return ClassPairScanner.scan(classLoader, basePackage, sourceSuffix, targetSuffix);
+    }
+
+    /**
+     * 在 {@link ForkJoinPool#commonPool()} 中并行预热类对的 BeanCopier 和目标类构造器, 用于启动时避免首次转换的延迟
+     * @param pairs 类对
+     * @return 全部预热完成时完成, 任一类对失败时异常完成
+     * @since 1.0.3
+     */
+    public static CompletableFuture<Void> warmUp(Collection<ClassPair> pairs) {
+        return warmUp(pairs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * 并行预热类对的 BeanCopier 和目标类构造器, 同一类对的并发转换等待预热结果, 不同类对互不阻塞
+     * @param pairs 类对
+     * @param executor 预热线程池
+     * @return 全部预热完成时完成, 任一类对失败时异常完成
+     * @since 1.0.3
+     */
+    public static CompletableFuture<Void> warmUp(Collection<ClassPair> pairs, Executor executor) {
+        return warmUp(pairs, executor, WarmUpTarget.BEAN_COPIER);
+    }
+
+    /**
+     * 并行预热类对的目标类构造器和指定的映射器, 映射器按类对的映射规则预热
+     * <p>如 {@link BaseBean#convert(Class)} 的类对预热 {@link WarmUpTarget#DEEP_BEAN_COPIER},
+     * {@link #copyProperties(Object, Class, Map, List)} 的类对预热 {@link WarmUpTarget#MAPPER_FACADE}
+     * @param pairs 类对
+     * @param executor 预热线程池
+     * @param targets 预热的映射器
+     * @return 全部预热完成时完成, 任一类对失败时异常完成
+     * @since 1.0.3
+     */
+    public static CompletableFuture<Void> warmUp(Collection<ClassPair> pairs, Executor executor,
+                                                 WarmUpTarget... targets) {
+        Set<WarmUpTarget> warmUpTargets = EnumSet.noneOf(WarmUpTarget.class);
+        Collections.addAll(warmUpTargets, targets);
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[pairs.size()];
+        int i = 0;
+        for (ClassPair pair : pairs) {
+            futures[i++] = CompletableFuture.runAsync(() -> warmUp(pair, warmUpTargets), executor);
+        }
+        return CompletableFuture.allOf(futures);
+    }
+    /**
+     * 各缓存的命中、未命中、淘汰次数和生成耗时, 用于监控 BeanCopier 等生成类的数量和首次转换的开销
+     * @return 各缓存的统计快照
+     * @since 1.0.3
+     */
+    public static List<BeanCacheStats> getCacheStats() {
+        List<BeanCacheStats> stats = new ArrayList<>(CACHES.size());
+        for (ClassPairCache<?> cache : CACHES) {
+            stats.add(cache.stats());
+        }
+        return stats;
+    }
+
+    /**
+     * 设置每个缓存的最大缓存项数, 超出时淘汰最近最少使用的缓存项, 默认 {@value ClassPairCache#DEFAULT_MAXIMUM_SIZE}
+     * <p>缓存项为类对, 带映射规则的缓存每个类对的每个映射规则各占一项. 淘汰只释放缓存的实例, 生成类由类加载器
+     * 持有直到类加载器回收, 映射规则应当复用, 不要按请求构造
+     * <p>缓存弱引用类, 类卸载后对应的缓存项随之清除, 不阻止类加载器回收
+     * @param maximumSize 最大缓存项数
+     * @throws IllegalArgumentException maximumSize 小于 1
+     * @since 1.0.3
+     */
+    public static void setCacheMaximumSize(int maximumSize) {
+        for (ClassPairCache<?> cache : CACHES) {
+            cache.setMaximumSize(maximumSize);
+        }
+    }
+
+    /**
+     * 清空全部缓存, 统计计数保留
+     * @since 1.0.3
+     */
+    public static void clearCache() {
+        for (ClassPairCache<?> cache : CACHES) {
+            cache.clear();
+        }
+    }
+
+    private static void warmUp(ClassPair pair, Set<WarmUpTarget> targets) {
+        Class<?> sourceClass = pair.getSourceClass();
+        Class<?> targetClass = pair.getTargetClass();
+        MappingSpec spec = pair.getSpec();
+        getConstructorAccess(targetClass);
+        if (targets.contains(WarmUpTarget.BEAN_COPIER)) {
+            getBeanCopier(sourceClass, targetClass, spec, false);
+        }
+        if (targets.contains(WarmUpTarget.DEEP_BEAN_COPIER)) {
+            getBeanCopier(sourceClass, targetClass, spec, true);
+        }
+        if (targets.contains(WarmUpTarget.MAPPER_FACADE)) {
+            getMapperFacade(sourceClass, targetClass, spec.getRenames(), new ArrayList<>(spec.getExcludes()));
+        }
     }
 
     /**
@@ -211,51 +611,99 @@ public enum BeanUtils {
      */
     private static <E, T> MapperFacade getMapperFacade(Class<T> sourceClass, Class<E> targetClass,
                                                        Map<String, String> configMap, List<String> excludes) {
-        final String targetName = Objects.nonNull(targetClass.getCanonicalName()) ?
-                targetClass.getCanonicalName() : targetClass.getName();
-        final String sourceName = Objects.nonNull(sourceClass.getCanonicalName()) ?
-                sourceClass.getCanonicalName() :
-                sourceClass.getName();
-        String mapKey = String.format("%s_%s", sourceName, targetName);
-        MapperFacade mapperFacade = CACHE_MAPPER_FACADE_MAP.get(mapKey);
+        MapperFacade mapperFacade = CACHE_MAPPER_FACADE_MAP.get(sourceClass, targetClass);
         if (Objects.nonNull(mapperFacade)) {
             return mapperFacade;
         }
-        synchronized (LOCK_OBJECT){
-            mapperFacade = CACHE_MAPPER_FACADE_MAP.get(mapKey);
-            if (Objects.isNull(mapperFacade)){
-                MapperFactory factory = new DefaultMapperFactory.Builder().build();
-                ClassMapBuilder<T,E> classMapBuilder = factory.classMap(sourceClass, targetClass);
-                if (CollectionUtils.isNotEmpty(configMap)){
-                    configMap.forEach(classMapBuilder::field);
-                }
-                if (CollectionUtils.isNotEmpty(excludes)){
-                    excludes.forEach(classMapBuilder::exclude);
-                }
-                classMapBuilder.byDefault().register();
-                mapperFacade = factory.getMapperFacade();
-                CACHE_MAPPER_FACADE_MAP.put(mapKey, mapperFacade);
+        return CACHE_MAPPER_FACADE_MAP.get(sourceClass, targetClass, () -> {
+            MapperFactory factory = new DefaultMapperFactory.Builder().build();
+            ClassMapBuilder<T,E> classMapBuilder = factory.classMap(sourceClass, targetClass);
+            if (CollectionUtils.isNotEmpty(configMap)){
+                configMap.forEach(classMapBuilder::field);
             }
+            if (CollectionUtils.isNotEmpty(excludes)){
+                excludes.forEach(classMapBuilder::exclude);
+            }
+            classMapBuilder.byDefault().register();
+            return factory.getMapperFacade();
+        });
+    }
+
+    /**
+     * 获取 BeanCopier
+     *
+     * @param sourceClass 数据映射类
+     * @param targetClass   映射类
+     * @return BeanCopier
+     */
+    private static CustomBeanCopier getBeanCopier(Class<?> sourceClass, Class<?> targetClass) {
+        CustomBeanCopier beanCopier = BEAN_COPIER_CACHE_MAP.get(sourceClass, targetClass);
+        if (Objects.nonNull(beanCopier)) {
+            return beanCopier;
+        }
+        return BEAN_COPIER_CACHE_MAP.get(sourceClass, targetClass,
+                () -> CustomBeanCopier.create(sourceClass, targetClass, true));
+    }
+
+    private static CustomBeanCopier getDeepBeanCopier(Class<?> sourceClass, Class<?> targetClass) {
+        CustomBeanCopier beanCopier = DEEP_BEAN_COPIER_CACHE_MAP.get(sourceClass, targetClass);
+        if (Objects.nonNull(beanCopier)) {
+            return beanCopier;
+        }
+        return DEEP_BEAN_COPIER_CACHE_MAP.get(sourceClass, targetClass,
+                () -> CustomBeanCopier.create(sourceClass, targetClass, true, true));
+    }
+
+    /**
+     * 获取映射规则的 BeanCopier, 按类对和映射规则缓存
+     */
+    private static CustomBeanCopier getBeanCopier(Class<?> sourceClass, Class<?> targetClass, MappingSpec spec,
+                                                  boolean deep) {
+        if (MappingSpec.DEFAULT.equals(spec)) {
+            return deep ? getDeepBeanCopier(sourceClass, targetClass) : getBeanCopier(sourceClass, targetClass);
         }
-        return mapperFacade;
+        return getSpecValue(deep ? DEEP_SPEC_BEAN_COPIER_CACHE_MAP : SPEC_BEAN_COPIER_CACHE_MAP, sourceClass,
+                targetClass, spec, key -> CustomBeanCopier.create(sourceClass, targetClass, true, deep, key));
+    }
+
+    private static CustomBeanCopier getMerger(Class<?> sourceClass, Class<?> targetClass, MappingSpec spec) {
+        return getSpecValue(MERGE_BEAN_COPIER_CACHE_MAP, sourceClass, targetClass, spec,
+                key -> CustomBeanCopier.createMerger(sourceClass, targetClass, key));
+    }
+
+    /**
+     * 按类对和映射规则缓存的值, 每个映射规则占用一个缓存项
+     */
+    private static <V> V getSpecValue(ClassPairCache<V> cache, Class<?> sourceClass, Class<?> targetClass,
+                                      MappingSpec spec, Function<MappingSpec, V> factory) {
+        V value = cache.get(sourceClass, targetClass, spec);
+        if (Objects.nonNull(value)) {
+            return value;
+        }
+        return cache.get(sourceClass, targetClass, spec, () -> factory.apply(spec));
     }
 
     @SuppressWarnings("unchecked")
     private static <E> ConstructorAccess<E> getConstructorAccess(Class<E> targetClass) {
-        final String canonicalName = targetClass.getCanonicalName();
-        ConstructorAccess<E> constructorAccess =
-                (ConstructorAccess<E>) CONSTRUCTOR_ACCESS_CACHE.get(Objects.isNull(canonicalName) ?
-                        targetClass.getName() : canonicalName);
-        if(Objects.nonNull(constructorAccess)) {
-            return constructorAccess;
+        ConstructorAccess<?> constructorAccess = CONSTRUCTOR_ACCESS_CACHE.get(targetClass);
+        if (Objects.nonNull(constructorAccess)) {
+            return (ConstructorAccess<E>) constructorAccess;
         }
-        try {
-            constructorAccess = ConstructorAccess.get(targetClass);
-            CONSTRUCTOR_ACCESS_CACHE.put(canonicalName,constructorAccess);
-        } catch (Exception e) {
-            throw new IllegalStateException(
-                    String.format("Create new instance of %s failed: %s", targetClass, e.getMessage()),e);
+        return (ConstructorAccess<E>) CONSTRUCTOR_ACCESS_CACHE.get(targetClass, () -> {
+            try {
+                return ConstructorAccess.get(targetClass);
+            } catch (Exception e) {
+                throw new IllegalStateException(
+                        String.format("Create new instance of %s failed: %s", targetClass, e.getMessage()),e);
+            }
+        });
+    }
+
+    private static BeanMapAccessor getBeanMapAccessor(Class<?> beanClass) {
+        BeanMapAccessor accessor = BEAN_MAP_ACCESSOR_CACHE.get(beanClass);
+        if (Objects.nonNull(accessor)) {
+            return accessor;
         }
-        return constructorAccess;
+        return BEAN_MAP_ACCESSOR_CACHE.get(beanClass, () -> BeanMapAccessor.create(beanClass));
     }
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+import com.esotericsoftware.reflectasm.ConstructorAccess;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * <p>bulk mapping of lists for {@link BeanUtils}. The target list is presized, the mapper is
+ * resolved once per call, lists at or above the parallel threshold are split into chunks mapped
+ * on a {@link ForkJoinPool}, every chunk writes its own index range so the order is preserved.
+ * @author Jackie
+ * @version $id: BulkMapper.java v 0.1 2021-10-12 14:10 Jackie Exp $$
+ * @since 1.0.3
+ */
+final class BulkMapper {
+
+    /**
+     * smallest chunk mapped by one task
+     */
+    private static final int MIN_CHUNK_SIZE = 256;
+
+    /**
+     * chunks per worker, so workers finishing early can steal the rest
+     */
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private BulkMapper() {
+    }
+
+    /**
+     * map the source list
+     * @param source source list
+     * @param mapper element mapper, must be thread safe when mapping in parallel
+     * @param parallelThreshold minimum size to map in parallel, {@link Integer#MAX_VALUE} maps serially
+     * @param pool pool of the parallel mapping
+     * @param <T> source class
+     * @param <E> target class
+     * @return mapped list in the order of the source list
+     */
+    static <T, E> List<E> map(List<T> source, Function<? super T, ? extends E> mapper, int parallelThreshold,
+                              ForkJoinPool pool) {
+        if (parallelThreshold < 1) {
+            throw new IllegalArgumentException("parallelThreshold must be positive: " + parallelThreshold);
+        }
+        Objects.requireNonNull(pool, "pool can not be null");
+        int size = source.size();
+        if (size < parallelThreshold || pool.getParallelism() < 2 || size <= MIN_CHUNK_SIZE) {
+            List<E> target = new ArrayList<>(size);
+            for (T t : source) {
+                target.add(mapper.apply(t));
+            }
+            return target;
+        }
+        @SuppressWarnings("unchecked")
+        T[] elements = (T[]) source.toArray();
+        List<E> target = new ArrayList<>(Collections.nCopies(size, null));
+        int chunkSize = Math.max(MIN_CHUNK_SIZE, size / (pool.getParallelism() * CHUNKS_PER_WORKER));
+        pool.invoke(new MappingTask<>(elements, target, mapper, 0, size, chunkSize));
+        return target;
+    }
+
+    /**
+     * mapper copying elements by the generated copiers, the copier is resolved again only when the
+     * class of the element differs from the previous one
+     * @param constructorAccess constructor of the target class
+     * @param copierResolver copier of the source class
+     * @param <T> source class
+     * @param <E> target class
+     * @return mapper, null elements are mapped to null
+     */
+    static <T, E> Function<T, E> copier(ConstructorAccess<E> constructorAccess,
+                                        Function<Class<?>, CustomBeanCopier> copierResolver) {
+        return new Function<T, E>() {
+
+            /**
+             * last resolved copier, racy but immutable, a stale read only resolves the copier again
+             */
+            private ResolvedCopier resolved;
+
+            @Override
+            public E apply(T source) {
+                if (Objects.isNull(source)) {
+                    return null;
+                }
+                ResolvedCopier current = resolved;
+                if (Objects.isNull(current) || current.sourceClass != source.getClass()) {
+                    current = new ResolvedCopier(source.getClass(), copierResolver.apply(source.getClass()));
+                    resolved = current;
+                }
+                E target = constructorAccess.newInstance();
+                current.beanCopier.copy(source, target);
+                return target;
+            }
+        };
+    }
+
+    private static final class ResolvedCopier {
+
+        private final Class<?> sourceClass;
+
+        private final CustomBeanCopier beanCopier;
+
+        private ResolvedCopier(Class<?> sourceClass, CustomBeanCopier beanCopier) {
+            this.sourceClass = sourceClass;
+            this.beanCopier = beanCopier;
+        }
+    }
+
+    private static final class MappingTask<T, E> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient T[] elements;
+
+        private final transient List<E> target;
+
+        private final transient Function<? super T, ? extends E> mapper;
+
+        private final int from;
+
+        private final int to;
+
+        private final int chunkSize;
+
+        private MappingTask(T[] elements, List<E> target, Function<? super T, ? extends E> mapper, int from,
+                            int to, int chunkSize) {
+            this.elements = elements;
+            this.target = target;
+            this.mapper = mapper;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunkSize) {
+                for (int i = from; i < to; i++) {
+                    target.set(i, mapper.apply(elements[i]));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new MappingTask<>(elements, target, mapper, from, middle, chunkSize),
+                    new MappingTask<>(elements, target, mapper, middle, to, chunkSize));
+        }
+    }
+}
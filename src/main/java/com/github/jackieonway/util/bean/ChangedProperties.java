@@ -0,0 +1,141 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>target properties changed by {@link CustomBeanCopier#copyNonNull(Object, Object)}, as a bitmask in the
+ * property order of the generated copier, e.g. to build an UPDATE of only the changed columns.
+ * <p>a property is changed if the source value is not null and differs from the old target value
+ * by {@link java.util.Objects#equals(Object, Object)}, a target property without getter is changed whenever set.
+ * @author Jackie
+ * @version $id: ChangedProperties.java v 0.1 2021-10-13 16:20 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class ChangedProperties {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    /**
+     * properties of the copier, shared by every result of the copier
+     */
+    private final String[] properties;
+
+    private final long[] words;
+
+    ChangedProperties(String[] properties) {
+        this.properties = properties;
+        this.words = new long[Math.max(1, (properties.length + 63) >>> ADDRESS_BITS_PER_WORD)];
+    }
+
+    /**
+     * mark the property as changed, called by the generated copiers through {@link CustomBeanCopier}
+     * @param index property index
+     */
+    void mark(int index) {
+        words[index >>> ADDRESS_BITS_PER_WORD] |= 1L << index;
+    }
+
+    /**
+     * whether the property at the index changed
+     * @param index property index
+     * @return true if changed
+     */
+    public boolean isChanged(int index) {
+        return (words[index >>> ADDRESS_BITS_PER_WORD] & (1L << index)) != 0;
+    }
+
+    /**
+     * whether the target property changed
+     * @param property target property
+     * @return true if changed
+     */
+    public boolean isChanged(String property) {
+        int index = indexOf(property);
+        return index >= 0 && isChanged(index);
+    }
+
+    /**
+     * index of the target property in the bitmask
+     * @param property target property
+     * @return index, -1 if the property is not copied
+     */
+    public int indexOf(String property) {
+        for (int i = 0; i < properties.length; i++) {
+            if (properties[i].equals(property)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * number of changed properties
+     * @return count
+     */
+    public int count() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * bitmask of the first 64 properties
+     * @return bitmask
+     */
+    public long toLong() {
+        return words[0];
+    }
+
+    /**
+     * bitmask of all properties, 64 properties per word
+     * @return bitmask
+     */
+    public long[] toLongArray() {
+        return words.clone();
+    }
+
+    /**
+     * changed target properties in the property order of the copier
+     * @return changed properties
+     */
+    public List<String> getChangedProperties() {
+        List<String> changed = new ArrayList<>(count());
+        for (int i = 0; i < properties.length; i++) {
+            if (isChanged(i)) {
+                changed.add(properties[i]);
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * all target properties of the copier, the index of a property is its bit in the bitmask
+     * @return properties
+     */
+    public List<String> getProperties() {
+        return Collections.unmodifiableList(Arrays.asList(properties));
+    }
+
+    @Override
+    public String toString() {
+        return "ChangedProperties" + getChangedProperties();
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+import java.util.Objects;
+
+/**
+ * <p>source class and target class of a copy, registered by {@link BeanUtils#warmUp(java.util.Collection)},
+ * with the mapping spec the copy uses, {@link MappingSpec#DEFAULT} if not given
+ * @author Jackie
+ * @version $id: ClassPair.java v 0.1 2021-10-15 09:40 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class ClassPair {
+
+    private final Class<?> sourceClass;
+
+    private final Class<?> targetClass;
+
+    private final MappingSpec spec;
+
+    private ClassPair(Class<?> sourceClass, Class<?> targetClass, MappingSpec spec) {
+        this.sourceClass = Objects.requireNonNull(sourceClass, "sourceClass can not be null");
+        this.targetClass = Objects.requireNonNull(targetClass, "targetClass can not be null");
+        this.spec = Objects.requireNonNull(spec, "spec can not be null");
+    }
+
+    public static ClassPair of(Class<?> sourceClass, Class<?> targetClass) {
+        return new ClassPair(sourceClass, targetClass, MappingSpec.DEFAULT);
+    }
+
+    /**
+     * class pair copied with renames and excludes, e.g. by {@link BaseBean#convert(Class)} with
+     * {@code MappingSpec.of(configMap(), excludeFields())}
+     * @param sourceClass source class
+     * @param targetClass target class
+     * @param spec mapping spec
+     * @return class pair
+     */
+    public static ClassPair of(Class<?> sourceClass, Class<?> targetClass, MappingSpec spec) {
+        return new ClassPair(sourceClass, targetClass, spec);
+    }
+
+    public Class<?> getSourceClass() {
+        return sourceClass;
+    }
+
+    public Class<?> getTargetClass() {
+        return targetClass;
+    }
+
+    public MappingSpec getSpec() {
+        return spec;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ClassPair)) {
+            return false;
+        }
+        ClassPair that = (ClassPair) o;
+        return sourceClass.equals(that.sourceClass) && targetClass.equals(that.targetClass)
+                && spec.equals(that.spec);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * sourceClass.hashCode() + targetClass.hashCode()) + spec.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return sourceClass.getName() + " -> " + targetClass.getName()
+                + (MappingSpec.DEFAULT.equals(spec) ? "" : " " + spec);
+    }
+}
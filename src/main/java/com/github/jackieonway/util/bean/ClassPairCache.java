@@ -0,0 +1,504 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+import java.beans.Introspector;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * <p>bounded cache keyed on the source class, the target class and an optional qualifier such as the
+ * {@link MappingSpec} of a copier, each qualifier of a class pair is an entry of its own. The classes are weakly
+ * referenced, the entries of unloaded classes are dropped, and the least recently used entries are evicted above
+ * the maximum size. The lookup key is reused per thread, so a cache hit does not allocate.
+ * <p>values, such as generated copiers, reference the classes of their pair. The cache only holds them weakly,
+ * they are strongly referenced from the class with the shorter lived class loader (the source class if the loader
+ * of the target class is the same or one of its parents, the target class otherwise), so a cached value never
+ * keeps a class loader alive. Bean infos introspected by the factory for classes of other class loaders than the
+ * one of this cache are flushed after the creation, the JDK keeps them softly until memory runs low.
+ * <p>values are created once per entry by the first caller, concurrent callers of the same entry wait for
+ * the future of that entry, other entries never wait. A failed creation is retried by the next caller.
+ * <p>hits, misses, evictions and creation time are counted, see {@link #stats()}.
+ * @param <V> value type
+ * @author Jackie
+ * @version $id: ClassPairCache.java v 0.1 2021-10-08 10:20 Jackie Exp $$
+ * @since 1.0.3
+ */
+final class ClassPairCache<V> {
+
+    /**
+     * default maximum number of entries of a cache
+     */
+    static final int DEFAULT_MAXIMUM_SIZE = 4096;
+
+    /**
+     * values of the nodes owned by a class, the only strong references to the values
+     */
+    private static final ClassValue<Map<Object, Object>> PINNED_VALUES = new ClassValue<Map<Object, Object>>() {
+        @Override
+        protected Map<Object, Object> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>(4);
+        }
+    };
+
+    private final String name;
+
+    private final ConcurrentHashMap<Object, Node<V>> nodes = new ConcurrentHashMap<>();
+
+    private final ReferenceQueue<Class<?>> queue = new ReferenceQueue<>();
+
+    private final ThreadLocal<LookupKey> lookupKeys = ThreadLocal.withInitial(LookupKey::new);
+
+    /**
+     * access clock, ticks on every creation, entries read since the last creation share the latest tick
+     */
+    private final AtomicLong clock = new AtomicLong();
+
+    private final Object evictionLock = new Object();
+
+    private volatile int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder creationCount = new LongAdder();
+
+    private final LongAdder creationFailureCount = new LongAdder();
+
+    private final LongAdder creationNanos = new LongAdder();
+
+    ClassPairCache(String name) {
+        this.name = name;
+    }
+
+    /**
+     * cached value of the class
+     * @param clazz class
+     * @return value, null if not created yet
+     */
+    V get(Class<?> clazz) {
+        return get(clazz, clazz);
+    }
+
+    /**
+     * cached value of the class, create it if absent
+     * @param clazz class
+     * @param factory value factory
+     * @return value
+     */
+    V get(Class<?> clazz, Supplier<V> factory) {
+        return get(clazz, clazz, factory);
+    }
+
+    /**
+     * cached value of the class pair
+     * @param sourceClass source class
+     * @param targetClass target class
+     * @return value, null if not created yet
+     */
+    V get(Class<?> sourceClass, Class<?> targetClass) {
+        return get(sourceClass, targetClass, (Object) null);
+    }
+
+    /**
+     * cached value of the class pair and the qualifier
+     * @param sourceClass source class
+     * @param targetClass target class
+     * @param qualifier qualifier of the pair, must not reference the classes, null for none
+     * @return value, null if not created yet
+     */
+    V get(Class<?> sourceClass, Class<?> targetClass, Object qualifier) {
+        Node<V> node = find(sourceClass, targetClass, qualifier);
+        V value = Objects.isNull(node) ? null : node.value();
+        if (Objects.nonNull(value)) {
+            touch(node);
+            hitCount.increment();
+        }
+        return value;
+    }
+
+    /**
+     * cached value of the class pair, create it if absent
+     * @param sourceClass source class
+     * @param targetClass target class
+     * @param factory value factory, only called once per class pair while the pair is cached
+     * @return value
+     */
+    V get(Class<?> sourceClass, Class<?> targetClass, Supplier<V> factory) {
+        return get(sourceClass, targetClass, null, factory);
+    }
+
+    /**
+     * cached value of the class pair and the qualifier, create it if absent
+     * @param sourceClass source class
+     * @param targetClass target class
+     * @param qualifier qualifier of the pair, must not reference the classes, null for none
+     * @param factory value factory, only called once per class pair and qualifier while they are cached
+     * @return value
+     */
+    V get(Class<?> sourceClass, Class<?> targetClass, Object qualifier, Supplier<V> factory) {
+        Node<V> node = find(sourceClass, targetClass, qualifier);
+        if (Objects.isNull(node)) {
+            node = insert(sourceClass, targetClass, qualifier);
+        } else {
+            V value = node.value();
+            if (Objects.nonNull(value)) {
+                touch(node);
+                hitCount.increment();
+                return value;
+            }
+        }
+        missCount.increment();
+        while (true) {
+            CompletableFuture<V> future = node.future;
+            if (Objects.nonNull(future)) {
+                return join(node, future);
+            }
+            //创建成功后 future 置空, 值先于 future 置空可见
+            V value = node.value();
+            if (Objects.nonNull(value)) {
+                return value;
+            }
+            CompletableFuture<V> created = new CompletableFuture<>();
+            if (Node.FUTURE.compareAndSet(node, null, created)) {
+                return create(sourceClass, targetClass, node, created, factory);
+            }
+        }
+    }
+
+    /**
+     * set the maximum number of entries, the least recently used entries above it are evicted
+     * @param maximumSize maximum size
+     */
+    void setMaximumSize(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        evict();
+    }
+
+    /**
+     * remove all entries, the counters are kept
+     */
+    void clear() {
+        for (Node<V> node : nodes.values()) {
+            release(node);
+        }
+        nodes.clear();
+    }
+
+    /**
+     * snapshot of the counters
+     * @return stats
+     */
+    BeanCacheStats stats() {
+        expungeStaleEntries();
+        return new BeanCacheStats(name, nodes.size(), maximumSize, hitCount.sum(), missCount.sum(),
+                evictionCount.sum(), creationCount.sum(), creationFailureCount.sum(), creationNanos.sum());
+    }
+
+    private Node<V> find(Class<?> sourceClass, Class<?> targetClass, Object qualifier) {
+        LookupKey key = lookupKeys.get();
+        key.set(sourceClass, targetClass, qualifier);
+        try {
+            return nodes.get(key);
+        } finally {
+            key.set(null, null, null);
+        }
+    }
+
+    private Node<V> insert(Class<?> sourceClass, Class<?> targetClass, Object qualifier) {
+        expungeStaleEntries();
+        Node<V> created = new Node<>(owner(sourceClass, targetClass), clock.incrementAndGet());
+        Node<V> node = nodes.putIfAbsent(new PairKey(sourceClass, targetClass, qualifier, queue), created);
+        if (Objects.nonNull(node)) {
+            return node;
+        }
+        evict();
+        return created;
+    }
+
+    private void touch(Node<V> node) {
+        long now = clock.get();
+        if (node.lastAccess != now) {
+            node.lastAccess = now;
+        }
+    }
+
+    /**
+     * evict the least recently used entries above the maximum size. The scan only runs when an entry is added,
+     * which is dominated by the creation of its value.
+     */
+    private void evict() {
+        if (nodes.size() <= maximumSize) {
+            return;
+        }
+        synchronized (evictionLock) {
+            while (nodes.size() > maximumSize) {
+                Map.Entry<Object, Node<V>> eldest = null;
+                for (Map.Entry<Object, Node<V>> entry : nodes.entrySet()) {
+                    if (Objects.isNull(eldest) || entry.getValue().lastAccess < eldest.getValue().lastAccess) {
+                        eldest = entry;
+                    }
+                }
+                if (Objects.isNull(eldest)) {
+                    return;
+                }
+                if (nodes.remove(eldest.getKey(), eldest.getValue())) {
+                    release(eldest.getValue());
+                    evictionCount.increment();
+                }
+            }
+        }
+    }
+
+    private void expungeStaleEntries() {
+        Reference<? extends Class<?>> reference;
+        while (Objects.nonNull(reference = queue.poll())) {
+            nodes.remove(((ClassReference) reference).key);
+        }
+    }
+
+    private V create(Class<?> sourceClass, Class<?> targetClass, Node<V> node, CompletableFuture<V> future,
+                     Supplier<V> factory) {
+        node.creator = Thread.currentThread();
+        long start = System.nanoTime();
+        try {
+            V value = Objects.requireNonNull(factory.get(), "cache value can not be null");
+            Class<?> owner = node.owner.get();
+            if (Objects.nonNull(owner)) {
+                PINNED_VALUES.get(owner).put(node, value);
+            }
+            node.value = new WeakReference<>(value);
+            if (node.released) {
+                //创建期间已被淘汰或清空
+                release(node);
+            }
+            future.complete(value);
+            node.future = null;
+            flushBeanInfos(sourceClass, targetClass);
+            creationCount.increment();
+            return value;
+        } catch (RuntimeException | Error e) {
+            node.future = null;
+            future.completeExceptionally(e);
+            creationFailureCount.increment();
+            throw e;
+        } finally {
+            creationNanos.add(System.nanoTime() - start);
+            node.creator = null;
+        }
+    }
+
+    /**
+     * drop the strong reference to the value of a removed node
+     */
+    private static void release(Node<?> node) {
+        node.released = true;
+        Class<?> owner = node.owner.get();
+        if (Objects.nonNull(owner)) {
+            PINNED_VALUES.get(owner).remove(node);
+        }
+    }
+
+    /**
+     * class of the pair with the shorter lived class loader, which strongly references the value
+     */
+    private static Class<?> owner(Class<?> sourceClass, Class<?> targetClass) {
+        return isParentOrSelf(targetClass.getClassLoader(), sourceClass.getClassLoader()) ? sourceClass : targetClass;
+    }
+
+    /**
+     * whether the loader is the child loader or one of its parents, the bootstrap loader (null) is parent of all
+     */
+    private static boolean isParentOrSelf(ClassLoader loader, ClassLoader child) {
+        if (Objects.isNull(loader)) {
+            return true;
+        }
+        for (ClassLoader current = child; Objects.nonNull(current); current = current.getParent()) {
+            if (current == loader) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * flush the bean infos of classes of other class loaders
+     */
+    private static void flushBeanInfos(Class<?> sourceClass, Class<?> targetClass) {
+        ClassLoader loader = ClassPairCache.class.getClassLoader();
+        if (!isParentOrSelf(sourceClass.getClassLoader(), loader)) {
+            Introspector.flushFromCaches(sourceClass);
+        }
+        if (targetClass != sourceClass && !isParentOrSelf(targetClass.getClassLoader(), loader)) {
+            Introspector.flushFromCaches(targetClass);
+        }
+    }
+
+    private static <V> V join(Node<V> node, CompletableFuture<V> future) {
+        if (node.creator == Thread.currentThread()) {
+            throw new IllegalStateException("recursive creation of the same cache entry");
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static int hash(Class<?> sourceClass, Class<?> targetClass, Object qualifier) {
+        return 31 * (31 * System.identityHashCode(sourceClass) + System.identityHashCode(targetClass))
+                + Objects.hashCode(qualifier);
+    }
+
+    private static final class Node<V> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicReferenceFieldUpdater<Node, CompletableFuture> FUTURE =
+                AtomicReferenceFieldUpdater.newUpdater(Node.class, CompletableFuture.class, "future");
+
+        /**
+         * class strongly referencing the value
+         */
+        private final WeakReference<Class<?>> owner;
+
+        private volatile WeakReference<V> value;
+
+        /**
+         * future of a running creation, null otherwise
+         */
+        private volatile CompletableFuture<V> future;
+
+        private volatile Thread creator;
+
+        private volatile long lastAccess;
+
+        /**
+         * removed from the cache, the value is no longer pinned
+         */
+        private volatile boolean released;
+
+        private Node(Class<?> owner, long lastAccess) {
+            this.owner = new WeakReference<>(owner);
+            this.lastAccess = lastAccess;
+        }
+
+        private V value() {
+            WeakReference<V> reference = value;
+            return Objects.isNull(reference) ? null : reference.get();
+        }
+    }
+
+    /**
+     * stored key, equal to a key of the same classes and qualifier while both classes are alive
+     */
+    private static final class PairKey {
+
+        private final ClassReference source;
+
+        private final ClassReference target;
+
+        private final Object qualifier;
+
+        private final int hash;
+
+        private PairKey(Class<?> sourceClass, Class<?> targetClass, Object qualifier,
+                        ReferenceQueue<Class<?>> queue) {
+            this.source = new ClassReference(sourceClass, this, queue);
+            this.target = new ClassReference(targetClass, this, queue);
+            this.qualifier = qualifier;
+            this.hash = hash(sourceClass, targetClass, qualifier);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof PairKey)) {
+                return false;
+            }
+            PairKey that = (PairKey) o;
+            Class<?> sourceClass = source.get();
+            Class<?> targetClass = target.get();
+            return Objects.nonNull(sourceClass) && Objects.nonNull(targetClass)
+                    && sourceClass == that.source.get() && targetClass == that.target.get()
+                    && Objects.equals(qualifier, that.qualifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * reusable key of a lookup, never stored
+     */
+    private static final class LookupKey {
+
+        private Class<?> sourceClass;
+
+        private Class<?> targetClass;
+
+        private Object qualifier;
+
+        private int hash;
+
+        private void set(Class<?> sourceClass, Class<?> targetClass, Object qualifier) {
+            this.sourceClass = sourceClass;
+            this.targetClass = targetClass;
+            this.qualifier = qualifier;
+            this.hash = Objects.isNull(sourceClass) ? 0 : hash(sourceClass, targetClass, qualifier);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof PairKey)) {
+                return false;
+            }
+            PairKey key = (PairKey) o;
+            return key.source.get() == sourceClass && key.target.get() == targetClass
+                    && Objects.equals(key.qualifier, qualifier);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class ClassReference extends WeakReference<Class<?>> {
+
+        private final PairKey key;
+
+        private ClassReference(Class<?> clazz, PairKey key, ReferenceQueue<Class<?>> queue) {
+            super(clazz, queue);
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * <p>pairs the classes of a package and its sub packages by the suffix of the simple names,
+ * e.g. {@code UserDO} with {@code UserDTO}, for class directories and jars of the class loader.
+ * @author Jackie
+ * @version $id: ClassPairScanner.java v 0.1 2021-10-15 10:05 Jackie Exp $$
+ * @since 1.0.3
+ */
+final class ClassPairScanner {
+
+    private static final String CLASS_SUFFIX = ".class";
+
+    private static final String FILE_PROTOCOL = "file";
+
+    private static final String JAR_PROTOCOL = "jar";
+
+    private ClassPairScanner() {
+    }
+
+    /**
+     * class pairs of the package
+     * @param classLoader class loader
+     * @param basePackage base package
+     * @param sourceSuffix suffix of the source simple names
+     * @param targetSuffix suffix of the target simple names
+     * @return pairs, a source is paired with every target of the same base name
+     */
+    static List<ClassPair> scan(ClassLoader classLoader, String basePackage, String sourceSuffix,
+                                String targetSuffix) {
+        Set<String> classNames = new LinkedHashSet<>();
+        String path = basePackage.replace('.', '/');
+        try {
+            Enumeration<URL> resources = classLoader.getResources(path);
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+                if (FILE_PROTOCOL.equals(url.getProtocol())) {
+                    scanDirectory(new File(url.toURI()), basePackage, classNames);
+                } else if (JAR_PROTOCOL.equals(url.getProtocol())) {
+                    scanJar(url, path, classNames);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("scan package " + basePackage + " failed", e);
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("scan package " + basePackage + " failed", e);
+        }
+        Map<String, List<Class<?>>> targets = new HashMap<>();
+        List<Class<?>> sources = new ArrayList<>();
+        for (String className : classNames) {
+            String simpleName = className.substring(className.lastIndexOf('.') + 1);
+            if (simpleName.contains("$")) {
+                simpleName = simpleName.substring(simpleName.lastIndexOf('$') + 1);
+            }
+            if (simpleName.endsWith(targetSuffix)) {
+                String base = simpleName.substring(0, simpleName.length() - targetSuffix.length());
+                targets.computeIfAbsent(base, k -> new ArrayList<>()).add(load(classLoader, className));
+            }
+            if (simpleName.endsWith(sourceSuffix)) {
+                sources.add(load(classLoader, className));
+            }
+        }
+        List<ClassPair> pairs = new ArrayList<>();
+        for (Class<?> source : sources) {
+            String simpleName = source.getSimpleName();
+            String base = simpleName.substring(0, simpleName.length() - sourceSuffix.length());
+            List<Class<?>> matched = targets.get(base);
+            if (Objects.nonNull(matched)) {
+                for (Class<?> target : matched) {
+                    if (!source.equals(target)) {
+                        pairs.add(ClassPair.of(source, target));
+                    }
+                }
+            }
+        }
+        return pairs;
+    }
+
+    private static void scanDirectory(File directory, String packageName, Set<String> classNames) {
+        File[] files = directory.listFiles();
+        if (Objects.isNull(files)) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                scanDirectory(file, packageName + '.' + file.getName(), classNames);
+            } else if (file.getName().endsWith(CLASS_SUFFIX)) {
+                String name = file.getName();
+                classNames.add(packageName + '.' + name.substring(0, name.length() - CLASS_SUFFIX.length()));
+            }
+        }
+    }
+
+    private static void scanJar(URL url, String path, Set<String> classNames) throws IOException {
+        JarURLConnection connection = (JarURLConnection) url.openConnection();
+        connection.setUseCaches(false);
+        try (JarFile jarFile = connection.getJarFile()) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.startsWith(path + '/') && name.endsWith(CLASS_SUFFIX)) {
+                    classNames.add(name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'));
+                }
+            }
+        }
+    }
+
+    private static Class<?> load(ClassLoader classLoader, String className) {
+        try {
+            return Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IllegalStateException("load class " + className + " failed", e);
+        }
+    }
+}
@@ -9,6 +9,7 @@ package com.github.jackieonway.util.bean;
 
 import com.github.jackieonway.util.HashMapUtil;
 import net.sf.cglib.asm.$ClassVisitor;
+import net.sf.cglib.asm.$Label;
 import net.sf.cglib.asm.$Type;
 import net.sf.cglib.core.*;
 
@@ -17,10 +18,14 @@ import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 public abstract class CustomBeanCopier {
     private static final String SET_PREFIX = "set";
@@ -29,28 +34,168 @@ public abstract class CustomBeanCopier {
     private static final BeanCopierKey KEY_FACTORY = (BeanCopierKey) KeyFactory.create(BeanCopierKey.class);
     private static final $Type BEAN_COPIER = TypeUtils.parseType(CustomBeanCopier.class.getName());
     private static final Signature COPY = new Signature("copy", $Type.VOID_TYPE, new $Type[]{Constants.TYPE_OBJECT, Constants.TYPE_OBJECT});
+    private static final $Type TYPE_CONVERTER = TypeUtils.parseType(TypeConverter.class.getName());
+    private static final $Type TYPE_CONVERTERS = TypeUtils.parseType(TypeConverters.class.getName());
+    private static final Signature CONVERT = new Signature("convert", Constants.TYPE_OBJECT,
+            new $Type[]{Constants.TYPE_OBJECT});
+    private static final Signature FOR_PROPERTY = new Signature("forProperty", TYPE_CONVERTER,
+            new $Type[]{Constants.TYPE_CLASS, Constants.TYPE_STRING, Constants.TYPE_CLASS, Constants.TYPE_STRING,
+                    Constants.TYPE_CLASS, $Type.BOOLEAN_TYPE});
+    private static final String CONVERTER_FIELD_PREFIX = "CONVERTER_";
+    private static final $Type TYPE_CHANGED_PROPERTIES = TypeUtils.parseType(ChangedProperties.class.getName());
+    private static final $Type TYPE_STRING_ARRAY = TypeUtils.parseType("String[]");
+    private static final $Type TYPE_OBJECTS = TypeUtils.parseType(Objects.class.getName());
+    private static final Signature COPY_NON_NULL = new Signature("copyNonNull", $Type.VOID_TYPE,
+            new $Type[]{Constants.TYPE_OBJECT, Constants.TYPE_OBJECT, TYPE_CHANGED_PROPERTIES});
+    private static final Signature GET_MERGED_PROPERTIES = new Signature("getMergedProperties", TYPE_STRING_ARRAY,
+            new $Type[0]);
+    private static final Signature MARK = new Signature("mark", $Type.VOID_TYPE,
+            new $Type[]{TYPE_CHANGED_PROPERTIES, $Type.INT_TYPE});
+    private static final Signature OBJECTS_EQUALS = new Signature("equals", $Type.BOOLEAN_TYPE,
+            new $Type[]{Constants.TYPE_OBJECT, Constants.TYPE_OBJECT});
+    private static final String MERGED_PROPERTIES_FIELD = "MERGED_PROPERTIES";
+    private static final String[] NO_PROPERTIES = new String[0];
 
     interface BeanCopierKey {
-        Object newInstance(String source, String target, boolean useConverter);
+        Object newInstance(String source, String target, boolean useConverter, boolean deepCopy, Object spec,
+                           boolean merge);
     }
 
+    /**
+     * create copier of the class pair
+     * @param source source class
+     * @param target target class
+     * @param useConverter also copy properties whose types are not assignable, by inline boxing, unboxing and
+     *                     primitive widening, or by a converter of {@link TypeConverters}
+     * @param <T> source type
+     * @param <E> target type
+     * @return copier
+     */
     public static <T,E> CustomBeanCopier create(Class<T> source, Class<E> target, boolean useConverter) {
+        return create(source, target, useConverter, false);
+    }
+
+    /**
+     * create copier of the class pair
+     * @param source source class
+     * @param target target class
+     * @param useConverter also copy properties whose types are not assignable, by inline boxing, unboxing and
+     *                     primitive widening, or by a converter of {@link TypeConverters}, nested beans,
+     *                     collections, arrays and maps are converted element-wise
+     * @param deepCopy with useConverter, also copy nested beans, collections, arrays and maps whose types
+     *                 are assignable instead of sharing them
+     * @param <T> source type
+     * @param <E> target type
+     * @return copier
+     * @since 1.0.3
+     */
+    public static <T,E> CustomBeanCopier create(Class<T> source, Class<E> target, boolean useConverter,
+                                                boolean deepCopy) {
+        return create(source, target, useConverter, deepCopy, MappingSpec.DEFAULT);
+    }
+
+    /**
+     * create copier of the class pair with renamed properties, excluded properties and null-skipping
+     * @param source source class
+     * @param target target class
+     * @param useConverter also copy properties whose types are not assignable
+     * @param deepCopy with useConverter, also copy nested beans, collections, arrays and maps
+     * @param spec property mapping baked into the generated class
+     * @param <T> source type
+     * @param <E> target type
+     * @return copier
+     * @since 1.0.3
+     */
+    public static <T,E> CustomBeanCopier create(Class<T> source, Class<E> target, boolean useConverter,
+                                                boolean deepCopy, MappingSpec spec) {
         Generator gen = new Generator();
         gen.setSource(source);
         gen.setTarget(target);
         gen.setUseConverter(useConverter);
+        gen.setDeepCopy(deepCopy);
+        gen.setSpec(spec);
         return gen.create();
     }
 
 
 
+    /**
+     * create merge copier of the class pair, it also implements {@link #copyNonNull(Object, Object)},
+     * properties are converted as by a copier with converters, nested values are shared
+     * @param source source class
+     * @param target target class
+     * @param spec property mapping baked into the generated class
+     * @param <T> source type
+     * @param <E> target type
+     * @return merge copier
+     * @since 1.0.3
+     */
+    public static <T,E> CustomBeanCopier createMerger(Class<T> source, Class<E> target, MappingSpec spec) {
+        Generator gen = new Generator();
+        gen.setSource(source);
+        gen.setTarget(target);
+        gen.setUseConverter(true);
+        gen.setSpec(spec);
+        gen.setMerge(true);
+        return gen.create();
+    }
+
     public abstract void copy(Object from, Object to);
 
+    /**
+     * copy only the non-null source properties onto an existing target, a primitive source property is never null
+     * @param from source
+     * @param to target
+     * @return target properties changed by the copy
+     * @throws UnsupportedOperationException if the copier is not created by
+     *         {@link #createMerger(Class, Class, MappingSpec)}
+     * @since 1.0.3
+     */
+    public ChangedProperties copyNonNull(Object from, Object to) {
+        ChangedProperties changed = new ChangedProperties(getMergedProperties());
+        copyNonNull(from, to, changed);
+        return changed;
+    }
+
+    /**
+     * generated by merge copiers
+     * @param from source
+     * @param to target
+     * @param changed changed properties
+     */
+    protected void copyNonNull(Object from, Object to, ChangedProperties changed) {
+        throw new UnsupportedOperationException(getClass().getName() + " is not a merge copier");
+    }
+
+    /**
+     * target properties of merge copiers, the index of a property is its bit in {@link ChangedProperties}
+     * @return properties
+     */
+    protected String[] getMergedProperties() {
+        return NO_PROPERTIES;
+    }
+
+    /**
+     * mark a property as changed, called by the generated merge copiers, which live in the package of a non-public
+     * bean and therefore cannot reach the package-private {@link ChangedProperties#mark(int)}
+     * @param changed changed properties
+     * @param index property index
+     */
+    protected static void mark(ChangedProperties changed, int index) {
+        changed.mark(index);
+    }
+
     public static class Generator extends AbstractClassGenerator {
         private static final Source SOURCE = new Source(CustomBeanCopier.class.getName());
         private Class<?> source;
         private Class<?> target;
         private boolean useConverter;
+        private boolean deepCopy;
+        private MappingSpec spec = MappingSpec.DEFAULT;
+        private boolean merge;
+
+        private static final List<Class<?>> WIDENING_ORDER = Arrays.asList(byte.class, short.class, char.class,
+                int.class, long.class, float.class, double.class);
 
         public Generator() {
             super(SOURCE);
@@ -74,20 +219,31 @@ public abstract class CustomBeanCopier {
             this.useConverter = useConverter;
         }
 
+        public void setDeepCopy(boolean deepCopy) {
+            this.deepCopy = deepCopy;
+        }
+
+        public void setSpec(MappingSpec spec) {
+            this.spec = Objects.requireNonNull(spec, "spec can not be null");
+        }
+
+        public void setMerge(boolean merge) {
+            this.merge = merge;
+        }
+
         @Override
         protected ClassLoader getDefaultClassLoader() {
             return source.getClassLoader();
         }
 
         public CustomBeanCopier create() {
-            Object key = KEY_FACTORY.newInstance(source.getName(), target.getName(), useConverter);
+            Object key = KEY_FACTORY.newInstance(source.getName(), target.getName(), useConverter,
+                    useConverter && deepCopy, spec, merge);
             return (CustomBeanCopier) super.create(key);
         }
 
         @Override
         public void generateClass($ClassVisitor v) throws IntrospectionException, ClassNotFoundException {
-            $Type sourceType = $Type.getType(source);
-            $Type targetType = $Type.getType(target);
             ClassEmitter ce = new ClassEmitter(v);
             ce.begin_class(Constants.V1_2,
                     Constants.ACC_PUBLIC,
@@ -96,7 +252,6 @@ public abstract class CustomBeanCopier {
                     null,
                     Constants.SOURCE_FILE);
             EmitUtils.null_constructor(ce);
-            CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, COPY, null);
             PropertyDescriptor[] getters = ReflectUtils.getBeanGetters(source);
 
             List<PropertyDescriptor> setterList=new ArrayList<>();
@@ -108,26 +263,69 @@ public abstract class CustomBeanCopier {
             for (PropertyDescriptor propertyDescriptor : getters) {
                 names.put(propertyDescriptor.getName(), propertyDescriptor);
             }
-            //将Object类型强转为要转换的类型
-            Local targetLocal = e.make_local();
-            Local sourceLocal = e.make_local();
-            e.load_arg(1);
-            e.checkcast(targetType);
-            e.store_local(targetLocal);
-            e.load_arg(0);
-            e.checkcast(sourceType);
-            e.store_local(sourceLocal);
-            //生成每个setter和getter方法
-            generateGetterAndSetterMethods(e, setters, names, targetLocal, sourceLocal);
+            List<PropertyPlan> plans = planProperties(setters, names);
+            List<PropertyPlan> converted = new ArrayList<>();
+            for (PropertyPlan plan : plans) {
+                if (plan.kind == CopyKind.CONVERTED) {
+                    ce.declare_field(Constants.ACC_PRIVATE | Constants.ACC_STATIC | Constants.ACC_FINAL,
+                            plan.field, TYPE_CONVERTER, null);
+                    converted.add(plan);
+                }
+            }
+            generateCopy(ce, plans);
+            if (merge) {
+                ce.declare_field(Constants.ACC_PRIVATE | Constants.ACC_STATIC | Constants.ACC_FINAL,
+                        MERGED_PROPERTIES_FIELD, TYPE_STRING_ARRAY, null);
+                generateMerge(ce, plans);
+                CodeEmitter e = ce.begin_method(Constants.ACC_PROTECTED, GET_MERGED_PROPERTIES, null);
+                e.getfield(MERGED_PROPERTIES_FIELD);
+                e.return_value();
+                e.end_method();
+            }
+            if (!converted.isEmpty() || merge) {
+                generateStaticInitializer(ce, converted, plans);
+            }
+            ce.end_class();
+        }
+
+        /**
+         * converters are looked up once when the generated class is initialized
+         */
+        private void generateStaticInitializer(ClassEmitter ce, List<PropertyPlan> converted,
+                                               List<PropertyPlan> plans) {
+            CodeEmitter e = ce.begin_static();
+            for (PropertyPlan plan : converted) {
+                EmitUtils.load_class(e, $Type.getType(source));
+                e.push(plan.readMethod.getName());
+                EmitUtils.load_class(e, $Type.getType(target));
+                e.push(plan.writeMethod.getName());
+                EmitUtils.load_class(e, $Type.getType(plan.writeMethod.getParameterTypes()[0]));
+                e.push(deepCopy);
+                e.invoke_static(TYPE_CONVERTERS, FOR_PROPERTY);
+                e.putfield(plan.field);
+            }
+            if (merge) {
+                String[] properties = new String[plans.size()];
+                for (int i = 0; i < properties.length; i++) {
+                    properties[i] = plans.get(i).setter.getName();
+                }
+                EmitUtils.push_array(e, properties);
+                e.putfield(MERGED_PROPERTIES_FIELD);
+            }
             e.return_value();
             e.end_method();
-            ce.end_class();
         }
 
-        private void generateGetterAndSetterMethods(CodeEmitter e, PropertyDescriptor[] setters, Map<String,
-                PropertyDescriptor> names, Local targetLocal, Local sourceLocal) {
+        /**
+         * how each target property is copied, properties without a way to copy them are left out
+         */
+        private List<PropertyPlan> planProperties(PropertyDescriptor[] setters,
+                                                  Map<String, PropertyDescriptor> names) {
+            List<PropertyPlan> plans = new ArrayList<>();
+            int converters = 0;
             for (PropertyDescriptor setter : setters) {
-                PropertyDescriptor getter = names.get(setter.getName());
+                String sourceName = spec.sourceOf(setter.getName());
+                PropertyDescriptor getter = Objects.isNull(sourceName) ? null : names.get(sourceName);
                 if (getter == null) {
                     continue;
                 }
@@ -137,40 +335,407 @@ public abstract class CustomBeanCopier {
                 if (writeMethod == null || readMethod == null) {
                     continue;
                 }
-                MethodInfo read = ReflectUtils.getMethodInfo(readMethod);
-                MethodInfo write = ReflectUtils.getMethodInfo(writeMethod);
-                if (compatible(getter, setter)) {
+                boolean assignable = compatible(getter, setter);
+                if (assignable && !needsConversion(readMethod, writeMethod)) {
+                    plans.add(new PropertyPlan(setter, readMethod, writeMethod, CopyKind.DIRECT, null));
+                } else if (useConverter && isPrimitiveCompatible(readMethod.getReturnType(),
+                        writeMethod.getParameterTypes()[0])) {
+                    plans.add(new PropertyPlan(setter, readMethod, writeMethod, CopyKind.PRIMITIVE, null));
+                } else if (useConverter && Objects.nonNull(TypeConverters.find(readMethod.getGenericReturnType(),
+                        writeMethod.getGenericParameterTypes()[0], deepCopy))) {
+                    plans.add(new PropertyPlan(setter, readMethod, writeMethod, CopyKind.CONVERTED,
+                            CONVERTER_FIELD_PREFIX + converters++));
+                } else if (assignable) {
+                    //没有转换器的泛型属性, 保持引用复制
+                    plans.add(new PropertyPlan(setter, readMethod, writeMethod, CopyKind.DIRECT, null));
+                }
+            }
+            return plans;
+        }
+
+        private void generateCopy(ClassEmitter ce, List<PropertyPlan> plans) {
+            CodeEmitter e = ce.begin_method(Constants.ACC_PUBLIC, COPY, null);
+            //将Object类型强转为要转换的类型
+            Local targetLocal = e.make_local();
+            Local sourceLocal = e.make_local();
+            e.load_arg(1);
+            e.checkcast($Type.getType(target));
+            e.store_local(targetLocal);
+            e.load_arg(0);
+            e.checkcast($Type.getType(source));
+            e.store_local(sourceLocal);
+            Local valueLocal = null;
+            boolean skipNulls = spec.isSkipNulls();
+            //生成每个setter和getter方法
+            for (PropertyPlan plan : plans) {
+                if (plan.kind == CopyKind.DIRECT) {
+                    generateDirectCopy(e, targetLocal, sourceLocal, plan.read, plan.write, plan.writeMethod,
+                            skipNulls);
+                } else if (plan.kind == CopyKind.PRIMITIVE) {
+                    generatePrimitiveCopy(e, targetLocal, sourceLocal, plan.read, plan.write, plan.writeMethod,
+                            skipNulls);
+                } else {
+                    if (Objects.isNull(valueLocal)) {
+                        valueLocal = e.make_local(Constants.TYPE_OBJECT);
+                    }
+                    generateConvertedCopy(e, targetLocal, sourceLocal, valueLocal, plan.field, plan.read,
+                            plan.write, plan.writeMethod, skipNulls);
+                }
+            }
+            e.return_value();
+            e.end_method();
+        }
+
+        /**
+         * copyNonNull: every non-null source value is converted as in copy, compared with the old target value
+         * if the target has a getter, and only set and marked if it differs
+         */
+        private void generateMerge(ClassEmitter ce, List<PropertyPlan> plans) {
+            CodeEmitter e = ce.begin_method(Constants.ACC_PROTECTED, COPY_NON_NULL, null);
+            Local targetLocal = e.make_local();
+            Local sourceLocal = e.make_local();
+            Local valueLocal = e.make_local(Constants.TYPE_OBJECT);
+            e.load_arg(1);
+            e.checkcast($Type.getType(target));
+            e.store_local(targetLocal);
+            e.load_arg(0);
+            e.checkcast($Type.getType(source));
+            e.store_local(sourceLocal);
+            Map<String, PropertyDescriptor> targetGetters = new HashMap<>();
+            for (PropertyDescriptor getter : ReflectUtils.getBeanGetters(target)) {
+                targetGetters.put(getter.getName(), getter);
+            }
+            for (int i = 0; i < plans.size(); i++) {
+                PropertyPlan plan = plans.get(i);
+                $Type readType = plan.read.getSignature().getReturnType();
+                $Type writeType = plan.write.getSignature().getArgumentTypes()[0];
+                $Label end = e.make_label();
+                e.load_local(sourceLocal);
+                e.invoke(plan.read);
+                if (TypeUtils.isPrimitive(readType)) {
+                    box(e, readType);
+                }
+                e.store_local(valueLocal);
+                if (!TypeUtils.isPrimitive(readType)) {
+                    e.load_local(valueLocal);
+                    e.ifnull(end);
+                }
+                if (plan.kind == CopyKind.PRIMITIVE) {
+                    $Type readPrimitive = TypeUtils.getUnboxedType(readType);
+                    $Type writePrimitive = TypeUtils.getUnboxedType(writeType);
+                    if (!readPrimitive.equals(writePrimitive)) {
+                        e.load_local(valueLocal);
+                        e.unbox(readPrimitive);
+                        e.cast_numeric(readPrimitive, writePrimitive);
+                        box(e, writePrimitive);
+                        e.store_local(valueLocal);
+                    }
+                } else if (plan.kind == CopyKind.CONVERTED) {
+                    e.getfield(plan.field);
+                    e.load_local(valueLocal);
+                    e.invoke_interface(TYPE_CONVERTER, CONVERT);
+                    e.store_local(valueLocal);
+                    e.load_local(valueLocal);
+                    e.ifnull(end);
+                }
+                PropertyDescriptor targetGetter = targetGetters.get(plan.setter.getName());
+                if (Objects.nonNull(targetGetter) && Objects.nonNull(targetGetter.getReadMethod())) {
+                    MethodInfo oldRead = ReflectUtils.getMethodInfo(targetGetter.getReadMethod());
                     e.load_local(targetLocal);
-                    e.load_local(sourceLocal);
-                    e.invoke(read);
-                    e.invoke(write);
-                    if (!writeMethod.getReturnType().equals(void.class)) {
-                        e.pop();
+                    e.invoke(oldRead);
+                    if (TypeUtils.isPrimitive(oldRead.getSignature().getReturnType())) {
+                        box(e, oldRead.getSignature().getReturnType());
+                    }
+                    e.load_local(valueLocal);
+                    e.invoke_static(TYPE_OBJECTS, OBJECTS_EQUALS);
+                    e.if_jump(CodeEmitter.NE, end);
+                }
+                e.load_local(targetLocal);
+                e.load_local(valueLocal);
+                if (TypeUtils.isPrimitive(writeType)) {
+                    e.unbox(writeType);
+                } else {
+                    e.checkcast(writeType);
+                }
+                e.invoke(plan.write);
+                popReturnValue(e, plan.writeMethod);
+                e.load_arg(2);
+                e.push(i);
+                e.invoke_static(BEAN_COPIER, MARK);
+                e.mark(end);
+            }
+            e.return_value();
+            e.end_method();
+        }
+
+        /**
+         * assignable property that still needs a converter: different generic types, or a copied value in deep mode
+         */
+        private boolean needsConversion(Method readMethod, Method writeMethod) {
+            if (!useConverter) {
+                return false;
+            }
+            if (deepCopy && NestedConverters.isDeepCopied(readMethod.getReturnType())) {
+                return true;
+            }
+            Type writeType = writeMethod.getGenericParameterTypes()[0];
+            return !(writeType instanceof Class) && !writeType.equals(readMethod.getGenericReturnType());
+        }
+
+        /**
+         * copy of an assignable value, with skipNulls a null value leaves the target unchanged
+         */
+        private static void generateDirectCopy(CodeEmitter e, Local targetLocal, Local sourceLocal, MethodInfo read,
+                                               MethodInfo write, Method writeMethod, boolean skipNulls) {
+            e.load_local(targetLocal);
+            e.load_local(sourceLocal);
+            e.invoke(read);
+            if (!skipNulls || TypeUtils.isPrimitive(read.getSignature().getReturnType())) {
+                e.invoke(write);
+                popReturnValue(e, writeMethod);
+                return;
+            }
+            $Label nonNull = e.make_label();
+            $Label end = e.make_label();
+            e.dup();
+            e.ifnonnull(nonNull);
+            e.pop2();
+            e.goTo(end);
+            e.mark(nonNull);
+            e.invoke(write);
+            popReturnValue(e, writeMethod);
+            e.mark(end);
+        }
+
+        /**
+         * boxing, unboxing and primitive widening, a null wrapper leaves a primitive target unchanged,
+         * with skipNulls also a wrapper target
+         */
+        private static void generatePrimitiveCopy(CodeEmitter e, Local targetLocal, Local sourceLocal,
+                                                  MethodInfo read, MethodInfo write, Method writeMethod,
+                                                  boolean skipNulls) {
+            $Type readType = read.getSignature().getReturnType();
+            $Type writeType = write.getSignature().getArgumentTypes()[0];
+            $Type readPrimitive = TypeUtils.getUnboxedType(readType);
+            $Type writePrimitive = TypeUtils.getUnboxedType(writeType);
+            $Label end = e.make_label();
+            e.load_local(targetLocal);
+            e.load_local(sourceLocal);
+            e.invoke(read);
+            if (!TypeUtils.isPrimitive(readType)) {
+                $Label nonNull = e.make_label();
+                e.dup();
+                e.ifnonnull(nonNull);
+                if (TypeUtils.isPrimitive(writeType) || skipNulls) {
+                    e.pop2();
+                } else {
+                    if (!readType.equals(writeType)) {
+                        e.checkcast(writeType);
                     }
+                    e.invoke(write);
+                    popReturnValue(e, writeMethod);
+                }
+                e.goTo(end);
+                e.mark(nonNull);
+                e.unbox(readPrimitive);
+            }
+            if (!readPrimitive.equals(writePrimitive)) {
+                e.cast_numeric(readPrimitive, writePrimitive);
+            }
+            if (!TypeUtils.isPrimitive(writeType)) {
+                box(e, writePrimitive);
+            }
+            e.invoke(write);
+            popReturnValue(e, writeMethod);
+            e.mark(end);
+        }
+
+        /**
+         * convert by the converter in the static field, a null source sets null,
+         * a null source or result leaves a primitive target unchanged, with skipNulls a null source
+         * leaves any target unchanged
+         */
+        private static void generateConvertedCopy(CodeEmitter e, Local targetLocal, Local sourceLocal,
+                                                  Local valueLocal, String field, MethodInfo read,
+                                                  MethodInfo write, Method writeMethod, boolean skipNulls) {
+            $Type readType = read.getSignature().getReturnType();
+            $Type writeType = write.getSignature().getArgumentTypes()[0];
+            $Label end = e.make_label();
+            e.load_local(sourceLocal);
+            e.invoke(read);
+            if (TypeUtils.isPrimitive(readType)) {
+                box(e, readType);
+            }
+            e.store_local(valueLocal);
+            e.load_local(targetLocal);
+            e.load_local(valueLocal);
+            $Label nonNull = e.make_label();
+            e.ifnonnull(nonNull);
+            if (TypeUtils.isPrimitive(writeType) || skipNulls) {
+                e.pop();
+            } else {
+                e.aconst_null();
+                e.invoke(write);
+                popReturnValue(e, writeMethod);
+            }
+            e.goTo(end);
+            e.mark(nonNull);
+            e.getfield(field);
+            e.load_local(valueLocal);
+            e.invoke_interface(TYPE_CONVERTER, CONVERT);
+            if (TypeUtils.isPrimitive(writeType)) {
+                $Label converted = e.make_label();
+                e.dup();
+                e.ifnonnull(converted);
+                e.pop2();
+                e.goTo(end);
+                e.mark(converted);
+                e.unbox(writeType);
+            } else {
+                e.checkcast(writeType);
+            }
+            e.invoke(write);
+            popReturnValue(e, writeMethod);
+            e.mark(end);
+        }
+
+        private static void box(CodeEmitter e, $Type primitive) {
+            $Type boxed = TypeUtils.getBoxedType(primitive);
+            e.invoke_static(boxed, new Signature("valueOf", boxed, new $Type[]{primitive}));
+        }
+
+        private static void popReturnValue(CodeEmitter e, Method writeMethod) {
+            if (!writeMethod.getReturnType().equals(void.class)) {
+                if (writeMethod.getReturnType().equals(long.class) || writeMethod.getReturnType().equals(double.class)) {
+                    e.pop2();
+                } else {
+                    e.pop();
                 }
             }
         }
 
+        /**
+         * same primitive, or primitive widening, either side may be a wrapper
+         */
+        private static boolean isPrimitiveCompatible(Class<?> readType, Class<?> writeType) {
+            Class<?> readPrimitive = unwrap(readType);
+            Class<?> writePrimitive = unwrap(writeType);
+            if (Objects.isNull(readPrimitive) || Objects.isNull(writePrimitive)) {
+                return false;
+            }
+            if (readPrimitive.equals(writePrimitive)) {
+                return true;
+            }
+            int from = WIDENING_ORDER.indexOf(readPrimitive);
+            int to = WIDENING_ORDER.indexOf(writePrimitive);
+            if (from < 0 || to < 0) {
+                return false;
+            }
+            if (char.class.equals(readPrimitive)) {
+                return to >= WIDENING_ORDER.indexOf(int.class);
+            }
+            return !char.class.equals(writePrimitive) && from < to;
+        }
+
+        private static Class<?> unwrap(Class<?> clazz) {
+            if (clazz.isPrimitive()) {
+                return void.class.equals(clazz) ? null : clazz;
+            }
+            if (Boolean.class.equals(clazz)) {
+                return boolean.class;
+            }
+            for (Class<?> primitive : WIDENING_ORDER) {
+                if (TypeConverters.wrap(primitive).equals(clazz)) {
+                    return primitive;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * public setters of the target including inherited ones, also setters returning a value. A setter
+         * overridden in a subclass or overloaded is taken once: the one of the most specific class, then one that
+         * is not a generic bridge, then the one of the type of the target getter
+         */
         private void checkMethodsForSetter(List<PropertyDescriptor> setterList, Method[] result) throws IntrospectionException {
+            Map<String, PropertyDescriptor> targetGetters = new HashMap<>();
+            for (PropertyDescriptor getter : ReflectUtils.getBeanGetters(target)) {
+                targetGetters.put(getter.getName(), getter);
+            }
+            Map<String, PropertyDescriptor> setters = new LinkedHashMap<>();
             for (Method method : result) {
-                if (!method.getDeclaringClass().equals(target) || Modifier.isStatic(method.getModifiers())) {
+                if (Modifier.isStatic(method.getModifiers())) {
                     continue;
                 }
                 String name = method.getName();
                 Class<?>[] argTypes = method.getParameterTypes();
                 int argCount = argTypes.length;
                 if (argCount == 1 && name.startsWith(SET_PREFIX)) {
-                    PropertyDescriptor propertyDescriptor =
-                            new PropertyDescriptor(Introspector.decapitalize(name.substring(3)), null, method);
-                    setterList.add(propertyDescriptor);
+                    String property = Introspector.decapitalize(name.substring(3));
+                    PropertyDescriptor existing = setters.get(property);
+                    if (Objects.isNull(existing)
+                            || preferSetter(method, existing.getWriteMethod(), targetGetters.get(property))) {
+                        setters.put(property, new PropertyDescriptor(property, null, method));
+                    }
                 }
             }
+            setterList.addAll(setters.values());
+        }
+
+        private static boolean preferSetter(Method method, Method existing, PropertyDescriptor getter) {
+            Class<?> declaring = method.getDeclaringClass();
+            Class<?> existingDeclaring = existing.getDeclaringClass();
+            if (!declaring.equals(existingDeclaring)) {
+                return existingDeclaring.isAssignableFrom(declaring);
+            }
+            if (method.isBridge() != existing.isBridge()) {
+                return existing.isBridge();
+            }
+            return Objects.nonNull(getter) && getter.getPropertyType().equals(method.getParameterTypes()[0]);
         }
 
         private static boolean compatible(PropertyDescriptor getter, PropertyDescriptor setter) {
             return setter.getPropertyType().isAssignableFrom(getter.getPropertyType());
         }
 
+        /**
+         * how a property is copied: assignable, boxing, unboxing or widening, or by a converter
+         */
+        private enum CopyKind {
+            DIRECT, PRIMITIVE, CONVERTED
+        }
+
+        private static final class PropertyPlan {
+
+            private final PropertyDescriptor setter;
+
+            private final Method readMethod;
+
+            private final Method writeMethod;
+
+            private final MethodInfo read;
+
+            private final MethodInfo write;
+
+            private final CopyKind kind;
+
+            /**
+             * static converter field of a converted property
+             */
+            private final String field;
+
+            private PropertyPlan(PropertyDescriptor setter, Method readMethod, Method writeMethod, CopyKind kind,
+                                 String field) {
+                this.setter = setter;
+                this.readMethod = readMethod;
+                this.writeMethod = writeMethod;
+                this.read = ReflectUtils.getMethodInfo(readMethod);
+                this.write = ReflectUtils.getMethodInfo(writeMethod);
+                this.kind = kind;
+                this.field = field;
+            }
+        }
+
         @Override
         protected Object firstInstance(Class type) {
             return ReflectUtils.newInstance(type);
@@ -0,0 +1,192 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <p>map of the properties of a bean returned by {@link BeanUtils#toMap(Object)}: one value array,
+ * the keys and their indexes are shared by every map of the bean class, no entry objects are kept.
+ * <p>keys are the readable properties of the bean class in a fixed order, null values included.
+ * Values of the keys can be replaced, keys can not be added or removed.
+ * @author Jackie
+ * @version $id: FlatBeanMap.java v 0.1 2021-10-14 16:20 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class FlatBeanMap extends AbstractMap<String, Object> {
+
+    private final BeanMapAccessor accessor;
+
+    private final Object[] values;
+
+    private transient Set<Map.Entry<String, Object>> entrySet;
+
+    FlatBeanMap(BeanMapAccessor accessor, Object[] values) {
+        this.accessor = accessor;
+        this.values = values;
+    }
+
+    BeanMapAccessor getAccessor() {
+        return accessor;
+    }
+
+    /**
+     * value at the property index
+     * @param index property index
+     * @return value
+     */
+    Object getValue(int index) {
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return accessor.indexOf(key) >= 0;
+    }
+
+    @Override
+    public boolean containsValue(Object value) {
+        for (Object v : values) {
+            if (Objects.equals(v, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = accessor.indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    /**
+     * replace the value of a property
+     * @throws UnsupportedOperationException if the key is not a property of the bean class
+     */
+    @Override
+    public Object put(String key, Object value) {
+        int index = accessor.indexOf(key);
+        if (index < 0) {
+            throw new UnsupportedOperationException("not a property of the bean: " + key);
+        }
+        Object old = values[index];
+        values[index] = value;
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        throw new UnsupportedOperationException("keys of a bean map can not be removed");
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException("keys of a bean map can not be removed");
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        Set<Map.Entry<String, Object>> es = entrySet;
+        if (Objects.isNull(es)) {
+            es = new EntrySet();
+            entrySet = es;
+        }
+        return es;
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+        @Override
+        public Iterator<Map.Entry<String, Object>> iterator() {
+            return new Iterator<Map.Entry<String, Object>>() {
+
+                private int cursor;
+
+                @Override
+                public boolean hasNext() {
+                    return cursor < values.length;
+                }
+
+                @Override
+                public Map.Entry<String, Object> next() {
+                    if (cursor >= values.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return new Entry(cursor++);
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
+    /**
+     * view of the value at an index, created while iterating
+     */
+    private final class Entry implements Map.Entry<String, Object> {
+
+        private final int index;
+
+        private Entry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return accessor.getProperty(index);
+        }
+
+        @Override
+        public Object getValue() {
+            return values[index];
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            Object old = values[index];
+            values[index] = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return getKey().equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
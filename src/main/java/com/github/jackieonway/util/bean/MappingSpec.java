@@ -0,0 +1,228 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+import com.github.jackieonway.util.collection.CollectionUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * <p>property mapping of a generated {@link CustomBeanCopier}: renamed properties, excluded properties
+ * and null-skipping, baked into the generated class, copiers are cached per class pair and spec.
+ * <p>renames and excludes follow the Orika class map of
+ * {@link BeanUtils#copyProperties(Object, Class, Map, java.util.List)}: a renamed source property is only
+ * copied to its new name, an excluded name is skipped on both sides.
+ * Only flat property names are supported, nested paths such as {@code info.hobby} need the Orika path.
+ * @author Jackie
+ * @version $id: MappingSpec.java v 0.1 2021-10-13 10:30 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class MappingSpec {
+
+    /**
+     * no renames, no excludes, nulls are copied
+     */
+    public static final MappingSpec DEFAULT = new MappingSpec(Collections.emptyMap(), Collections.emptySet(), false);
+
+    private static final String PATH_SEPARATOR = ".";
+
+    /**
+     * source property to target property, sorted so that equal specs generate the same class
+     */
+    private final Map<String, String> renames;
+
+    /**
+     * target property to source property
+     */
+    private final Map<String, String> sources;
+
+    private final Set<String> excludes;
+
+    private final boolean skipNulls;
+
+    private final int hashCode;
+
+    private MappingSpec(Map<String, String> renames, Set<String> excludes, boolean skipNulls) {
+        this.renames = Collections.unmodifiableMap(new TreeMap<>(renames));
+        this.excludes = Collections.unmodifiableSet(new TreeSet<>(excludes));
+        this.skipNulls = skipNulls;
+        Map<String, String> inverse = new HashMap<>(renames.size() * 2);
+        renames.forEach((source, target) -> inverse.put(target, source));
+        this.sources = inverse;
+        this.hashCode = Objects.hash(this.renames, this.excludes, skipNulls);
+    }
+
+    public static MappingSpecBuilder builder() {
+        return new MappingSpecBuilder();
+    }
+
+    /**
+     * spec of the Orika style config
+     * @param configMap source property to target property, may be null
+     * @param excludeFields excluded properties, may be null
+     * @return spec
+     * @throws IllegalArgumentException if a property is a nested path
+     */
+    public static MappingSpec of(Map<String, String> configMap, Collection<String> excludeFields) {
+        if (CollectionUtils.isEmpty(configMap) && CollectionUtils.isEmpty(excludeFields)) {
+            return DEFAULT;
+        }
+        MappingSpecBuilder builder = builder();
+        if (CollectionUtils.isNotEmpty(configMap)) {
+            configMap.forEach(builder::rename);
+        }
+        if (CollectionUtils.isNotEmpty(excludeFields)) {
+            excludeFields.forEach(builder::exclude);
+        }
+        return builder.build();
+    }
+
+    /**
+     * whether the Orika style config only contains flat property names
+     * @param configMap source property to target property, may be null
+     * @param excludeFields excluded properties, may be null
+     * @return true if a spec can be built of the config
+     */
+    public static boolean isFlat(Map<String, String> configMap, Collection<String> excludeFields) {
+        if (CollectionUtils.isNotEmpty(configMap)) {
+            for (Map.Entry<String, String> entry : configMap.entrySet()) {
+                if (!isFlat(entry.getKey()) || !isFlat(entry.getValue())) {
+                    return false;
+                }
+            }
+        }
+        if (CollectionUtils.isNotEmpty(excludeFields)) {
+            for (String exclude : excludeFields) {
+                if (!isFlat(exclude)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isFlat(String property) {
+        return Objects.nonNull(property) && !property.contains(PATH_SEPARATOR);
+    }
+
+    /**
+     * source property copied to the target property
+     * @param targetProperty target property
+     * @return source property, null if the target property is not copied
+     */
+    String sourceOf(String targetProperty) {
+        if (excludes.contains(targetProperty)) {
+            return null;
+        }
+        String source = sources.get(targetProperty);
+        if (Objects.isNull(source)) {
+            if (renames.containsKey(targetProperty)) {
+                return null;
+            }
+            source = targetProperty;
+        }
+        return excludes.contains(source) ? null : source;
+    }
+
+    public Map<String, String> getRenames() {
+        return renames;
+    }
+
+    public Set<String> getExcludes() {
+        return excludes;
+    }
+
+    public boolean isSkipNulls() {
+        return skipNulls;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MappingSpec)) {
+            return false;
+        }
+        MappingSpec that = (MappingSpec) o;
+        return skipNulls == that.skipNulls && renames.equals(that.renames) && excludes.equals(that.excludes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return "MappingSpec{renames=" + renames + ", excludes=" + excludes + ", skipNulls=" + skipNulls + '}';
+    }
+
+    public static class MappingSpecBuilder {
+
+        private final Map<String, String> renames = new HashMap<>();
+
+        private final Set<String> excludes = new TreeSet<>();
+
+        private boolean skipNulls;
+
+        /**
+         * copy the source property to a target property of another name
+         * @param sourceProperty source property
+         * @param targetProperty target property
+         * @return builder
+         */
+        public MappingSpecBuilder rename(String sourceProperty, String targetProperty) {
+            checkFlat(sourceProperty);
+            checkFlat(targetProperty);
+            if (renames.containsValue(targetProperty) && !targetProperty.equals(renames.get(sourceProperty))) {
+                throw new IllegalArgumentException("target property is mapped twice: " + targetProperty);
+            }
+            renames.put(sourceProperty, targetProperty);
+            return this;
+        }
+
+        /**
+         * skip the property on both sides
+         * @param property property
+         * @return builder
+         */
+        public MappingSpecBuilder exclude(String property) {
+            checkFlat(property);
+            excludes.add(property);
+            return this;
+        }
+
+        /**
+         * leave the target property unchanged if the source property is null
+         * @param skipNulls skip nulls
+         * @return builder
+         */
+        public MappingSpecBuilder skipNulls(boolean skipNulls) {
+            this.skipNulls = skipNulls;
+            return this;
+        }
+
+        public MappingSpec build() {
+            if (renames.isEmpty() && excludes.isEmpty() && !skipNulls) {
+                return DEFAULT;
+            }
+            return new MappingSpec(renames, excludes, skipNulls);
+        }
+
+        private static void checkFlat(String property) {
+            if (!isFlat(property)) {
+                throw new IllegalArgumentException("property must be a flat property name: " + property);
+            }
+        }
+    }
+}
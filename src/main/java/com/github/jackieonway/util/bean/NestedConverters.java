@@ -0,0 +1,303 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.*;
+import java.util.function.IntFunction;
+
+/**
+ * <p>converters of nested beans, collections, arrays and maps for the generated copiers of
+ * {@link CustomBeanCopier}. Nested beans are copied by the cached copiers of {@link BeanUtils},
+ * elements are converted by converters resolved once from the generic types of the properties.
+ * <p>in deep mode nested beans, collections, arrays and maps are copied even if their types are
+ * assignable, immutable values are shared. Cyclic object graphs are not supported.
+ * @author Jackie
+ * @version $id: NestedConverters.java v 0.1 2021-10-11 16:40 Jackie Exp $$
+ * @since 1.0.3
+ */
+final class NestedConverters {
+
+    private static final TypeConverter<Object, Object> IDENTITY = value -> value;
+
+    private NestedConverters() {
+    }
+
+    /**
+     * converter of nested bean or container types
+     * @param sourceType source type
+     * @param targetType target type
+     * @param deep deep copy
+     * @return converter, null if none
+     */
+    static TypeConverter<?, ?> find(Type sourceType, Type targetType, boolean deep) {
+        Class<?> sourceClass = rawClass(sourceType);
+        Class<?> targetClass = rawClass(targetType);
+        if (Objects.isNull(sourceClass) || Objects.isNull(targetClass)) {
+            return null;
+        }
+        if (Map.class.isAssignableFrom(sourceClass) && Map.class.isAssignableFrom(targetClass)) {
+            return mapConverter(sourceType, targetType, targetClass, deep);
+        }
+        if (isSequence(sourceClass) && isSequence(targetClass)) {
+            return sequenceConverter(sourceType, targetType, targetClass, deep);
+        }
+        if (isBean(sourceClass) && isBean(targetClass) && (deep || !targetClass.isAssignableFrom(sourceClass))) {
+            return new BeanConverter(targetClass, deep);
+        }
+        return null;
+    }
+
+    /**
+     * whether a value of the class is copied instead of shared in deep mode
+     * @param clazz class
+     * @return true if copied
+     */
+    static boolean isDeepCopied(Class<?> clazz) {
+        return isBean(clazz) || isSequence(clazz) || Map.class.isAssignableFrom(clazz);
+    }
+
+    private static TypeConverter<?, ?> sequenceConverter(Type sourceType, Type targetType, Class<?> targetClass,
+                                                         boolean deep) {
+        TypeConverter<Object, Object> element = elementConverter(elementType(sourceType),
+                elementType(targetType), deep);
+        if (Objects.isNull(element)) {
+            return null;
+        }
+        if (targetClass.isArray()) {
+            Class<?> componentType = targetClass.getComponentType();
+            return value -> {
+                Object[] elements = toArray(value);
+                Object array = Array.newInstance(componentType, elements.length);
+                for (int i = 0; i < elements.length; i++) {
+                    Object converted = convertElement(element, elements[i]);
+                    if (Objects.nonNull(converted) || !componentType.isPrimitive()) {
+                        Array.set(array, i, converted);
+                    }
+                }
+                return array;
+            };
+        }
+        IntFunction<Collection<Object>> factory = collectionFactory(targetClass);
+        if (Objects.isNull(factory)) {
+            return null;
+        }
+        return value -> {
+            Object[] elements = toArray(value);
+            Collection<Object> collection = factory.apply(elements.length);
+            for (Object e : elements) {
+                collection.add(convertElement(element, e));
+            }
+            return collection;
+        };
+    }
+
+    private static TypeConverter<?, ?> mapConverter(Type sourceType, Type targetType, Class<?> targetClass,
+                                                    boolean deep) {
+        TypeConverter<Object, Object> key = elementConverter(typeArgument(sourceType, Map.class, 0),
+                typeArgument(targetType, Map.class, 0), deep);
+        TypeConverter<Object, Object> value = elementConverter(typeArgument(sourceType, Map.class, 1),
+                typeArgument(targetType, Map.class, 1), deep);
+        IntFunction<Map<Object, Object>> factory = mapFactory(targetClass);
+        if (Objects.isNull(key) || Objects.isNull(value) || Objects.isNull(factory)) {
+            return null;
+        }
+        return source -> {
+            Map<?, ?> sourceMap = (Map<?, ?>) source;
+            Map<Object, Object> map = factory.apply(sourceMap.size());
+            for (Map.Entry<?, ?> entry : sourceMap.entrySet()) {
+                map.put(convertElement(key, entry.getKey()), convertElement(value, entry.getValue()));
+            }
+            return map;
+        };
+    }
+
+    /**
+     * converter of elements, null if elements of the source type can not be converted to the target type
+     */
+    @SuppressWarnings("unchecked")
+    private static TypeConverter<Object, Object> elementConverter(Type sourceType, Type targetType, boolean deep) {
+        Class<?> sourceClass = rawClass(sourceType);
+        Class<?> targetClass = rawClass(targetType);
+        if (Objects.isNull(targetClass) || Object.class.equals(targetClass)) {
+            return IDENTITY;
+        }
+        if (Objects.isNull(sourceClass)) {
+            return null;
+        }
+        boolean sameGeneric = targetType instanceof Class || sourceType.equals(targetType);
+        if (targetClass.isAssignableFrom(sourceClass) && sameGeneric && !(deep && isDeepCopied(sourceClass))) {
+            return IDENTITY;
+        }
+        return (TypeConverter<Object, Object>) TypeConverters.find(sourceType, targetType, deep);
+    }
+
+    private static Object convertElement(TypeConverter<Object, Object> converter, Object value) {
+        return Objects.isNull(value) || converter == IDENTITY ? value : converter.convert(value);
+    }
+
+    private static Object[] toArray(Object value) {
+        if (value instanceof Collection) {
+            return ((Collection<?>) value).toArray();
+        }
+        if (value instanceof Object[]) {
+            return (Object[]) value;
+        }
+        int length = Array.getLength(value);
+        Object[] elements = new Object[length];
+        for (int i = 0; i < length; i++) {
+            elements[i] = Array.get(value, i);
+        }
+        return elements;
+    }
+
+    private static boolean isSequence(Class<?> clazz) {
+        return clazz.isArray() || Collection.class.isAssignableFrom(clazz);
+    }
+
+    /**
+     * a class with properties: not a JDK class, not abstract, with a no-arg constructor
+     */
+    private static boolean isBean(Class<?> clazz) {
+        if (clazz.isPrimitive() || clazz.isArray() || clazz.isEnum() || clazz.isInterface()
+                || Modifier.isAbstract(clazz.getModifiers())) {
+            return false;
+        }
+        String name = clazz.getName();
+        if (name.startsWith("java.") || name.startsWith("javax.")) {
+            return false;
+        }
+        try {
+            clazz.getDeclaredConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static IntFunction<Collection<Object>> collectionFactory(Class<?> targetClass) {
+        if (targetClass.isAssignableFrom(ArrayList.class)) {
+            return ArrayList::new;
+        }
+        if (targetClass.isAssignableFrom(LinkedHashSet.class)) {
+            return size -> new LinkedHashSet<>(Math.max((int) (size / .75f) + 1, 16));
+        }
+        if (targetClass.isAssignableFrom(TreeSet.class)) {
+            return size -> new TreeSet<>();
+        }
+        if (targetClass.isAssignableFrom(ArrayDeque.class)) {
+            return ArrayDeque::new;
+        }
+        Constructor<?> constructor = noArgConstructor(targetClass);
+        return Objects.isNull(constructor) ? null : size -> (Collection<Object>) newInstance(constructor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static IntFunction<Map<Object, Object>> mapFactory(Class<?> targetClass) {
+        if (targetClass.isAssignableFrom(LinkedHashMap.class)) {
+            return size -> new LinkedHashMap<>(Math.max((int) (size / .75f) + 1, 16));
+        }
+        if (targetClass.isAssignableFrom(TreeMap.class)) {
+            return size -> new TreeMap<>();
+        }
+        Constructor<?> constructor = noArgConstructor(targetClass);
+        return Objects.isNull(constructor) ? null : size -> (Map<Object, Object>) newInstance(constructor);
+    }
+
+    private static Constructor<?> noArgConstructor(Class<?> clazz) {
+        if (clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = clazz.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static Object newInstance(Constructor<?> constructor) {
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(
+                    String.format("Create new instance of %s failed: %s", constructor.getDeclaringClass(),
+                            e.getMessage()), e);
+        }
+    }
+
+    private static Type elementType(Type type) {
+        if (type instanceof GenericArrayType) {
+            return ((GenericArrayType) type).getGenericComponentType();
+        }
+        if (type instanceof Class && ((Class<?>) type).isArray()) {
+            return ((Class<?>) type).getComponentType();
+        }
+        return typeArgument(type, Collection.class, 0);
+    }
+
+    /**
+     * type argument of the generic type, only direct parameterization is resolved,
+     * everything else is Object
+     */
+    private static Type typeArgument(Type type, Class<?> genericClass, int index) {
+        if (type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType) type;
+            Class<?> raw = rawClass(parameterizedType.getRawType());
+            if (Objects.nonNull(raw) && raw.getTypeParameters().length == genericClass.getTypeParameters().length
+                    && genericClass.isAssignableFrom(raw)) {
+                return parameterizedType.getActualTypeArguments()[index];
+            }
+        }
+        return Object.class;
+    }
+
+    static Class<?> rawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return rawClass(((ParameterizedType) type).getRawType());
+        }
+        if (type instanceof GenericArrayType) {
+            Class<?> component = rawClass(((GenericArrayType) type).getGenericComponentType());
+            return Objects.isNull(component) ? null : Array.newInstance(component, 0).getClass();
+        }
+        if (type instanceof WildcardType) {
+            return rawClass(((WildcardType) type).getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable) {
+            return rawClass(((TypeVariable<?>) type).getBounds()[0]);
+        }
+        return null;
+    }
+
+    private static final class BeanConverter implements TypeConverter<Object, Object> {
+
+        private final Class<?> targetClass;
+
+        private final boolean deep;
+
+        private BeanConverter(Class<?> targetClass, boolean deep) {
+            this.targetClass = targetClass;
+            this.deep = deep;
+        }
+
+        @Override
+        public Object convert(Object source) {
+            return deep ? BeanUtils.deepCopyPropertiesByBeanCopier(source, targetClass)
+                    : BeanUtils.copyPropertiesByBeanCopier(source, targetClass);
+        }
+    }
+}
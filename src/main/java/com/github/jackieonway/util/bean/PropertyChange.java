@@ -0,0 +1,49 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+/**
+ * <p>changed property found by a {@link BeanDiffer}
+ * @author Jackie
+ * @version $id: PropertyChange.java v 0.1 2021-10-14 10:15 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class PropertyChange {
+
+    private final String property;
+
+    private final Object oldValue;
+
+    private final Object newValue;
+
+    /**
+     * created by the generated differs
+     * @param property property of the new bean
+     * @param oldValue old value, primitives are boxed
+     * @param newValue new value, primitives are boxed
+     */
+    public PropertyChange(String property, Object oldValue, Object newValue) {
+        this.property = property;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Object getOldValue() {
+        return oldValue;
+    }
+
+    public Object getNewValue() {
+        return newValue;
+    }
+
+    @Override
+    public String toString() {
+        return property + ": " + oldValue + " -> " + newValue;
+    }
+}
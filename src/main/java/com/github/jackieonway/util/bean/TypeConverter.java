@@ -0,0 +1,25 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+/**
+ * convert a property value for the generated copiers of {@link CustomBeanCopier}
+ * @param <S> source type
+ * @param <T> target type
+ * @author Jackie
+ * @version $id: TypeConverter.java v 0.1 2021-10-09 14:10 Jackie Exp $$
+ * @since 1.0.3
+ * @see TypeConverters
+ */
+@FunctionalInterface
+public interface TypeConverter<S, T> {
+
+    /**
+     * convert source value to target value
+     * @param source source value, never null
+     * @return target value, null leaves a primitive target property unchanged
+     */
+    T convert(S source);
+}
@@ -0,0 +1,310 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+import com.github.jackieonway.util.DateUtils;
+import com.github.jackieonway.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * <p>registry of {@link TypeConverter}s used by the generated copiers of {@link CustomBeanCopier}
+ * for properties whose types are not assignable, boxing and primitive widening are emitted inline
+ * and never reach this registry.
+ * <p>nested beans, collections, arrays and maps are converted element-wise, see {@link #find(Type, Type, boolean)}.
+ * <p>built in: numbers to numbers, simple values to String, String to numbers, Boolean, Character
+ * and enums, enums to String, and between Date, Instant, LocalDateTime and LocalDate
+ * (epoch millis as Long as well) in the default time zone.
+ * <p>numbers are converted exactly, a value out of the target range, or with a fraction for an integral target,
+ * throws {@link ArithmeticException} instead of being truncated, only float and double may round.
+ * <p>converters are looked up when a copier class is generated, register custom converters
+ * before the first copy of the class pair.
+ * @author Jackie
+ * @version $id: TypeConverters.java v 0.1 2021-10-09 14:10 Jackie Exp $$
+ * @since 1.0.3
+ */
+public enum TypeConverters {
+
+    /**
+     * TypeConverters 实例
+     */
+    INSTANCE;
+
+    private static final Map<Class<?>, Map<Class<?>, TypeConverter<?, ?>>> CONVERTERS = new ConcurrentHashMap<>(64);
+
+    private static final Map<Class<?>, Class<?>> WRAPPERS = new ConcurrentHashMap<>(16);
+
+    /**
+     * time classes converted to and from each other through {@link Instant}
+     */
+    private static final Map<Class<?>, InstantCodec> INSTANT_CODECS = new LinkedHashMap<>(8);
+
+    static {
+        WRAPPERS.put(boolean.class, Boolean.class);
+        WRAPPERS.put(byte.class, Byte.class);
+        WRAPPERS.put(short.class, Short.class);
+        WRAPPERS.put(char.class, Character.class);
+        WRAPPERS.put(int.class, Integer.class);
+        WRAPPERS.put(long.class, Long.class);
+        WRAPPERS.put(float.class, Float.class);
+        WRAPPERS.put(double.class, Double.class);
+
+        registerNumber(Byte.class, n -> (byte) toIntExact(n, Byte.MIN_VALUE, Byte.MAX_VALUE), Byte::valueOf);
+        registerNumber(Short.class, n -> (short) toIntExact(n, Short.MIN_VALUE, Short.MAX_VALUE), Short::valueOf);
+        registerNumber(Integer.class, n -> toIntExact(n, Integer.MIN_VALUE, Integer.MAX_VALUE), Integer::valueOf);
+        registerNumber(Long.class, TypeConverters::toLongExact, Long::valueOf);
+        registerNumber(Float.class, TypeConverters::toFloat, Float::valueOf);
+        registerNumber(Double.class, TypeConverters::toDouble, Double::valueOf);
+        registerNumber(BigInteger.class, TypeConverters::toBigInteger, BigInteger::new);
+        registerNumber(BigDecimal.class, TypeConverters::toBigDecimal, BigDecimal::new);
+        register(String.class, Boolean.class, s -> StringUtils.isBlank(s) ? null : Boolean.valueOf(s.trim()));
+        register(String.class, Character.class, s -> s.isEmpty() ? null : s.charAt(0));
+
+        register(Date.class, String.class, DateUtils::format);
+        register(String.class, Date.class, s -> StringUtils.isBlank(s) ? null : DateUtils.parse(s.trim(), null));
+        register(String.class, LocalDateTime.class, s -> StringUtils.isBlank(s) ? null : LocalDateTime.parse(s.trim()));
+        register(String.class, LocalDate.class, s -> StringUtils.isBlank(s) ? null : LocalDate.parse(s.trim()));
+        register(String.class, LocalTime.class, s -> StringUtils.isBlank(s) ? null : LocalTime.parse(s.trim()));
+        register(String.class, Instant.class, s -> StringUtils.isBlank(s) ? null : Instant.parse(s.trim()));
+
+        registerInstant(Instant.class, Function.identity(), Function.identity());
+        registerInstant(Date.class, Date::toInstant, Date::from);
+        registerInstant(Long.class, Instant::ofEpochMilli, Instant::toEpochMilli);
+        registerInstant(LocalDateTime.class, t -> t.atZone(ZoneId.systemDefault()).toInstant(),
+                i -> LocalDateTime.ofInstant(i, ZoneId.systemDefault()));
+        registerInstant(LocalDate.class, t -> t.atStartOfDay(ZoneId.systemDefault()).toInstant(),
+                i -> LocalDateTime.ofInstant(i, ZoneId.systemDefault()).toLocalDate());
+    }
+
+    /**
+     * register a converter, replaces the converter of the same class pair
+     * @param sourceClass source class, primitives are registered as their wrappers
+     * @param targetClass target class, primitives are registered as their wrappers
+     * @param converter converter
+     * @param <S> source type
+     * @param <T> target type
+     */
+    public static <S, T> void register(Class<S> sourceClass, Class<T> targetClass, TypeConverter<S, T> converter) {
+        Objects.requireNonNull(converter, "converter can not be null");
+        CONVERTERS.computeIfAbsent(wrap(sourceClass), k -> new ConcurrentHashMap<>(16))
+                .put(wrap(targetClass), converter);
+    }
+
+    /**
+     * converter between the classes
+     * @param sourceClass source class
+     * @param targetClass target class
+     * @return converter, null if none
+     */
+    public static TypeConverter<?, ?> find(Class<?> sourceClass, Class<?> targetClass) {
+        Class<?> source = wrap(sourceClass);
+        Class<?> target = wrap(targetClass);
+        Map<Class<?>, TypeConverter<?, ?>> converters = CONVERTERS.get(source);
+        TypeConverter<?, ?> converter = Objects.isNull(converters) ? null : converters.get(target);
+        if (Objects.nonNull(converter)) {
+            return converter;
+        }
+        if (String.class.equals(target) && isSimpleValue(source)) {
+            return Enum.class.isAssignableFrom(source) ? (TypeConverter<Enum<?>, String>) Enum::name
+                    : (TypeConverter<Object, String>) String::valueOf;
+        }
+        if (String.class.equals(source) && target.isEnum()) {
+            return enumConverter(target);
+        }
+        return null;
+    }
+
+    /**
+     * converter between the generic types, including nested beans, collections, arrays and maps
+     * @param sourceType source type
+     * @param targetType target type
+     * @return converter, null if none
+     */
+    public static TypeConverter<?, ?> find(Type sourceType, Type targetType) {
+        return find(sourceType, targetType, false);
+    }
+
+    /**
+     * converter between the generic types, including nested beans, collections, arrays and maps
+     * @param sourceType source type
+     * @param targetType target type
+     * @param deep also copy nested beans, collections, arrays and maps of assignable types
+     * @return converter, null if none
+     */
+    public static TypeConverter<?, ?> find(Type sourceType, Type targetType, boolean deep) {
+        TypeConverter<?, ?> converter = NestedConverters.find(sourceType, targetType, deep);
+        if (Objects.nonNull(converter) || !(sourceType instanceof Class) || !(targetType instanceof Class)) {
+            return converter;
+        }
+        return find((Class<?>) sourceType, (Class<?>) targetType);
+    }
+
+    /**
+     * converter of a property, called by the static initializer of generated copiers
+     * @param sourceClass source bean class
+     * @param readMethod name of the getter
+     * @param targetClass target bean class
+     * @param writeMethod name of the setter
+     * @param writeType parameter type of the setter
+     * @param deep deep copy
+     * @return converter
+     * @throws IllegalStateException if no converter is found
+     */
+    public static TypeConverter<?, ?> forProperty(Class<?> sourceClass, String readMethod, Class<?> targetClass,
+                                                  String writeMethod, Class<?> writeType, boolean deep) {
+        try {
+            Method read = sourceClass.getMethod(readMethod);
+            Method write = targetClass.getMethod(writeMethod, writeType);
+            TypeConverter<?, ?> converter = find(read.getGenericReturnType(), write.getGenericParameterTypes()[0],
+                    deep);
+            if (Objects.isNull(converter)) {
+                throw new IllegalStateException(String.format("no converter from %s.%s to %s.%s",
+                        sourceClass.getName(), readMethod, targetClass.getName(), writeMethod));
+            }
+            return converter;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * wrapper class of the primitive class
+     * @param clazz class
+     * @return wrapper class, or clazz itself if not primitive
+     */
+    static Class<?> wrap(Class<?> clazz) {
+        return clazz.isPrimitive() ? WRAPPERS.get(clazz) : clazz;
+    }
+
+    private static boolean isSimpleValue(Class<?> clazz) {
+        return Number.class.isAssignableFrom(clazz) || CharSequence.class.isAssignableFrom(clazz)
+                || Boolean.class.equals(clazz) || Character.class.equals(clazz) || clazz.isEnum()
+                || TemporalAccessor.class.isAssignableFrom(clazz);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static TypeConverter<String, ?> enumConverter(Class<?> enumClass) {
+        return s -> StringUtils.isBlank(s) ? null : Enum.valueOf((Class<Enum>) enumClass, s.trim());
+    }
+
+    private static <T extends Number> void registerNumber(Class<T> numberClass, Function<Number, T> fromNumber,
+                                                          Function<String, T> fromString) {
+        for (Class<?> source : new Class<?>[]{Byte.class, Short.class, Integer.class, Long.class,
+                Float.class, Double.class, BigInteger.class, BigDecimal.class}) {
+            if (!source.equals(numberClass)) {
+                CONVERTERS.computeIfAbsent(source, k -> new ConcurrentHashMap<>(16))
+                        .put(numberClass, (TypeConverter<Number, T>) fromNumber::apply);
+            }
+        }
+        register(String.class, numberClass, s -> StringUtils.isBlank(s) ? null : fromString.apply(s.trim()));
+    }
+
+    /**
+     * register conversions between the class and every time class registered before through {@link Instant}
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void registerInstant(Class<T> clazz, Function<T, Instant> toInstant,
+                                            Function<Instant, T> fromInstant) {
+        InstantCodec added = new InstantCodec((Function<Object, Instant>) toInstant,
+                (Function<Instant, Object>) fromInstant);
+        INSTANT_CODECS.forEach((other, codec) -> {
+            if (!other.equals(clazz)) {
+                register((Class<Object>) clazz, (Class<Object>) other,
+                        t -> codec.fromInstant.apply(added.toInstant.apply(t)));
+                register((Class<Object>) other, (Class<Object>) clazz,
+                        o -> added.fromInstant.apply(codec.toInstant.apply(o)));
+            }
+        });
+        INSTANT_CODECS.put(clazz, added);
+    }
+
+    private static int toIntExact(Number number, int min, int max) {
+        long value = toLongExact(number);
+        if (value < min || value > max) {
+            throw new ArithmeticException(String.format("%s out of range [%s, %s]", number, min, max));
+        }
+        return (int) value;
+    }
+
+    private static long toLongExact(Number number) {
+        if (number instanceof Byte || number instanceof Short || number instanceof Integer || number instanceof Long) {
+            return number.longValue();
+        }
+        if (number instanceof BigInteger) {
+            return ((BigInteger) number).longValueExact();
+        }
+        return toBigDecimal(number).longValueExact();
+    }
+
+    private static float toFloat(Number number) {
+        float value = number.floatValue();
+        if (Float.isInfinite(value) && !isInfinite(number)) {
+            throw new ArithmeticException(String.format("%s out of float range", number));
+        }
+        return value;
+    }
+
+    private static double toDouble(Number number) {
+        double value = number.doubleValue();
+        if (Double.isInfinite(value) && !isInfinite(number)) {
+            throw new ArithmeticException(String.format("%s out of double range", number));
+        }
+        return value;
+    }
+
+    private static boolean isInfinite(Number number) {
+        return (number instanceof Double || number instanceof Float) && Double.isInfinite(number.doubleValue());
+    }
+
+    private static BigInteger toBigInteger(Number number) {
+        if (number instanceof Byte || number instanceof Short || number instanceof Integer || number instanceof Long) {
+            return BigInteger.valueOf(number.longValue());
+        }
+        return toBigDecimal(number).toBigIntegerExact();
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof BigInteger) {
+            return new BigDecimal((BigInteger) number);
+        }
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        }
+        if (number instanceof Double || number instanceof Float) {
+            if (!Double.isFinite(number.doubleValue())) {
+                throw new ArithmeticException(String.format("%s is not a finite number", number));
+            }
+            return BigDecimal.valueOf(number.doubleValue());
+        }
+        return BigDecimal.valueOf(number.longValue());
+    }
+
+    private static final class InstantCodec {
+
+        private final Function<Object, Instant> toInstant;
+
+        private final Function<Instant, Object> fromInstant;
+
+        private InstantCodec(Function<Object, Instant> toInstant, Function<Instant, Object> fromInstant) {
+            this.toInstant = toInstant;
+            this.fromInstant = fromInstant;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.bean;
+
+/**
+ * cached mapper of a class pair prepared by {@link BeanUtils#warmUp(java.util.Collection, java.util.concurrent.Executor,
+ * WarmUpTarget...)}, each with the {@link ClassPair#getSpec() spec} of the pair
+ * @author Jackie
+ * @version $id: WarmUpTarget.java v 0.1 2021-10-25 10:10 Jackie Exp $$
+ * @since 1.0.3
+ */
+public enum WarmUpTarget {
+
+    /**
+     * shallow generated copier of {@link BeanUtils#copyPropertiesByBeanCopier(Object, Class, MappingSpec)}
+     */
+    BEAN_COPIER,
+
+    /**
+     * deep generated copier of {@link BeanUtils#deepCopyPropertiesByBeanCopier(Object, Class, MappingSpec)},
+     * used by {@link BaseBean#convert(Class)} for flat configs
+     */
+    DEEP_BEAN_COPIER,
+
+    /**
+     * Orika MapperFacade of {@link BeanUtils#copyProperties(Object, Class, java.util.Map, java.util.List)} built with
+     * the renames and excludes of the spec. The facade is cached per class pair with the config of its first use,
+     * so only warm it up for pairs always copied with that config
+     */
+    MAPPER_FACADE
+}
@@ -16,4 +16,8 @@ public class ExportException extends RuntimeException{
     public ExportException(String message) {
         super(message);
     }
+
+    public ExportException(String message,Throwable throwable) {
+        super(message,throwable);
+    }
 }
@@ -0,0 +1,212 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.csv;
+
+import com.github.jackieonway.util.export.ExportException;
+import com.github.jackieonway.util.export.excel.ExcelColumn;
+import com.github.jackieonway.util.export.excel.ExcelField;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormat;
+import java.text.ParsePosition;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * <p>csv column of an {@link ExcelColumn}, the formatter and the parser of the field type and the
+ * {@link ExcelField#format()} are resolved once per export or import.
+ * <p>numbers use the format as a {@link DecimalFormat} pattern, a format that is not a valid pattern, e.g. an excel
+ * only format, is ignored. Integers are never formatted, as in excel. Dates translate the excel format code to a
+ * {@link DateTimeFormatter} pattern by {@link ExcelDatePattern}, a code without a pattern or with time fields on
+ * a {@link LocalDate} fails when the columns are compiled. Without a format numbers are written plain, without
+ * exponent, and dates as ISO-8601.
+ * <p>not thread safe, the decimal formats are shared by the rows of one export or import.
+ * @author Jackie
+ * @version $id: CsvColumn.java v 0.1 2021-10-21 09:50 Jackie Exp $$
+ * @since 1.0.3
+ */
+final class CsvColumn {
+
+    /**
+     * formats a non null value
+     */
+    interface ValueFormatter {
+        String format(Object value);
+    }
+
+    /**
+     * parses a non empty text as the field type
+     */
+    interface ValueParser {
+        Object parse(String text);
+    }
+
+    private static final ValueFormatter TO_STRING = Object::toString;
+
+    private final ExcelColumn column;
+
+    private final ValueFormatter formatter;
+
+    private final ValueParser parser;
+
+    private CsvColumn(ExcelColumn column, ValueFormatter formatter, ValueParser parser) {
+        this.column = column;
+        this.formatter = formatter;
+        this.parser = parser;
+    }
+
+    /**
+     * compile the columns, in the order of the index
+     * @param columns columns of the class
+     * @return csv columns
+     * @throws ExportException if a date format does not fit its field
+     */
+    static CsvColumn[] compile(List<ExcelColumn> columns) {
+        CsvColumn[] csvColumns = new CsvColumn[columns.size()];
+        for (int i = 0; i < csvColumns.length; i++) {
+            csvColumns[i] = of(columns.get(i));
+        }
+        return csvColumns;
+    }
+
+    private static CsvColumn of(ExcelColumn column) {
+        Class<?> type = column.getType();
+        String format = column.getFormat();
+        if (int.class.equals(type) || Integer.class.equals(type)) {
+            return new CsvColumn(column, TO_STRING, text -> Integer.valueOf(text.trim()));
+        }
+        if (long.class.equals(type) || Long.class.equals(type)) {
+            return new CsvColumn(column, TO_STRING, text -> Long.valueOf(text.trim()));
+        }
+        if (short.class.equals(type) || Short.class.equals(type)) {
+            return new CsvColumn(column, TO_STRING, text -> Short.valueOf(text.trim()));
+        }
+        if (boolean.class.equals(type) || Boolean.class.equals(type)) {
+            return new CsvColumn(column, TO_STRING, text -> Boolean.valueOf(text.trim()));
+        }
+        if (double.class.equals(type) || Double.class.equals(type)) {
+            DecimalFormat decimalFormat = decimalFormat(format);
+            return decimalFormat == null
+                    ? new CsvColumn(column, value -> plain((Double) value), text -> Double.valueOf(text.trim()))
+                    : new CsvColumn(column, decimalFormat::format,
+                    text -> parseNumber(decimalFormat, text).doubleValue());
+        }
+        if (float.class.equals(type) || Float.class.equals(type)) {
+            DecimalFormat decimalFormat = decimalFormat(format);
+            return decimalFormat == null
+                    ? new CsvColumn(column, value -> plain((Float) value), text -> Float.valueOf(text.trim()))
+                    : new CsvColumn(column, decimalFormat::format,
+                    text -> parseNumber(decimalFormat, text).floatValue());
+        }
+        if (BigDecimal.class.equals(type)) {
+            DecimalFormat decimalFormat = decimalFormat(format);
+            if (decimalFormat == null) {
+                return new CsvColumn(column, value -> ((BigDecimal) value).toPlainString(),
+                        text -> new BigDecimal(text.trim()));
+            }
+            decimalFormat.setParseBigDecimal(true);
+            return new CsvColumn(column, decimalFormat::format, text -> parseNumber(decimalFormat, text));
+        }
+        if (LocalDate.class.equals(type)) {
+            DateTimeFormatter dateTimeFormatter = dateTimeFormatter(column, DateTimeFormatter.ISO_LOCAL_DATE);
+            return new CsvColumn(column, value -> dateTimeFormatter.format((TemporalAccessor) value),
+                    text -> LocalDate.parse(text.trim(), dateTimeFormatter));
+        }
+        if (LocalDateTime.class.equals(type)) {
+            DateTimeFormatter dateTimeFormatter = dateTimeFormatter(column, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            return new CsvColumn(column, value -> dateTimeFormatter.format((TemporalAccessor) value),
+                    text -> parseDateTime(dateTimeFormatter, text.trim()));
+        }
+        if (Date.class.equals(type)) {
+            DateTimeFormatter dateTimeFormatter = dateTimeFormatter(column, DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+                    .withZone(ZoneId.systemDefault());
+            return new CsvColumn(column,
+                    value -> dateTimeFormatter.format(Instant.ofEpochMilli(((Date) value).getTime())),
+                    text -> Date.from(parseDateTime(dateTimeFormatter, text.trim())
+                            .atZone(ZoneId.systemDefault()).toInstant()));
+        }
+        return new CsvColumn(column, TO_STRING, text -> text);
+    }
+
+    /**
+     * shortest digits of the double without exponent, e.g. 12345678 instead of 1.2345678E7 and 2 instead of 2.0,
+     * NaN and Infinity as is
+     */
+    private static String plain(Double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? value.toString()
+                : BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    private static String plain(Float value) {
+        return Float.isNaN(value) || Float.isInfinite(value) ? value.toString()
+                : new BigDecimal(value.toString()).stripTrailingZeros().toPlainString();
+    }
+
+    private static DecimalFormat decimalFormat(String format) {
+        if (format.isEmpty()) {
+            return null;
+        }
+        try {
+            return new DecimalFormat(format);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static DateTimeFormatter dateTimeFormatter(ExcelColumn column, DateTimeFormatter defaultFormatter) {
+        String format = column.getFormat();
+        if (format.isEmpty()) {
+            return defaultFormatter;
+        }
+        ExcelDatePattern pattern;
+        try {
+            pattern = ExcelDatePattern.of(format);
+        } catch (IllegalArgumentException e) {
+            throw new ExportException(String.format("format [%s] of field [%s] is not a date format",
+                    format, column.getField().getName()), e);
+        }
+        if (pattern.hasTime() && LocalDate.class.equals(column.getType())) {
+            throw new ExportException(String.format("format [%s] of LocalDate field [%s] has time fields",
+                    format, column.getField().getName()));
+        }
+        return DateTimeFormatter.ofPattern(pattern.getPattern());
+    }
+
+    private static Number parseNumber(DecimalFormat decimalFormat, String text) {
+        String trimmed = text.trim();
+        ParsePosition position = new ParsePosition(0);
+        Number number = decimalFormat.parse(trimmed, position);
+        if (number == null || position.getIndex() != trimmed.length()) {
+            throw new NumberFormatException("can not parse \"" + text + "\" as " + decimalFormat.toPattern());
+        }
+        return number;
+    }
+
+    /**
+     * date time of the text, a date only format parses the start of the day
+     */
+    private static LocalDateTime parseDateTime(DateTimeFormatter dateTimeFormatter, String text) {
+        TemporalAccessor parsed = dateTimeFormatter.parseBest(text, LocalDateTime::from, LocalDate::from);
+        return parsed instanceof LocalDate ? ((LocalDate) parsed).atStartOfDay() : (LocalDateTime) parsed;
+    }
+
+    ExcelColumn getColumn() {
+        return column;
+    }
+
+    String format(Object value) {
+        return formatter.format(value);
+    }
+
+    Object parse(String text) {
+        return parser.parse(text);
+    }
+}
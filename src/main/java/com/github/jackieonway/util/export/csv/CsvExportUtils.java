@@ -0,0 +1,168 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.csv;
+
+import com.github.jackieonway.util.export.ExportException;
+import com.github.jackieonway.util.export.excel.ExcelFile;
+import com.github.jackieonway.util.export.excel.ExcelTools;
+
+import java.io.*;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * <p>export the {@link ExcelFile} classes as csv or tsv without poi, the columns are the
+ * {@link com.github.jackieonway.util.export.excel.ExcelField} of the class in the order of the
+ * {@link com.github.jackieonway.util.export.excel.ExcelIndex}, the header row holds the field names.
+ * <p>values containing the delimiter, a quote or a line break are quoted as in RFC 4180, null values are empty.
+ * <blockquote><pre>
+ *     CsvExportUtils.export(outputStream, users, User.class, CsvOptions.CSV);
+ * </pre></blockquote>
+ * @author Jackie
+ * @version $id: CsvExportUtils.java v 0.1 2021-10-21 10:20 Jackie Exp $$
+ * @since 1.0.3
+ */
+public enum CsvExportUtils {
+    /**
+     * CsvExportUtils instance
+     */
+    INSTANCE;
+
+    private static final char QUOTE = '"';
+
+    private static final char BOM = '\uFEFF';
+
+    /**
+     * export csv
+     * @param outputStream export outputStream, flushed but not closed
+     * @param collection export collection
+     * @param clazz export class
+     * @param options csv options
+     */
+    public static <E> void export(OutputStream outputStream, Collection<? extends E> collection, Class<E> clazz,
+                                  CsvOptions options){
+        if (Objects.isNull(collection)){
+            throw new ExportException("export data is null");
+        }
+        export(outputStream, collection.iterator(), clazz, options);
+    }
+
+    /**
+     * export csv from a stream, the stream is closed after the export
+     * @param outputStream export outputStream, flushed but not closed
+     * @param stream export data
+     * @param clazz export class
+     * @param options csv options
+     */
+    public static <E> void export(OutputStream outputStream, Stream<? extends E> stream, Class<E> clazz,
+                                  CsvOptions options){
+        if (Objects.isNull(stream)){
+            throw new ExportException("export data is null");
+        }
+        try (Stream<? extends E> data = stream) {
+            export(outputStream, data.iterator(), clazz, options);
+        }
+    }
+
+    /**
+     * export csv, rows are written as the iterator returns them, encoded with the charset of the options
+     * @param outputStream export outputStream, flushed but not closed
+     * @param iterator export data
+     * @param clazz export class
+     * @param options csv options
+     */
+    public static <E> void export(OutputStream outputStream, Iterator<? extends E> iterator, Class<E> clazz,
+                                  CsvOptions options){
+        if (Objects.isNull(outputStream)){
+            throw new ExportException("export outputStream is null");
+        }
+        Objects.requireNonNull(options);
+        export(new OutputStreamWriter(outputStream, options.getCharset()), iterator, clazz, options);
+    }
+
+    /**
+     * export csv, rows are written as the iterator returns them
+     * @param writer export writer, flushed but not closed
+     * @param iterator export data
+     * @param clazz export class
+     * @param options csv options, the charset is not used
+     */
+    public static <E> void export(Writer writer, Iterator<? extends E> iterator, Class<E> clazz,
+                                  CsvOptions options){
+        if (!clazz.isAnnotationPresent(ExcelFile.class)){
+            throw new ExportException(String.format("class [%s] can  not find annotation ExcelFile",clazz));
+        }
+        if (Objects.isNull(writer)){
+            throw new ExportException("export writer is null");
+        }
+        if (Objects.isNull(iterator)){
+            throw new ExportException("export data is null");
+        }
+        Objects.requireNonNull(options);
+        final CsvColumn[] columns = CsvColumn.compile(ExcelTools.getColumns(clazz));
+        final char delimiter = options.getDelimiter();
+        final String lineSeparator = options.getLineSeparator();
+        try {
+            Writer out = new BufferedWriter(writer, options.getBufferSize());
+            if (options.isBom()) {
+                out.write(BOM);
+            }
+            if (options.isHeader()) {
+                for (int i = 0; i < columns.length; i++) {
+                    if (i > 0) {
+                        out.write(delimiter);
+                    }
+                    writeValue(out, columns[i].getColumn().getTitle(), delimiter);
+                }
+                out.write(lineSeparator);
+            }
+            while (iterator.hasNext()) {
+                E data = iterator.next();
+                for (int i = 0; i < columns.length; i++) {
+                    if (i > 0) {
+                        out.write(delimiter);
+                    }
+                    Object value = columns[i].getColumn().getValue(data);
+                    if (Objects.nonNull(value)) {
+                        writeValue(out, columns[i].format(value), delimiter);
+                    }
+                }
+                out.write(lineSeparator);
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new ExportException(e.getMessage(), e);
+        }
+    }
+
+    private static void writeValue(Writer out, String value, char delimiter) throws IOException {
+        if (!needsQuote(value, delimiter)) {
+            out.write(value);
+            return;
+        }
+        out.write(QUOTE);
+        int start = 0;
+        int quote;
+        while ((quote = value.indexOf(QUOTE, start)) >= 0) {
+            out.write(value, start, quote + 1 - start);
+            out.write(QUOTE);
+            start = quote + 1;
+        }
+        out.write(value, start, value.length() - start);
+        out.write(QUOTE);
+    }
+
+    private static boolean needsQuote(String value, char delimiter) {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c == delimiter || c == QUOTE || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
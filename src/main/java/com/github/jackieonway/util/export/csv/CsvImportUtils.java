@@ -0,0 +1,109 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.csv;
+
+import com.github.jackieonway.util.export.ExportException;
+import com.github.jackieonway.util.export.ImportException;
+import com.github.jackieonway.util.export.excel.ExcelFile;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * <p>import csv or tsv written by {@link CsvExportUtils} or any other tool into {@link ExcelFile} classes without
+ * poi, see {@link CsvReader} for the matching of the columns.
+ * <blockquote><pre>
+ *     List&lt;User&gt; users = CsvImportUtils.importCsv(inputStream, User.class, CsvOptions.CSV);
+ * </pre></blockquote>
+ * @author Jackie
+ * @version $id: CsvImportUtils.java v 0.1 2021-10-21 11:40 Jackie Exp $$
+ * @since 1.0.3
+ */
+public enum CsvImportUtils {
+
+    /**
+     * CsvImportUtils instance
+     */
+    INSTANCE;
+
+    /**
+     * import csv
+     * @param inputStream csv content, decoded with the charset of the options, not closed
+     * @param clazz import class
+     * @param options csv options
+     * @return rows
+     * @throws ImportException a row can not be read
+     */
+    public static <E> List<E> importCsv(InputStream inputStream, Class<E> clazz, CsvOptions options){
+        return importCsv(toReader(inputStream, options), clazz, options);
+    }
+
+    /**
+     * import csv
+     * @param reader csv content, not closed
+     * @param clazz import class
+     * @param options csv options, the charset is not used
+     * @return rows
+     * @throws ImportException a row can not be read
+     */
+    public static <E> List<E> importCsv(Reader reader, Class<E> clazz, CsvOptions options){
+        List<E> list = new ArrayList<>();
+        CsvReader<E> csvReader = openReader(reader, clazz, options);
+        while (csvReader.hasNext()) {
+            list.add(csvReader.next());
+        }
+        return list;
+    }
+
+    /**
+     * import csv as a lazy stream, rows are read as the stream is consumed
+     * @param inputStream csv content, decoded with the charset of the options, not closed
+     * @param clazz import class
+     * @param options csv options
+     * @return sequential stream of the rows
+     * @throws ImportException a row can not be read
+     */
+    public static <E> Stream<E> importStream(InputStream inputStream, Class<E> clazz, CsvOptions options){
+        return importStream(toReader(inputStream, options), clazz, options);
+    }
+
+    /**
+     * import csv as a lazy stream, rows are read as the stream is consumed
+     * @param reader csv content, not closed
+     * @param clazz import class
+     * @param options csv options, the charset is not used
+     * @return sequential stream of the rows
+     * @throws ImportException a row can not be read
+     */
+    public static <E> Stream<E> importStream(Reader reader, Class<E> clazz, CsvOptions options){
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(openReader(reader, clazz, options),
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    private static Reader toReader(InputStream inputStream, CsvOptions options) {
+        if (Objects.isNull(inputStream)){
+            throw new ExportException("import inputStream is null");
+        }
+        return new InputStreamReader(inputStream, Objects.requireNonNull(options).getCharset());
+    }
+
+    private static <E> CsvReader<E> openReader(Reader reader, Class<E> clazz, CsvOptions options) {
+        if (!clazz.isAnnotationPresent(ExcelFile.class)){
+            throw new ExportException(String.format("class [%s] can  not find annotation ExcelFile",clazz));
+        }
+        if (Objects.isNull(reader)){
+            throw new ExportException("import reader is null");
+        }
+        return new CsvReader<>(reader, clazz, Objects.requireNonNull(options));
+    }
+}
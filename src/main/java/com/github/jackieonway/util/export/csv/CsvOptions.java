@@ -0,0 +1,177 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.csv;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * <p>options of a csv or tsv export and import
+ * <blockquote><pre>
+ *     CsvOptions options = CsvOptions.builder()
+ *             .delimiter(';')
+ *             .charset(Charset.forName("GBK"))
+ *             .build();
+ *     CsvExportUtils.export(outputStream, users, User.class, options);
+ * </pre></blockquote>
+ * @author Jackie
+ * @version $id: CsvOptions.java v 0.1 2021-10-21 09:30 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class CsvOptions {
+
+    /**
+     * comma separated, utf-8, header row, CRLF line separator
+     */
+    public static final CsvOptions CSV = builder().build();
+
+    /**
+     * tab separated, utf-8, header row, CRLF line separator
+     */
+    public static final CsvOptions TSV = builder().delimiter('\t').build();
+
+    private final char delimiter;
+
+    private final Charset charset;
+
+    private final boolean header;
+
+    private final boolean bom;
+
+    private final String lineSeparator;
+
+    private final int bufferSize;
+
+    private CsvOptions(CsvOptionsBuilder builder) {
+        this.delimiter = builder.delimiter;
+        this.charset = builder.charset;
+        this.header = builder.header;
+        this.bom = builder.bom;
+        this.lineSeparator = builder.lineSeparator;
+        this.bufferSize = builder.bufferSize;
+    }
+
+    public static CsvOptionsBuilder builder() {
+        return new CsvOptionsBuilder();
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * charset of the streams, not used for readers and writers
+     * @return charset
+     */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * the first row holds the titles of the columns, the import matches the columns by title, otherwise by position
+     * @return header
+     */
+    public boolean isHeader() {
+        return header;
+    }
+
+    /**
+     * write a byte order mark before the first row, so excel opens utf-8 files with the right charset, the import
+     * skips a byte order mark in any case
+     * @return bom
+     */
+    public boolean isBom() {
+        return bom;
+    }
+
+    public String getLineSeparator() {
+        return lineSeparator;
+    }
+
+    /**
+     * chars buffered before they are written or after they are read
+     * @return buffer size
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public static class CsvOptionsBuilder {
+
+        private char delimiter = ',';
+
+        private Charset charset = StandardCharsets.UTF_8;
+
+        private boolean header = true;
+
+        private boolean bom;
+
+        private String lineSeparator = "\r\n";
+
+        private int bufferSize = 64 * 1024;
+
+        CsvOptionsBuilder() {
+        }
+
+        /**
+         * delimiter of the values
+         * @param delimiter delimiter, not a quote or a line break
+         * @return this builder
+         */
+        public CsvOptionsBuilder delimiter(char delimiter) {
+            if (delimiter == '"' || delimiter == '\r' || delimiter == '\n') {
+                throw new IllegalArgumentException("illegal delimiter: " + delimiter);
+            }
+            this.delimiter = delimiter;
+            return this;
+        }
+
+        public CsvOptionsBuilder charset(Charset charset) {
+            this.charset = Objects.requireNonNull(charset, "charset can not be null");
+            return this;
+        }
+
+        public CsvOptionsBuilder header(boolean header) {
+            this.header = header;
+            return this;
+        }
+
+        public CsvOptionsBuilder bom(boolean bom) {
+            this.bom = bom;
+            return this;
+        }
+
+        /**
+         * line separator of the export, the import accepts CRLF, LF and CR
+         * @param lineSeparator line separator
+         * @return this builder
+         */
+        public CsvOptionsBuilder lineSeparator(String lineSeparator) {
+            if (!"\r\n".equals(lineSeparator) && !"\n".equals(lineSeparator) && !"\r".equals(lineSeparator)) {
+                throw new IllegalArgumentException("illegal line separator");
+            }
+            this.lineSeparator = lineSeparator;
+            return this;
+        }
+
+        /**
+         * chars buffered
+         * @param bufferSize buffer size, must be positive
+         * @return this builder
+         */
+        public CsvOptionsBuilder bufferSize(int bufferSize) {
+            if (bufferSize < 1) {
+                throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        public CsvOptions build() {
+            return new CsvOptions(this);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.csv;
+
+import com.github.jackieonway.util.export.ImportException;
+import com.github.jackieonway.util.export.excel.ExcelTools;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * <p>reads the records of a csv one by one into beans, quoted values may contain the delimiter, doubled quotes and
+ * line breaks as in RFC 4180. Blank lines are skipped, empty values leave the field unset.
+ * <p>with a header row the values are matched to the columns by title and unknown titles are ignored, otherwise
+ * the values are the columns in the order of the index.
+ * <p>not thread safe, the reader is not closed.
+ * @param <E> bean type
+ * @author Jackie
+ * @version $id: CsvReader.java v 0.1 2021-10-21 11:00 Jackie Exp $$
+ * @since 1.0.3
+ */
+final class CsvReader<E> implements Iterator<E> {
+
+    private static final char QUOTE = '"';
+
+    private static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+
+    private final Constructor<E> constructor;
+
+    private final CsvColumn[] columns;
+
+    private final char delimiter;
+
+    private final char[] buffer;
+
+    private final List<String> values = new ArrayList<>();
+
+    private final StringBuilder value = new StringBuilder();
+
+    private int position;
+
+    private int limit;
+
+    private boolean started;
+
+    private CsvColumn[] positions;
+
+    private long record;
+
+    private E next;
+
+    CsvReader(Reader reader, Class<E> clazz, CsvOptions options) {
+        this.reader = reader;
+        this.columns = CsvColumn.compile(ExcelTools.getColumns(clazz));
+        this.delimiter = options.getDelimiter();
+        this.buffer = new char[options.getBufferSize()];
+        try {
+            this.constructor = clazz.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new ImportException(e.getMessage(), e);
+        }
+        if (!options.isHeader()) {
+            this.positions = columns;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (Objects.nonNull(next)) {
+            return true;
+        }
+        if (Objects.isNull(positions)) {
+            positions = readHeader();
+        }
+        if (!readRecord()) {
+            return false;
+        }
+        next = toBean();
+        return true;
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        E bean = next;
+        next = null;
+        return bean;
+    }
+
+    private CsvColumn[] readHeader() {
+        if (!readRecord()) {
+            return new CsvColumn[0];
+        }
+        CsvColumn[] header = new CsvColumn[values.size()];
+        for (int i = 0; i < header.length; i++) {
+            String title = values.get(i).trim();
+            for (CsvColumn column : columns) {
+                if (column.getColumn().getTitle().equals(title)) {
+                    header[i] = column;
+                    break;
+                }
+            }
+        }
+        return header;
+    }
+
+    private E toBean() {
+        E instance;
+        try {
+            instance = constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ImportException(e.getMessage(), e);
+        }
+        int size = Math.min(values.size(), positions.length);
+        for (int i = 0; i < size; i++) {
+            String text = values.get(i);
+            if (Objects.isNull(positions[i]) || text.isEmpty()) {
+                continue;
+            }
+            try {
+                positions[i].getColumn().setValue(instance, positions[i].parse(text));
+            } catch (RuntimeException e) {
+                throw new ImportException(String.format("row %d column %d [%s]: %s", record, i, text,
+                        e.getMessage()), e);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * next non blank record into the values
+     * @return false at the end of the input
+     */
+    private boolean readRecord() {
+        try {
+            while (parseRecord()) {
+                record++;
+                if (values.size() > 1 || !values.get(0).isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new ImportException(e.getMessage(), e);
+        }
+    }
+
+    private boolean parseRecord() throws IOException {
+        values.clear();
+        value.setLength(0);
+        int c = read();
+        if (c < 0) {
+            return false;
+        }
+        boolean quoted = false;
+        while (c >= 0) {
+            if (quoted) {
+                if (c == QUOTE) {
+                    if (peek() == QUOTE) {
+                        position++;
+                        value.append(QUOTE);
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    value.append((char) c);
+                }
+            } else if (c == QUOTE && value.length() == 0) {
+                quoted = true;
+            } else if (c == delimiter) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c == '\r') {
+                if (peek() == '\n') {
+                    position++;
+                }
+                break;
+            } else {
+                value.append((char) c);
+            }
+            c = read();
+        }
+        if (quoted) {
+            throw new ImportException(String.format("row %d: unterminated quoted value", record + 1));
+        }
+        values.add(value.toString());
+        return true;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read;
+        do {
+            read = reader.read(buffer, 0, buffer.length);
+        } while (read == 0);
+        if (read < 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        if (!started) {
+            started = true;
+            if (buffer[0] == BOM) {
+                position = 1;
+                return limit > 1 || fill();
+            }
+        }
+        return true;
+    }
+}
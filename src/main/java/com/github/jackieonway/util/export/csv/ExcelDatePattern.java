@@ -0,0 +1,259 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.csv;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * <p>{@link DateTimeFormatter} pattern of an excel date format code, e.g. {@code yyyy-mm-dd h:mm AM/PM} is
+ * {@code yyyy-MM-dd h:mm a}. Codes are case insensitive as in excel, {@code m} is the minute after an hour or
+ * before a second and the month otherwise, quoted and escaped text is kept, colors and locales in brackets are
+ * skipped. Dates are positive numbers, so only the first section is used, e.g. of {@code yyyy-mm-dd;@}.
+ * <p>elapsed time such as {@code [h]}, conditions, number placeholders and unknown letters have no pattern and
+ * are rejected.
+ * @author Jackie
+ * @version $id: ExcelDatePattern.java v 0.1 2021-10-27 10:40 Jackie Exp $$
+ * @since 1.0.3
+ */
+final class ExcelDatePattern {
+
+    private static final String AM_PM = "am/pm";
+
+    private static final String A_P = "a/p";
+
+    private static final String SPECIAL_CHARACTERS = "'[]#{}";
+
+    /**
+     * java pattern
+     */
+    private final String pattern;
+
+    private final boolean hasDate;
+
+    private final boolean hasTime;
+
+    private ExcelDatePattern(String pattern, boolean hasDate, boolean hasTime) {
+        this.pattern = pattern;
+        this.hasDate = hasDate;
+        this.hasTime = hasTime;
+    }
+
+    /**
+     * translate the excel format code
+     * @param format excel format code
+     * @return pattern
+     * @throws IllegalArgumentException if the code has no pattern
+     */
+    static ExcelDatePattern of(String format) {
+        List<Token> tokens = tokenize(format);
+        boolean twelveHours = false;
+        for (Token token : tokens) {
+            twelveHours |= token.letter == 'a';
+        }
+        StringBuilder pattern = new StringBuilder(format.length() + 8);
+        boolean hasDate = false;
+        boolean hasTime = false;
+        for (int i = 0; i < tokens.size(); i++) {
+            Token token = tokens.get(i);
+            switch (token.letter) {
+                case 0:
+                    appendLiteral(pattern, token.literal);
+                    break;
+                case 'y':
+                case 'e':
+                    pattern.append(token.letter == 'y' && token.count <= 2 ? "yy" : "yyyy");
+                    hasDate = true;
+                    break;
+                case 'm':
+                    if (token.count <= 2 && isMinute(tokens, i)) {
+                        repeat(pattern, 'm', token.count);
+                        hasTime = true;
+                    } else {
+                        repeat(pattern, 'M', token.count == 5 ? 5 : Math.min(token.count, 4));
+                        hasDate = true;
+                    }
+                    break;
+                case 'd':
+                    if (token.count <= 2) {
+                        repeat(pattern, 'd', token.count);
+                    } else {
+                        repeat(pattern, 'E', token.count == 3 ? 3 : 4);
+                    }
+                    hasDate = true;
+                    break;
+                case 'h':
+                    repeat(pattern, twelveHours ? 'h' : 'H', Math.min(token.count, 2));
+                    hasTime = true;
+                    break;
+                case 's':
+                    repeat(pattern, 's', Math.min(token.count, 2));
+                    hasTime = true;
+                    break;
+                case '0':
+                    pattern.append('.');
+                    repeat(pattern, 'S', token.count);
+                    hasTime = true;
+                    break;
+                default:
+                    pattern.append('a');
+                    hasTime = true;
+                    break;
+            }
+        }
+        return new ExcelDatePattern(pattern.toString(), hasDate, hasTime);
+    }
+
+    private static List<Token> tokenize(String format) {
+        List<Token> tokens = new ArrayList<>();
+        String lower = format.toLowerCase(Locale.ROOT);
+        int i = 0;
+        while (i < format.length()) {
+            char c = lower.charAt(i);
+            if (c == ';') {
+                break;
+            }
+            if (lower.startsWith(AM_PM, i) || lower.startsWith(A_P, i)) {
+                tokens.add(new Token('a', 1, null));
+                i += lower.startsWith(AM_PM, i) ? AM_PM.length() : A_P.length();
+            } else if (c == 'y' || c == 'e' || c == 'm' || c == 'd' || c == 'h' || c == 's') {
+                int end = i;
+                while (end < lower.length() && lower.charAt(end) == c) {
+                    end++;
+                }
+                tokens.add(new Token(c, end - i, null));
+                i = end;
+            } else if (c == '.' && i + 1 < lower.length() && lower.charAt(i + 1) == '0'
+                    && !tokens.isEmpty() && tokens.get(tokens.size() - 1).letter == 's') {
+                int end = i + 1;
+                while (end < lower.length() && lower.charAt(end) == '0') {
+                    end++;
+                }
+                tokens.add(new Token('0', Math.min(end - i - 1, 3), null));
+                i = end;
+            } else if (c == '"') {
+                int end = format.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IllegalArgumentException("unclosed quote in date format: " + format);
+                }
+                tokens.add(new Token((char) 0, 0, format.substring(i + 1, end)));
+                i = end + 1;
+            } else if (c == '\\' || c == '_') {
+                if (i + 1 == format.length()) {
+                    throw new IllegalArgumentException("dangling " + c + " in date format: " + format);
+                }
+                //_ pads the width of the next character
+                tokens.add(new Token((char) 0, 0, c == '\\' ? format.substring(i + 1, i + 2) : " "));
+                i += 2;
+            } else if (c == '*') {
+                //fills the cell with the next character
+                i += 2;
+            } else if (c == '[') {
+                int end = format.indexOf(']', i);
+                if (end < 0 || !isColorOrLocale(lower.substring(i + 1, end))) {
+                    throw new IllegalArgumentException("unsupported section in date format: " + format);
+                }
+                i = end + 1;
+            } else if (Character.isLetter(c) || c == '@' || c == '0' || c == '#' || c == '?'
+                    || c == '%') {
+                throw new IllegalArgumentException("unsupported '" + format.charAt(i) + "' in date format: "
+                        + format);
+            } else {
+                tokens.add(new Token((char) 0, 0, format.substring(i, i + 1)));
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * an m of one or two letters is the minute after an hour or before a second
+     */
+    private static boolean isMinute(List<Token> tokens, int index) {
+        for (int i = index - 1; i >= 0; i--) {
+            char letter = tokens.get(i).letter;
+            if (letter != 0) {
+                if (letter == 'h') {
+                    return true;
+                }
+                break;
+            }
+        }
+        for (int i = index + 1; i < tokens.size(); i++) {
+            char letter = tokens.get(i).letter;
+            if (letter != 0) {
+                return letter == 's';
+            }
+        }
+        return false;
+    }
+
+    private static boolean isColorOrLocale(String section) {
+        return section.startsWith("$") || section.startsWith("color") || "black".equals(section)
+                || "white".equals(section) || "red".equals(section) || "green".equals(section)
+                || "blue".equals(section) || "yellow".equals(section) || "magenta".equals(section)
+                || "cyan".equals(section);
+    }
+
+    private static void appendLiteral(StringBuilder pattern, String literal) {
+        boolean plain = true;
+        for (int i = 0; i < literal.length() && plain; i++) {
+            char c = literal.charAt(i);
+            plain = !Character.isLetter(c) && SPECIAL_CHARACTERS.indexOf(c) < 0;
+        }
+        if (plain) {
+            pattern.append(literal);
+        } else {
+            pattern.append('\'').append(literal.replace("'", "''")).append('\'');
+        }
+    }
+
+    private static void repeat(StringBuilder pattern, char letter, int count) {
+        for (int i = 0; i < count; i++) {
+            pattern.append(letter);
+        }
+    }
+
+    String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * whether the pattern has a year, a month or a day
+     * @return has date
+     */
+    boolean hasDate() {
+        return hasDate;
+    }
+
+    /**
+     * whether the pattern has an hour, a minute, a second or am/pm
+     * @return has time
+     */
+    boolean hasTime() {
+        return hasTime;
+    }
+
+    /**
+     * a run of one excel letter, {@code (char) 0} for a literal, {@code 'a'} for am/pm and {@code '0'} for the
+     * fraction of a second
+     */
+    private static final class Token {
+
+        private final char letter;
+
+        private final int count;
+
+        private final String literal;
+
+        private Token(char letter, int count, String literal) {
+            this.letter = letter;
+            this.count = count;
+            this.literal = literal;
+        }
+    }
+}
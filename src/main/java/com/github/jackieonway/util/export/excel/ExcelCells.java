@@ -0,0 +1,134 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.excel;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * cell writers and readers of the value types, resolved once per column
+ * @author Jackie
+ * @version $id: ExcelCells.java v 0.1 2021-10-19 10:10 Jackie Exp $$
+ * @since 1.0.3
+ */
+final class ExcelCells {
+
+    /**
+     * writes a non null value to a cell
+     */
+    interface CellWriter {
+        void write(Cell cell, Object value);
+    }
+
+    /**
+     * reads the value of a cell as the field type
+     */
+    interface CellReader {
+        Object read(Cell cell);
+    }
+
+    private static final CellWriter TEXT_WRITER = (cell, value) -> cell.setCellValue(value.toString());
+
+    private static final CellWriter NUMBER_WRITER =
+            (cell, value) -> cell.setCellValue(((Number) value).doubleValue());
+
+    private static final CellWriter BOOLEAN_WRITER = (cell, value) -> cell.setCellValue((Boolean) value);
+
+    private static final CellWriter LOCAL_DATE_WRITER = (cell, value) -> cell.setCellValue((LocalDate) value);
+
+    private static final CellWriter LOCAL_DATE_TIME_WRITER =
+            (cell, value) -> cell.setCellValue((LocalDateTime) value);
+
+    private static final CellWriter DATE_WRITER = (cell, value) -> cell.setCellValue((Date) value);
+
+    private static final CellReader INTEGER_READER = cell -> isNumeric(cell)
+            ? Integer.valueOf((int) cell.getNumericCellValue()) : Integer.valueOf(cell.getStringCellValue());
+
+    private static final CellReader LONG_READER = cell -> isNumeric(cell)
+            ? Long.valueOf((long) cell.getNumericCellValue()) : Long.valueOf(cell.getStringCellValue());
+
+    private static final CellReader DOUBLE_READER = cell -> isNumeric(cell)
+            ? Double.valueOf(cell.getNumericCellValue()) : Double.valueOf(cell.getStringCellValue());
+
+    private static final CellReader FLOAT_READER = cell -> isNumeric(cell)
+            ? Float.valueOf((float) cell.getNumericCellValue()) : Float.valueOf(cell.getStringCellValue());
+
+    private static final CellReader BOOLEAN_READER = Cell::getBooleanCellValue;
+
+    private static final CellReader BIG_DECIMAL_READER = cell -> new BigDecimal(cell.getStringCellValue());
+
+    private static final CellReader LOCAL_DATE_READER = cell -> cell.getLocalDateTimeCellValue().toLocalDate();
+
+    private static final CellReader LOCAL_DATE_TIME_READER = Cell::getLocalDateTimeCellValue;
+
+    private static final CellReader DATE_READER = Cell::getDateCellValue;
+
+    private static final CellReader STRING_READER = Cell::getStringCellValue;
+
+    private ExcelCells() {
+    }
+
+    /**
+     * writer of the value type, integers and longs are written as text as they always were
+     * @param valueType value type
+     * @return writer
+     */
+    static CellWriter writer(ExcelValueType valueType) {
+        switch (valueType) {
+            case DOUBLE:
+            case FLOAT:
+                return NUMBER_WRITER;
+            case BOOLEAN:
+                return BOOLEAN_WRITER;
+            case LOCAL_DATE:
+                return LOCAL_DATE_WRITER;
+            case LOCAL_DATE_TIME:
+                return LOCAL_DATE_TIME_WRITER;
+            case DATE:
+                return DATE_WRITER;
+            default:
+                return TEXT_WRITER;
+        }
+    }
+
+    /**
+     * reader of the value type
+     * @param valueType value type
+     * @return reader
+     */
+    static CellReader reader(ExcelValueType valueType) {
+        switch (valueType) {
+            case INTEGER:
+                return INTEGER_READER;
+            case LONG:
+                return LONG_READER;
+            case DOUBLE:
+                return DOUBLE_READER;
+            case FLOAT:
+                return FLOAT_READER;
+            case BOOLEAN:
+                return BOOLEAN_READER;
+            case BIG_DECIMAL:
+                return BIG_DECIMAL_READER;
+            case LOCAL_DATE:
+                return LOCAL_DATE_READER;
+            case LOCAL_DATE_TIME:
+                return LOCAL_DATE_TIME_READER;
+            case DATE:
+                return DATE_READER;
+            default:
+                return STRING_READER;
+        }
+    }
+
+    private static boolean isNumeric(Cell cell) {
+        return cell.getCellType() == CellType.NUMERIC;
+    }
+}
@@ -0,0 +1,200 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.excel;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.util.Objects;
+import java.util.regex.Pattern;
+
+/**
+ * <p>immutable column of an {@link ExcelFile} class, compiled once per class from the {@link ExcelField} and
+ * {@link ExcelIndex} of a field, see {@link ExcelTools#getColumns(Class)}. The field is read and written through
+ * method handles, no map lookup, parsing or reflection is left for a cell.
+ * @author Jackie
+ * @version $id: ExcelColumn.java v 0.1 2021-10-19 09:40 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class ExcelColumn {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final int index;
+
+    private final String title;
+
+    private final int width;
+
+    private final short height;
+
+    private final String fontName;
+
+    private final short fontSize;
+
+    private final short color;
+
+    private final boolean bold;
+
+    private final boolean italic;
+
+    private final String format;
+
+    private final boolean required;
+
+    private final Pattern pattern;
+
+    private final Field field;
+
+    private final ExcelValueType valueType;
+
+    private final MethodHandle getter;
+
+    private final MethodHandle setter;
+
+    ExcelColumn(Field field, ExcelIndex excelIndex, ExcelField excelField) {
+        this.index = excelIndex.index();
+        this.title = excelField.fieldName();
+        this.width = excelField.width();
+        this.height = excelField.height();
+        this.fontName = excelField.fontName();
+        this.fontSize = excelField.fontSize();
+        this.color = excelField.color();
+        this.bold = excelField.bold();
+        this.italic = excelField.italic();
+        this.format = excelField.format();
+        this.required = excelField.required();
+        this.pattern = excelField.regex().isEmpty() ? null : Pattern.compile(excelField.regex());
+        this.field = field;
+        this.valueType = ExcelValueType.of(field.getType());
+        field.setAccessible(true);
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            this.getter = lookup.unreflectGetter(field).asType(GETTER_TYPE);
+            this.setter = lookup.unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("can not access excel field " + field, e);
+        }
+    }
+
+    /**
+     * value of the column
+     * @param bean bean
+     * @return field value
+     */
+    public Object getValue(Object bean) {
+        try {
+            return (Object) getter.invokeExact(bean);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * set the value of the column
+     * @param bean bean
+     * @param value field value, unboxed for primitive fields
+     */
+    public void setValue(Object bean, Object value) {
+        try {
+            setter.invokeExact(bean, value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * header of the column, {@link ExcelField#fieldName()}
+     * @return title
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public short getHeight() {
+        return height;
+    }
+
+    public String getFontName() {
+        return fontName;
+    }
+
+    public short getFontSize() {
+        return fontSize;
+    }
+
+    public short getColor() {
+        return color;
+    }
+
+    public boolean isBold() {
+        return bold;
+    }
+
+    public boolean isItalic() {
+        return italic;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    /**
+     * {@link ExcelField#regex()}
+     * @return regex, empty for any value
+     */
+    public String getRegex() {
+        return Objects.isNull(pattern) ? "" : pattern.pattern();
+    }
+
+    /**
+     * the text matches the regex of the column
+     * @param text cell text
+     * @return matches, always true without a regex
+     */
+    public boolean matches(String text) {
+        return Objects.isNull(pattern) || pattern.matcher(text).matches();
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public Class<?> getType() {
+        return field.getType();
+    }
+
+    ExcelValueType getValueType() {
+        return valueType;
+    }
+
+    @Override
+    public String toString() {
+        return "ExcelColumn{" +
+                "index=" + index +
+                ", title=" + title +
+                ", field=" + field.getName() +
+                '}';
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.excel;
+
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>options of a streaming xlsx export, rows are flushed to a temp file once they leave the row access window
+ * <blockquote><pre>
+ *     ExcelExportOptions options = ExcelExportOptions.builder()
+ *             .rowAccessWindowSize(500)
+ *             .compressTempFiles(true)
+ *             .build();
+ *     ExcelExportUtils.export(outputStream, userStream, User.class, options);
+ * </pre></blockquote>
+ * <p>with a sheet row limit the rows roll over to new sheets, xlsx sheets are rendered by up to
+ * {@link #getParallelism()} threads at once. Rows come from one iterator, so a sheet is read into memory before it
+ * is rendered: up to parallelism times sheetRowLimit rows are held in the heap, in addition to the row access window
+ * of each sheet, e.g. 4 sheets of 500000 rows hold 2 million beans. Size the sheet row limit to the heap or keep the
+ * parallelism at 1, which streams the rows without buffering.
+ * <blockquote><pre>
+ *     ExcelExportOptions options = ExcelExportOptions.builder()
+ *             .sheetRowLimit(500000)
+ *             .parallelism(4)
+ *             .build();
+ * </pre></blockquote>
+ * @author Jackie
+ * @version $id: ExcelExportOptions.java v 0.1 2021-10-18 10:10 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class ExcelExportOptions {
+
+    /**
+     * window of {@link SXSSFWorkbook#DEFAULT_WINDOW_SIZE} rows, uncompressed temp files, one sheet, one thread
+     */
+    public static final ExcelExportOptions DEFAULT = builder().build();
+
+    private final int rowAccessWindowSize;
+
+    private final boolean compressTempFiles;
+
+    private final int sheetRowLimit;
+
+    private final int parallelism;
+
+    private final Executor executor;
+
+    private ExcelExportOptions(ExcelExportOptionsBuilder builder) {
+        this.rowAccessWindowSize = builder.rowAccessWindowSize;
+        this.compressTempFiles = builder.compressTempFiles;
+        this.sheetRowLimit = builder.sheetRowLimit;
+        this.parallelism = builder.parallelism;
+        this.executor = builder.executor;
+    }
+
+    public static ExcelExportOptionsBuilder builder() {
+        return new ExcelExportOptionsBuilder();
+    }
+
+    /**
+     * rows kept in memory, older rows are flushed to the temp file and can no longer be accessed
+     * @return row access window size
+     */
+    public int getRowAccessWindowSize() {
+        return rowAccessWindowSize;
+    }
+
+    /**
+     * gzip the temp files, smaller temp files for more cpu
+     * @return compress temp files
+     */
+    public boolean isCompressTempFiles() {
+        return compressTempFiles;
+    }
+
+    /**
+     * data rows of a sheet before the export rolls over to a new sheet, capped by the rows of the format,
+     * 0 writes a single sheet
+     * @return sheet row limit
+     */
+    public int getSheetRowLimit() {
+        return sheetRowLimit;
+    }
+
+    /**
+     * xlsx sheets rendered at once, each buffers its rows in its own temp file and holds up to sheetRowLimit rows
+     * in memory until they are rendered, xls is always rendered by the calling thread
+     * @return parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * executor rendering the sheets when the parallelism is greater than 1
+     * @return executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public static class ExcelExportOptionsBuilder {
+
+        private int rowAccessWindowSize = SXSSFWorkbook.DEFAULT_WINDOW_SIZE;
+
+        private boolean compressTempFiles;
+
+        private int sheetRowLimit;
+
+        private int parallelism = 1;
+
+        private Executor executor = ForkJoinPool.commonPool();
+
+        ExcelExportOptionsBuilder() {
+        }
+
+        /**
+         * rows kept in memory
+         * @param rowAccessWindowSize row access window size, must be positive
+         * @return this builder
+         */
+        public ExcelExportOptionsBuilder rowAccessWindowSize(int rowAccessWindowSize) {
+            if (rowAccessWindowSize < 1) {
+                throw new IllegalArgumentException("rowAccessWindowSize must be positive: " + rowAccessWindowSize);
+            }
+            this.rowAccessWindowSize = rowAccessWindowSize;
+            return this;
+        }
+
+        /**
+         * gzip the temp files
+         * @param compressTempFiles compress temp files
+         * @return this builder
+         */
+        public ExcelExportOptionsBuilder compressTempFiles(boolean compressTempFiles) {
+            this.compressTempFiles = compressTempFiles;
+            return this;
+        }
+
+        /**
+         * data rows of a sheet before rolling over to a new sheet
+         * @param sheetRowLimit sheet row limit, 0 writes a single sheet
+         * @return this builder
+         */
+        public ExcelExportOptionsBuilder sheetRowLimit(int sheetRowLimit) {
+            if (sheetRowLimit < 0) {
+                throw new IllegalArgumentException("sheetRowLimit must not be negative: " + sheetRowLimit);
+            }
+            this.sheetRowLimit = sheetRowLimit;
+            return this;
+        }
+
+        /**
+         * xlsx sheets rendered at once, only used with a sheet row limit
+         * @param parallelism parallelism, must be positive
+         * @return this builder
+         */
+        public ExcelExportOptionsBuilder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * executor rendering the sheets
+         * @param executor executor
+         * @return this builder
+         */
+        public ExcelExportOptionsBuilder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "executor can not be null");
+            return this;
+        }
+
+        public ExcelExportOptions build() {
+            return new ExcelExportOptions(this);
+        }
+    }
+}
@@ -4,23 +4,18 @@
  */
 package com.github.jackieonway.util.export.excel;
 
-import com.github.jackieonway.util.StringUtils;
 import com.github.jackieonway.util.collection.CollectionUtils;
 import com.github.jackieonway.util.export.ExportException;
-import org.apache.poi.hssf.usermodel.*;
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.ss.util.RegionUtil;
-import org.apache.poi.xssf.streaming.SXSSFCell;
-import org.apache.poi.xssf.streaming.SXSSFRow;
-import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
 import java.io.*;
-import java.lang.reflect.Field;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
 
 /**
  * @author Jackie
@@ -37,6 +32,21 @@ public enum ExcelExportUtils {
      */
     private static final int MAX_EXPORT_NUM_EXCEL_2003 = 65536;
 
+    /**
+     * data rows of a sheet for excel 2003, the title row and the header row take two of 65536 rows
+     */
+    private static final int MAX_SHEET_ROWS_EXCEL_2003 = 65536 - ExcelSheetWriter.FIRST_DATA_ROW;
+
+    /**
+     * data rows of a sheet for excel 2007, the title row and the header row take two of 1048576 rows
+     */
+    private static final int MAX_SHEET_ROWS_EXCEL_2007 = 1048576 - ExcelSheetWriter.FIRST_DATA_ROW;
+
+    /**
+     * initial capacity of the rows buffered for a sheet rendered in parallel
+     */
+    private static final int SHEET_CHUNK_INITIAL_CAPACITY = 8192;
+
     /**
      * export excel
      * @param outputStream export outputStream
@@ -47,6 +57,21 @@ public enum ExcelExportUtils {
      * @see ExcelExportUtils
      */
     public static <E> void export(OutputStream outputStream, Collection<E> collection, Class<E> clazz){
+        export(outputStream, collection, clazz, ExcelExportOptions.DEFAULT);
+    }
+
+    /**
+     * export excel, with a sheet row limit of the options the rows roll over to new sheets, so xls may export more
+     * than 65536 rows and xlsx sheets may be rendered in parallel, see
+     * {@link #export(OutputStream, Iterator, Class, ExcelExportOptions)}
+     * @param outputStream export outputStream
+     * @param collection export collection
+     * @param clazz export class
+     * @param options export options
+     * @since 1.0.3
+     */
+    public static <E> void export(OutputStream outputStream, Collection<E> collection, Class<E> clazz,
+                                  ExcelExportOptions options){
         if (!clazz.isAnnotationPresent(ExcelFile.class)){
             throw new ExportException(String.format("class [%s] can  not find annotation ExcelFile",clazz));
         }
@@ -57,193 +82,330 @@ public enum ExcelExportUtils {
         if (Objects.isNull(outputStream)){
             throw new ExportException("export outputStream is null");
         }
+        Objects.requireNonNull(options);
         Map<String, Object> excelFileMap = ExcelTools.putClassFileAndGet(clazz);
         final ExcelType excelType = (ExcelType)excelFileMap.get(ExcelTools.TYPE);
         if (excelType.equals(ExcelType.XLS)) {
-            if (collection.size() > MAX_EXPORT_NUM_EXCEL_2003){
+            if (options.getSheetRowLimit() == 0 && collection.size() > MAX_EXPORT_NUM_EXCEL_2003){
                 throw new ExportException("Excel 2003 type can export max less than 65536");
             }
-            doExportXls(outputStream, collection,clazz, excelFileMap);
+            doExportXls(outputStream, collection.iterator(), clazz, excelFileMap, options);
             return;
         }
-        doExportXlsx(outputStream, collection,clazz, excelFileMap);
+        doExportXlsx(outputStream, collection.iterator(), clazz, excelFileMap, options);
     }
 
-    private static <E> void doExportXls(OutputStream outputStream, Collection<E> collection,
-                                        Class<E> clazz, Map<String, Object> excelFileMap) {
-        final String sheetName = excelFileMap.get("sheetName").toString();
+    /**
+     * export excel, rows are written as the iterator returns them, see
+     * {@link #export(OutputStream, Iterator, Class, ExcelExportOptions)}
+     * @param outputStream export outputStream
+     * @param iterator export data
+     * @param clazz export class
+     * @since 1.0.3
+     */
+    public static <E> void export(OutputStream outputStream, Iterator<? extends E> iterator, Class<E> clazz){
+        export(outputStream, iterator, clazz, ExcelExportOptions.DEFAULT);
+    }
+
+    /**
+     * export excel, rows are written as the iterator returns them, so the data is never held in memory at once,
+     * e.g. rows of a database cursor.
+     * <p>xlsx rows are flushed to a temp file once they leave the row access window of the options, the temp file
+     * is deleted after the export. xls is written in memory and fails after 65536 rows unless a sheet row limit is
+     * set, the other options are ignored.
+     * <p>with a sheet row limit the rows roll over to new sheets named after the sheet name with a suffix, e.g.
+     * {@code user}, {@code user-2}, {@code user-3}. xlsx sheets are rendered by up to parallelism threads of the
+     * executor of the options, each sheet buffers its rows in its own temp file and all sheets are written into
+     * one workbook.
+     * @param outputStream export outputStream
+     * @param iterator export data, may be empty
+     * @param clazz export class
+     * @param options streaming options
+     * @since 1.0.3
+     */
+    public static <E> void export(OutputStream outputStream, Iterator<? extends E> iterator, Class<E> clazz,
+                                  ExcelExportOptions options){
+        if (Objects.isNull(iterator)){
+            throw new ExportException("export data is null");
+        }
+        Map<String, Object> excelFileMap = checkAndGetClassFile(outputStream, clazz);
+        final ExcelType excelType = (ExcelType)excelFileMap.get(ExcelTools.TYPE);
+        if (excelType.equals(ExcelType.XLS)) {
+            doExportXls(outputStream, iterator, clazz, excelFileMap, Objects.requireNonNull(options));
+            return;
+        }
+        doExportXlsx(outputStream, iterator, clazz, excelFileMap, Objects.requireNonNull(options));
+    }
+
+    /**
+     * export excel from a stream, the stream is closed after the export, see
+     * {@link #export(OutputStream, Iterator, Class, ExcelExportOptions)}
+     * @param outputStream export outputStream
+     * @param stream export data
+     * @param clazz export class
+     * @since 1.0.3
+     */
+    public static <E> void export(OutputStream outputStream, Stream<? extends E> stream, Class<E> clazz){
+        export(outputStream, stream, clazz, ExcelExportOptions.DEFAULT);
+    }
+
+    /**
+     * export excel from a stream, the stream is closed after the export, see
+     * {@link #export(OutputStream, Iterator, Class, ExcelExportOptions)}
+     * @param outputStream export outputStream
+     * @param stream export data
+     * @param clazz export class
+     * @param options streaming options
+     * @since 1.0.3
+     */
+    public static <E> void export(OutputStream outputStream, Stream<? extends E> stream, Class<E> clazz,
+                                  ExcelExportOptions options){
+        if (Objects.isNull(stream)){
+            throw new ExportException("export data is null");
+        }
+        try (Stream<? extends E> data = stream) {
+            export(outputStream, data.iterator(), clazz, options);
+        }
+    }
+
+    /**
+     * export excel page by page, pages are loaded from 0 until an empty page, only one page is held in memory, see
+     * {@link #export(OutputStream, Iterator, Class, ExcelExportOptions)}
+     * <blockquote><pre>
+     *     ExcelExportUtils.exportPaged(outputStream, page -&gt; userMapper.selectPage(page, 1000), User.class,
+     *             ExcelExportOptions.DEFAULT);
+     * </pre></blockquote>
+     * @param outputStream export outputStream
+     * @param pageLoader loads the page of the page number, an empty page or null ends the export
+     * @param clazz export class
+     * @param options streaming options
+     * @since 1.0.3
+     */
+    public static <E> void exportPaged(OutputStream outputStream,
+                                       IntFunction<? extends Collection<? extends E>> pageLoader, Class<E> clazz,
+                                       ExcelExportOptions options){
+        if (Objects.isNull(pageLoader)){
+            throw new ExportException("export page loader is null");
+        }
+        export(outputStream, new PagedIterator<E>(pageLoader), clazz, options);
+    }
+
+    /**
+     * export excel from a pre-rendered template, see {@link #export(OutputStream, Iterator, ExcelTemplate)}
+     * @param outputStream export outputStream
+     * @param collection export collection, may be empty
+     * @param template template of the export class, e.g. {@link ExcelTemplate#of(Class)}
+     * @since 1.0.3
+     */
+    public static <E> void export(OutputStream outputStream, Collection<? extends E> collection,
+                                  ExcelTemplate<E> template){
+        if (Objects.isNull(collection)){
+            throw new ExportException("export data is null");
+        }
+        export(outputStream, collection.iterator(), template);
+    }
+
+    /**
+     * export xlsx from a pre-rendered template, the title, the header and the styles are copied from the template
+     * and only the data rows are written, rows are streamed into the output as the iterator returns them without
+     * a temp file. Suited for many small exports, the cells have the same types and styles as the other exports.
+     * <blockquote><pre>
+     *     ExcelExportUtils.export(outputStream, users, ExcelTemplate.of(User.class));
+     * </pre></blockquote>
+     * @param outputStream export outputStream, not closed
+     * @param iterator export data, may be empty
+     * @param template template of the export class, {@link ExcelTemplate#of(Class)} or
+     *                 {@link ExcelTemplate#load(InputStream, Class)}
+     * @since 1.0.3
+     */
+    public static <E> void export(OutputStream outputStream, Iterator<? extends E> iterator,
+                                  ExcelTemplate<E> template){
+        if (Objects.isNull(iterator)){
+            throw new ExportException("export data is null");
+        }
+        if (Objects.isNull(outputStream)){
+            throw new ExportException("export outputStream is null");
+        }
+        if (Objects.isNull(template)){
+            throw new ExportException("export template is null");
+        }
+        try {
+            template.write(outputStream, iterator);
+        } catch (IOException e) {
+            throw new ExportException(e.getMessage(), e);
+        }
+    }
+
+    private static Map<String, Object> checkAndGetClassFile(OutputStream outputStream, Class<?> clazz) {
+        if (!clazz.isAnnotationPresent(ExcelFile.class)){
+            throw new ExportException(String.format("class [%s] can  not find annotation ExcelFile",clazz));
+        }
+        if (Objects.isNull(outputStream)){
+            throw new ExportException("export outputStream is null");
+        }
+        return ExcelTools.putClassFileAndGet(clazz);
+    }
+
+    private static <E> void doExportXls(OutputStream outputStream, Iterator<? extends E> iterator,
+                                        Class<E> clazz, Map<String, Object> excelFileMap,
+                                        ExcelExportOptions options) {
         HSSFWorkbook hssfWorkbook = new HSSFWorkbook();
-        HSSFSheet workbookSheet = hssfWorkbook.createSheet(sheetName);
-        Map<Integer, Map<String, Object>> headers = ExcelTools.putAndGetFields(clazz);
-        createTitleRow(sheetName, hssfWorkbook,workbookSheet, headers.size() - 1, excelFileMap);
-        HSSFRow headerRow = workbookSheet.createRow(1);
-        headers.forEach((key,value) ->{
-            workbookSheet.setColumnWidth(key,((Integer) value.get(ExcelTools.WIDTH)) * 256);
-            HSSFCell cell = headerRow.createCell(key);
-            cell.setCellValue(value.get(ExcelTools.FIELD_NAME).toString());
-            final CellStyle cellStyle = getHeaderCellStyle(hssfWorkbook);
-            final Font font = createFont(hssfWorkbook, value);
-            font.setBold(true);
-            cellStyle.setFont(font);
-            cell.setCellStyle(cellStyle);
-
-        });
-        int index = 2;
-        for (E data : collection) {
-            HSSFRow dataRow = workbookSheet.createRow(index);
-            headers.forEach((key, value) -> {
-                dataRow.setHeightInPoints(Short.parseShort(value.get("height").toString()));
-                HSSFCell cell = dataRow.createCell(key);
-                createRowData(hssfWorkbook, data, value, cell);
-            });
-            index++;
+        ExcelSheetWriter sheetWriter = new ExcelSheetWriter(hssfWorkbook, ExcelTools.getColumns(clazz),
+                excelFileMap, true);
+        if (options.getSheetRowLimit() == 0) {
+            sheetWriter.writeRows(sheetWriter.createSheet(0), iterator, MAX_EXPORT_NUM_EXCEL_2003);
+            if (iterator.hasNext()) {
+                throw new ExportException("Excel 2003 type can export max less than 65536");
+            }
+        } else {
+            writeSheets(sheetWriter, iterator, Math.min(options.getSheetRowLimit(), MAX_SHEET_ROWS_EXCEL_2003));
         }
         try {
             hssfWorkbook.write(outputStream);
         } catch (IOException e) {
-            throw new ExportException(e.getMessage());
-        }
-    }
-
-    private static <E> void doExportXlsx(OutputStream outputStream, Collection<E> collection,
-                                         Class<E> clazz, Map<String, Object> excelFileMap) {
-        final String sheetName = excelFileMap.get("sheetName").toString();
-        SXSSFWorkbook sxssfWorkbook = new SXSSFWorkbook();
-        SXSSFSheet workbookSheet = sxssfWorkbook.createSheet(sheetName);
-        Map<Integer, Map<String, Object>> headers = ExcelTools.putAndGetFields(clazz);
-        createTitleRow(sheetName, sxssfWorkbook, workbookSheet, headers.size() - 1, excelFileMap);
-        SXSSFRow headerRow = workbookSheet.createRow(1);
-        headers.forEach((key,value) ->{
-            workbookSheet.setColumnWidth(key,((Integer) value.get(ExcelTools.WIDTH)) * 256);
-            SXSSFCell cell = headerRow.createCell(key);
-            cell.setCellValue(value.get(ExcelTools.FIELD_NAME).toString());
-            final CellStyle cellStyle = getHeaderCellStyle(sxssfWorkbook);
-            final Font font = createFont(sxssfWorkbook, value);
-            font.setBold(true);
-            font.setFontHeightInPoints((short) 15);
-            font.setItalic(false);
-            font.setColor(Font.COLOR_NORMAL);
-            cellStyle.setFont(font);
-            cell.setCellStyle(cellStyle);
-        });
-        int index = 2;
-        for (E data : collection) {
-            SXSSFRow dataRow = workbookSheet.createRow(index);
-            headers.forEach((key, value) -> {
-                SXSSFCell cell = dataRow.createCell(key);
-                createRowData(sxssfWorkbook, data, value, cell);
-            });
-            index++;
+            throw new ExportException(e.getMessage(), e);
         }
+    }
+
+    private static <E> void doExportXlsx(OutputStream outputStream, Iterator<? extends E> iterator,
+                                         Class<E> clazz, Map<String, Object> excelFileMap,
+                                         ExcelExportOptions options) {
+        SXSSFWorkbook sxssfWorkbook = new SXSSFWorkbook(null, options.getRowAccessWindowSize(),
+                options.isCompressTempFiles());
         try {
+            ExcelSheetWriter sheetWriter = new ExcelSheetWriter(sxssfWorkbook, ExcelTools.getColumns(clazz),
+                    excelFileMap, false);
+            if (options.getSheetRowLimit() == 0) {
+                sheetWriter.writeRows(sheetWriter.createSheet(0), iterator, Integer.MAX_VALUE);
+            } else if (options.getParallelism() == 1) {
+                writeSheets(sheetWriter, iterator, Math.min(options.getSheetRowLimit(), MAX_SHEET_ROWS_EXCEL_2007));
+            } else {
+                writeSheetsInParallel(sheetWriter, iterator,
+                        Math.min(options.getSheetRowLimit(), MAX_SHEET_ROWS_EXCEL_2007), options);
+            }
             sxssfWorkbook.write(outputStream);
         } catch (IOException e) {
-            throw new ExportException(e.getMessage());
-        }
-    }
-
-    private static void createTitleRow(String sheetName, Workbook workbook, Sheet sheet, Integer
-            lastCol, Map<String, Object> excelFileMap) {
-        final float height = Float.parseFloat(excelFileMap.get(ExcelTools.HEIGHT).toString());
-        Row titleRow = sheet.createRow(0);
-        titleRow.createCell(0);
-        CellRangeAddress cellRangeAddress = new CellRangeAddress(0, 0, 0, lastCol);
-        sheet.addMergedRegion(cellRangeAddress);
-        Row titleRow1 = sheet.getRow(0);
-        titleRow1.setHeightInPoints(height);
-        Cell titleCell = titleRow1.getCell(0);
-        CellStyle basicCellStyle = getBasicCellStyle(workbook);
-        basicCellStyle.setFont(createFont(workbook,excelFileMap));
-        titleCell.setCellStyle(basicCellStyle);
-        RegionUtil.setBorderBottom(BorderStyle.THIN, cellRangeAddress, sheet);
-        RegionUtil.setBorderLeft(BorderStyle.THIN, cellRangeAddress, sheet);
-        RegionUtil.setBorderRight(BorderStyle.THIN, cellRangeAddress, sheet);
-        RegionUtil.setBorderTop(BorderStyle.THIN, cellRangeAddress, sheet);
-        titleCell.setCellValue(sheetName);
-    }
-
-    private static <E> void createRowData(Workbook workbook, E data, Map<String, Object> value, Cell cell) {
-        Field field = (Field) value.get(ExcelTools.FIELD);
-        field.setAccessible(true);
-        Object dataValue;
+            throw new ExportException(e.getMessage(), e);
+        } finally {
+            sxssfWorkbook.dispose();
+        }
+    }
+
+    /**
+     * sheets of at most sheetRowLimit rows, written one after another, the first sheet is written even without data
+     */
+    private static <E> void writeSheets(ExcelSheetWriter sheetWriter, Iterator<? extends E> iterator,
+                                        int sheetRowLimit) {
+        int sheetIndex = 0;
+        do {
+            sheetWriter.writeRows(sheetWriter.createSheet(sheetIndex++), iterator, sheetRowLimit);
+        } while (iterator.hasNext());
+    }
+
+    /**
+     * sheets of at most sheetRowLimit rows, the rows of a sheet are taken from the iterator by the calling thread
+     * and rendered by the executor. The calling thread waits for a free slot before it reads the rows of the next
+     * sheet, so at most parallelism sheets are held in memory and rendered at once, a row is released as soon as it
+     * is rendered. the sheets are created by the calling thread, so the workbook is only changed by one thread.
+     */
+    private static <E> void writeSheetsInParallel(ExcelSheetWriter sheetWriter, Iterator<? extends E> iterator,
+                                                  int sheetRowLimit, ExcelExportOptions options) {
+        final Deque<CompletableFuture<Void>> rendering = new ArrayDeque<>();
+        int sheetIndex = 0;
         try {
-            dataValue = field.get(data);
-        } catch (IllegalAccessException e) {
-            dataValue = "";
-        }
-        final CellStyle cellStyle = getHeaderCellStyle(workbook);
-        cellStyle.setFont(createFont(workbook,value));
-        cell.setCellStyle(cellStyle);
-        Class<?> type = field.getType();
-        if (Objects.isNull(dataValue)) {
-            cell.setBlank();
-        } else if (long.class.equals(type) || Long.class.equals(type)) {
-            formatData(workbook, value, cellStyle);
-            cell.setCellValue(dataValue.toString());
-        } else if (double.class.equals(type) || Double.class.equals(type)) {
-            formatData(workbook, value, cellStyle);
-            cell.setCellValue(Double.parseDouble(dataValue.toString()));
-        }  else if (int.class.equals(type) || Integer.class.equals(type)) {
-            cell.setCellValue(dataValue.toString());
-        } else if (float.class.equals(type) || Float.class.equals(type)) {
-            formatData(workbook, value, cellStyle);
-            cell.setCellValue(Float.parseFloat(dataValue.toString()));
-        } else if (boolean.class.equals(type) || Boolean.class.equals(type)) {
-            formatData(workbook, value, cellStyle);
-            cell.setCellValue(Boolean.parseBoolean(dataValue.toString()));
-        } else if (LocalDate.class.equals(type)) {
-            formatData(workbook, value, cellStyle);
-            cell.setCellValue((LocalDate)dataValue);
-        } else if (LocalDateTime.class.equals(type)) {
-            formatData(workbook, value, cellStyle);
-            cell.setCellValue((LocalDateTime)dataValue);
-        }else if (Date.class.equals(type)) {
-            formatData(workbook, value, cellStyle);
-            cell.setCellValue((Date)dataValue);
-        }else {
-            formatData(workbook, value, cellStyle);
-            cell.setCellValue(dataValue.toString());
-        }
-    }
-
-    private static void formatData(Workbook workbook, Map<String, Object> value, CellStyle cellStyle) {
-        Object format = value.get("format");
-        if (Objects.nonNull(format) && StringUtils.isNotBlank(format.toString())){
-            cellStyle.setDataFormat(workbook.createDataFormat().getFormat(format.toString()));
-        }
-    }
-
-    private static CellStyle getHeaderCellStyle(Workbook workbook){
-        CellStyle cellStyle =  getBasicCellStyle(workbook);
-        cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-        return cellStyle;
-    }
-
-    private static CellStyle getBasicCellStyle(Workbook workbook){
-        CellStyle cellStyle = workbook.createCellStyle();
-        cellStyle.setBorderLeft(BorderStyle.THIN);
-        cellStyle.setBorderBottom(BorderStyle.THIN);
-        cellStyle.setBorderRight(BorderStyle.THIN);
-        cellStyle.setBorderTop(BorderStyle.THIN);
-        cellStyle.setAlignment(HorizontalAlignment.CENTER);
-        cellStyle.setVerticalAlignment(VerticalAlignment.CENTER);
-        cellStyle.setWrapText(true);
-        return cellStyle;
-    }
-
-    private static Font createFont(Workbook workbook, Map<String, Object> configMap){
-        final boolean bold = Boolean.parseBoolean(configMap.get(ExcelTools.BOLD).toString());
-        final String fontName = configMap.get(ExcelTools.FONT_NAME).toString();
-        final short color = Short.parseShort(configMap.get(ExcelTools.COLOR).toString());
-        final short fontSize = Short.parseShort(configMap.get(ExcelTools.FONT_SIZE).toString());
-        final boolean italic = Boolean.parseBoolean(configMap.get(ExcelTools.ITALIC).toString());
-        Font font = workbook.createFont();
-        font.setFontName(fontName);
-        font.setBold(bold);
-        font.setColor(color);
-        font.setItalic(italic);
-        font.setFontHeightInPoints(fontSize);
-        return font;
+            do {
+                while (rendering.size() >= options.getParallelism()) {
+                    rendering.poll().join();
+                }
+                Deque<E> rows = new ArrayDeque<>(Math.min(sheetRowLimit, SHEET_CHUNK_INITIAL_CAPACITY));
+                while (rows.size() < sheetRowLimit && iterator.hasNext()) {
+                    rows.add(iterator.next());
+                }
+                final Sheet sheet = sheetWriter.createSheet(sheetIndex++);
+                rendering.add(CompletableFuture.runAsync(
+                        () -> sheetWriter.writeRows(sheet, new DrainingIterator<>(rows), sheetRowLimit),
+                        options.getExecutor()));
+            } while (iterator.hasNext());
+            for (CompletableFuture<Void> future : rendering) {
+                future.join();
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ExportException) {
+                throw (ExportException) e.getCause();
+            }
+            throw new ExportException("render sheet failed", e.getCause());
+        } finally {
+            //the temp files are deleted after the export, wait for the sheets still being rendered
+            for (CompletableFuture<Void> future : rendering) {
+                future.exceptionally(e -> null).join();
+            }
+        }
+    }
+
+    /**
+     * iterator removing the rows of a sheet as they are rendered, so rendered rows can be collected
+     */
+    private static final class DrainingIterator<E> implements Iterator<E> {
+
+        private final Deque<E> rows;
+
+        private DrainingIterator(Deque<E> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !rows.isEmpty();
+        }
+
+        @Override
+        public E next() {
+            if (rows.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+            return rows.poll();
+        }
     }
 
+    /**
+     * iterator over the pages of a page loader, loads the next page when the current one is used up
+     */
+    private static final class PagedIterator<E> implements Iterator<E> {
+
+        private final IntFunction<? extends Collection<? extends E>> pageLoader;
+
+        private Iterator<? extends E> page = Collections.emptyIterator();
+
+        private int pageNumber;
+
+        private boolean exhausted;
+
+        private PagedIterator(IntFunction<? extends Collection<? extends E>> pageLoader) {
+            this.pageLoader = pageLoader;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!page.hasNext()) {
+                if (exhausted) {
+                    return false;
+                }
+                Collection<? extends E> next = pageLoader.apply(pageNumber++);
+                if (CollectionUtils.isEmpty(next)) {
+                    exhausted = true;
+                    return false;
+                }
+                page = next.iterator();
+            }
+            return true;
+        }
+
+        @Override
+        public E next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+    }
 }
@@ -63,4 +63,21 @@ public @interface ExcelField {
      * @return format
      */
     String format() default "";
+
+    /**
+     * import requires a value, checked by
+     * {@link ExcelImportUtils#importExcel(java.io.InputStream, Class, int, java.util.function.Consumer, int)}
+     * @return required
+     * @since 1.0.3
+     */
+    boolean required() default false;
+
+    /**
+     * import value must match the regex, e.g.
+     * {@link com.github.jackieonway.util.validation.RegExpValidatorUtils#EMAIL}, checked against the cell text by
+     * {@link ExcelImportUtils#importExcel(java.io.InputStream, Class, int, java.util.function.Consumer, int)}
+     * @return regex, empty for any value
+     * @since 1.0.3
+     */
+    String regex() default "";
 }
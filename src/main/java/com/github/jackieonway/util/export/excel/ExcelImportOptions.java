@@ -0,0 +1,98 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.excel;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>options of a pipelined xlsx import, the calling thread reads the rows and the executor converts them into
+ * beans in batches
+ * <blockquote><pre>
+ *     ExcelImportOptions options = ExcelImportOptions.builder()
+ *             .parallelism(4)
+ *             .executor(importExecutor)
+ *             .build();
+ *     ExcelImportUtils.importExcel(inputStream, User.class, 1000, userService::saveAll, options);
+ * </pre></blockquote>
+ * @author Jackie
+ * @version $id: ExcelImportOptions.java v 0.1 2021-10-22 09:20 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class ExcelImportOptions {
+
+    /**
+     * one batch converted per available processor on the common pool
+     */
+    public static final ExcelImportOptions DEFAULT = builder().build();
+
+    private final int parallelism;
+
+    private final Executor executor;
+
+    private ExcelImportOptions(ExcelImportOptionsBuilder builder) {
+        this.parallelism = builder.parallelism;
+        this.executor = builder.executor;
+    }
+
+    public static ExcelImportOptionsBuilder builder() {
+        return new ExcelImportOptionsBuilder();
+    }
+
+    /**
+     * batches converted at once, at most twice as many batches are read ahead of the consumer, 1 converts the rows
+     * on the calling thread
+     * @return parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * executor converting the batches
+     * @return executor
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public static class ExcelImportOptionsBuilder {
+
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        private Executor executor = ForkJoinPool.commonPool();
+
+        ExcelImportOptionsBuilder() {
+        }
+
+        /**
+         * batches converted at once
+         * @param parallelism parallelism, must be positive
+         * @return this builder
+         */
+        public ExcelImportOptionsBuilder parallelism(int parallelism) {
+            if (parallelism < 1) {
+                throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * executor converting the batches
+         * @param executor executor
+         * @return this builder
+         */
+        public ExcelImportOptionsBuilder executor(Executor executor) {
+            this.executor = Objects.requireNonNull(executor, "executor can not be null");
+            return this;
+        }
+
+        public ExcelImportOptions build() {
+            return new ExcelImportOptions(this);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.excel;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>result of a validating import, see
+ * {@link ExcelImportUtils#importExcel(java.io.InputStream, Class, int, java.util.function.Consumer, int)}. Only
+ * the first errors up to the limit of the import are kept, the error count covers all of them.
+ * @author Jackie
+ * @version $id: ExcelImportResult.java v 0.1 2021-10-22 14:20 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class ExcelImportResult {
+
+    private final long imported;
+
+    private final long rejected;
+
+    private final long errorCount;
+
+    private final List<ExcelRowError> errors;
+
+    ExcelImportResult(long imported, long rejected, long errorCount, List<ExcelRowError> errors) {
+        this.imported = imported;
+        this.rejected = rejected;
+        this.errorCount = errorCount;
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * valid rows passed to the consumer
+     * @return imported rows
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * rows with at least one error, not passed to the consumer
+     * @return rejected rows
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * invalid cells of all rejected rows
+     * @return error count
+     */
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * first errors in row order, at most the limit of the import
+     * @return errors
+     */
+    public List<ExcelRowError> getErrors() {
+        return errors;
+    }
+
+    public boolean hasErrors() {
+        return errorCount > 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ExcelImportResult{" +
+                "imported=" + imported +
+                ", rejected=" + rejected +
+                ", errorCount=" + errorCount +
+                '}';
+    }
+}
@@ -10,6 +10,7 @@ import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
@@ -17,11 +18,13 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Field;
-import java.math.BigDecimal;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
+import java.lang.reflect.Constructor;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @author Jackie
@@ -37,6 +40,11 @@ public enum ExcelImportUtils {
     public static final String NUMERIC = "NUMERIC";
     public static final String STRING = "STRING";
 
+    /**
+     * rows of a batch converted by a thread when all rows are imported through the pipeline
+     */
+    private static final int PIPELINE_BATCH_SIZE = 1000;
+
     public static <E> List<E> importExcel(InputStream inputStream, Class<E> clazz){
         if (!clazz.isAnnotationPresent(ExcelFile.class)){
             throw new ExportException(String.format("class [%s] can  not find annotation ExcelFile",clazz));
@@ -52,6 +60,214 @@ public enum ExcelImportUtils {
         return doImportXlsx(inputStream, clazz,excelFileMap);
     }
 
+    /**
+     * import xlsx in batches, rows are read one by one without loading the workbook, so the memory stays flat
+     * for any file size. The input is copied to a temp file that is deleted after the import.
+     * @param inputStream xlsx content, not closed
+     * @param clazz import class
+     * @param batchSize rows of a batch
+     * @param consumer consumer of the batches in row order, the last batch may be smaller
+     * @return imported rows
+     * @throws ImportException the class is not xlsx, or a row can not be read
+     * @since 1.0.3
+     */
+    public static <E> long importExcel(InputStream inputStream, Class<E> clazz, int batchSize,
+                                       Consumer<? super List<E>> consumer){
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        Objects.requireNonNull(consumer, "consumer can not be null");
+        long count = 0;
+        try (ExcelStreamingReader<E> reader = openStreamingReader(inputStream, clazz)) {
+            List<E> batch = new ArrayList<>(batchSize);
+            while (reader.hasNext()) {
+                batch.add(reader.next());
+                if (batch.size() == batchSize) {
+                    consumer.accept(batch);
+                    count += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+                count += batch.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * import xlsx in batches and validate each row as it is read, in one pass. A row with a missing
+     * {@link ExcelField#required()} value, a cell text not matching the {@link ExcelField#regex()} or a value that
+     * can not be converted to the field type is rejected and its errors are collected, the valid rows are passed to
+     * the consumer.
+     * <blockquote><pre>
+     *     ExcelImportResult result = ExcelImportUtils.importExcel(inputStream, User.class, 1000,
+     *             userService::saveAll, 100);
+     *     if (result.hasErrors()) {
+     *         result.getErrors().forEach(error -&gt; log.warn("{}", error));
+     *     }
+     * </pre></blockquote>
+     * @param inputStream xlsx content, not closed
+     * @param clazz import class
+     * @param batchSize valid rows of a batch
+     * @param consumer consumer of the batches of valid rows in row order, the last batch may be smaller
+     * @param maxErrors errors kept in the result, further errors are only counted
+     * @return imported and rejected rows with the first errors
+     * @throws ImportException the class is not xlsx, or the file can not be read
+     * @since 1.0.3
+     */
+    public static <E> ExcelImportResult importExcel(InputStream inputStream, Class<E> clazz, int batchSize,
+                                                    Consumer<? super List<E>> consumer, int maxErrors){
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        if (maxErrors < 0) {
+            throw new IllegalArgumentException("maxErrors must not be negative: " + maxErrors);
+        }
+        Objects.requireNonNull(consumer, "consumer can not be null");
+        final List<ExcelRowError> errors = new ArrayList<>(Math.min(maxErrors, batchSize));
+        final List<ExcelRowError> rowErrors = new ArrayList<>();
+        long imported = 0;
+        long rejected = 0;
+        long errorCount = 0;
+        try (ExcelStreamingReader<E> reader = openStreamingReader(inputStream, clazz)) {
+            List<E> batch = new ArrayList<>(batchSize);
+            List<ExcelStreamingReader.RawRow> rows;
+            while (!(rows = reader.nextRows(batchSize)).isEmpty()) {
+                for (ExcelStreamingReader.RawRow row : rows) {
+                    E bean = reader.toValidBean(row, rowErrors);
+                    if (rowErrors.isEmpty()) {
+                        batch.add(bean);
+                        if (batch.size() == batchSize) {
+                            consumer.accept(batch);
+                            imported += batch.size();
+                            batch = new ArrayList<>(batchSize);
+                        }
+                        continue;
+                    }
+                    rejected++;
+                    errorCount += rowErrors.size();
+                    for (int i = 0; i < rowErrors.size() && errors.size() < maxErrors; i++) {
+                        errors.add(rowErrors.get(i));
+                    }
+                    rowErrors.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+                imported += batch.size();
+            }
+        }
+        return new ExcelImportResult(imported, rejected, errorCount, errors);
+    }
+
+    /**
+     * import xlsx in batches through a pipeline: the calling thread reads the rows, the executor of the options
+     * converts the batches into beans in parallel and the consumer gets the batches in row order on the calling
+     * thread. At most twice the parallelism batches are read ahead of the consumer, so the memory stays bounded.
+     * @param inputStream xlsx content, not closed
+     * @param clazz import class
+     * @param batchSize rows of a batch
+     * @param consumer consumer of the batches in row order, the last batch may be smaller
+     * @param options parallelism and executor
+     * @return imported rows
+     * @throws ImportException the class is not xlsx, or a row can not be read or converted
+     * @since 1.0.3
+     */
+    public static <E> long importExcel(InputStream inputStream, Class<E> clazz, int batchSize,
+                                       Consumer<? super List<E>> consumer, ExcelImportOptions options){
+        Objects.requireNonNull(options);
+        if (options.getParallelism() == 1) {
+            return importExcel(inputStream, clazz, batchSize, consumer);
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        Objects.requireNonNull(consumer, "consumer can not be null");
+        final int maxPending = options.getParallelism() * 2;
+        final Deque<CompletableFuture<List<E>>> converting = new ArrayDeque<>(maxPending);
+        long count = 0;
+        try (ExcelStreamingReader<E> reader = openStreamingReader(inputStream, clazz)) {
+            List<ExcelStreamingReader.RawRow> rows;
+            while (!(rows = reader.nextRows(batchSize)).isEmpty()) {
+                if (converting.size() == maxPending) {
+                    count += acceptBatch(converting.poll(), consumer);
+                }
+                final List<ExcelStreamingReader.RawRow> batch = rows;
+                converting.add(CompletableFuture.supplyAsync(() -> reader.toBeans(batch), options.getExecutor()));
+            }
+            while (!converting.isEmpty()) {
+                count += acceptBatch(converting.poll(), consumer);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * import xlsx through the pipeline of {@link #importExcel(InputStream, Class, int, Consumer,
+     * ExcelImportOptions)}, all rows are returned
+     * @param inputStream xlsx content, not closed
+     * @param clazz import class
+     * @param options parallelism and executor
+     * @return rows
+     * @throws ImportException the class is not xlsx, or a row can not be read or converted
+     * @since 1.0.3
+     */
+    public static <E> List<E> importExcel(InputStream inputStream, Class<E> clazz, ExcelImportOptions options){
+        List<E> list = new ArrayList<>();
+        importExcel(inputStream, clazz, PIPELINE_BATCH_SIZE, list::addAll, options);
+        return list;
+    }
+
+    private static <E> int acceptBatch(CompletableFuture<List<E>> future, Consumer<? super List<E>> consumer) {
+        List<E> batch;
+        try {
+            batch = future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ImportException) {
+                throw (ImportException) e.getCause();
+            }
+            throw new ImportException("convert rows failed", e.getCause());
+        }
+        consumer.accept(batch);
+        return batch.size();
+    }
+
+    /**
+     * import xlsx as a lazy stream, rows are read as the stream is consumed, see
+     * {@link #importExcel(InputStream, Class, int, Consumer)}
+     * <blockquote><pre>
+     *     try (Stream&lt;User&gt; users = ExcelImportUtils.importStream(inputStream, User.class)) {
+     *         users.forEach(userService::save);
+     *     }
+     * </pre></blockquote>
+     * @param inputStream xlsx content, copied to a temp file before this method returns, not closed
+     * @param clazz import class
+     * @return sequential stream of the rows, close it to delete the temp file
+     * @throws ImportException the class is not xlsx, or a row can not be read
+     * @since 1.0.3
+     */
+    public static <E> Stream<E> importStream(InputStream inputStream, Class<E> clazz){
+        ExcelStreamingReader<E> reader = openStreamingReader(inputStream, clazz);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(reader,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(reader::close);
+    }
+
+    private static <E> ExcelStreamingReader<E> openStreamingReader(InputStream inputStream, Class<E> clazz) {
+        if (!clazz.isAnnotationPresent(ExcelFile.class)){
+            throw new ExportException(String.format("class [%s] can  not find annotation ExcelFile",clazz));
+        }
+        if (Objects.isNull(inputStream)){
+            throw new ExportException("import inputStream is null");
+        }
+        Map<String, Object> excelFileMap = ExcelTools.putClassFileAndGet(clazz);
+        if (ExcelType.XLS.equals(excelFileMap.get(ExcelTools.TYPE))) {
+            throw new ImportException("streaming import only supports xlsx");
+        }
+        return ExcelStreamingReader.open(inputStream, clazz, excelFileMap.get("sheetName").toString());
+    }
+
     private static <E> List<E> doImportXlsx(InputStream inputStream, Class<E> clazz, Map<String, Object> excelFileMap) {
 
         try {
@@ -66,7 +282,7 @@ public enum ExcelImportUtils {
     }
 
     private static <E> List<E> getAllData(Class<E> clazz, String sheetName, Sheet sheet) {
-        Map<Integer, Map<String, Object>> headers = ExcelTools.putAndGetFields(clazz);
+        ExcelColumn[] headers = columnsByCellIndex(ExcelTools.getColumns(clazz));
         int lastRowNum = sheet.getLastRowNum();
         int dataRowNum = 0;
         for (int i = 0; i < lastRowNum; i++) {
@@ -105,12 +321,23 @@ public enum ExcelImportUtils {
         return null;
     }
 
-    private static <E> List<E> getData(Sheet sheet, int dataRowNum,
-                                       Map<Integer, Map<String, Object>> headers, Class<E> clazz) {
+    private static <E> List<E> getData(Sheet sheet, int dataRowNum, ExcelColumn[] headers, Class<E> clazz) {
+        ExcelCells.CellReader[] readers = new ExcelCells.CellReader[headers.length];
+        for (int i = 0; i < headers.length; i++) {
+            if (Objects.nonNull(headers[i])) {
+                readers[i] = ExcelCells.reader(headers[i].getValueType());
+            }
+        }
+        Constructor<E> constructor;
+        try {
+            constructor = clazz.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new ImportException(e.getMessage(),e);
+        }
         int lastRowNum = sheet.getLastRowNum();
         List<E> result = new ArrayList<>();
         for (int i = dataRowNum; i <= lastRowNum; i++) {
-            E data = getRowData(sheet.getRow(i), headers, clazz);
+            E data = getRowData(sheet.getRow(i), headers, readers, constructor);
             if (Objects.nonNull(data)) {
                 result.add(data);
             }
@@ -118,65 +345,20 @@ public enum ExcelImportUtils {
         return result;
     }
 
-    private static <E> E getRowData(Row row, Map<Integer, Map<String, Object>> headers, Class<E> clazz) {
+    private static <E> E getRowData(Row row, ExcelColumn[] headers, ExcelCells.CellReader[] readers,
+                                    Constructor<E> constructor) {
         try {
             if (Objects.isNull(row)){
                 return null;
             }
-            E instance = clazz.getDeclaredConstructor().newInstance();
+            E instance = constructor.newInstance();
             Iterator<Cell> cellIterator = row.cellIterator();
             while (cellIterator.hasNext()){
                 Cell cell = cellIterator.next();
                 int columnIndex = cell.getColumnIndex();
-                Map<String, Object> header = headers.get(columnIndex);
-                Field field = (Field) header.get(ExcelTools.FIELD);
-                field.setAccessible(true);
-                Class<?> type = field.getType();
-                if (int.class.equals(type) || Integer.class.equals(type) ){
-                    if (NUMERIC.equalsIgnoreCase(cell.getCellType().name())){
-                        double numericCellValue = cell.getNumericCellValue();
-                        field.set(instance, Double.valueOf(numericCellValue).intValue());
-                    }else {
-                        String stringCellValue = cell.getStringCellValue();
-                        field.set(instance, Integer.parseInt(stringCellValue));
-                    }
-
-                }else if (double.class.equals(type) || Double.class.equals(type)){
-                    if (NUMERIC.equalsIgnoreCase(cell.getCellType().name())){
-                        field.set(instance, cell.getNumericCellValue());
-                    }else {
-                        String stringCellValue = cell.getStringCellValue();
-                        field.set(instance, Double.parseDouble(stringCellValue));
-                    }
-                }else if (float.class.equals(type) || Float.class.equals(type)){
-                    if (NUMERIC.equalsIgnoreCase(cell.getCellType().name())){
-                        double numericCellValue = cell.getNumericCellValue();
-                        field.set(instance, Double.valueOf(numericCellValue).floatValue());
-                    }else {
-                        String stringCellValue = cell.getStringCellValue();
-                        field.set(instance, Float.parseFloat(stringCellValue));
-                    }
-                }else if (long.class.equals(type) || Long.class.equals(type)){
-                    if (NUMERIC.equalsIgnoreCase(cell.getCellType().name())){
-                        double numericCellValue = cell.getNumericCellValue();
-                        field.set(instance, Double.valueOf(numericCellValue).longValue());
-                    }else {
-                        String stringCellValue = cell.getStringCellValue();
-                        field.set(instance, Long.parseLong(stringCellValue));
-                    }
-                }else if (boolean.class.equals(type) || Boolean.class.equals(type)){
-                    field.set(instance, cell.getBooleanCellValue());
-                }else if (BigDecimal.class.getSimpleName().equals(type.getSimpleName())){
-                    String stringCellValue = cell.getStringCellValue();
-                    field.set(instance, new BigDecimal(stringCellValue));
-                }else if (LocalDate.class.equals(type)) {
-                    field.set(instance, cell.getLocalDateTimeCellValue().toLocalDate());
-                } else if (LocalDateTime.class.equals(type)) {
-                    field.set(instance, cell.getLocalDateTimeCellValue());
-                }else if (Date.class.equals(type)) {
-                    field.set(instance, cell.getDateCellValue());
-                }else {
-                    field.set(instance, cell.getStringCellValue());
+                if (columnIndex < headers.length && Objects.nonNull(headers[columnIndex])
+                        && cell.getCellType() != CellType.BLANK) {
+                    headers[columnIndex].setValue(instance, readers[columnIndex].read(cell));
                 }
             }
             return instance;
@@ -185,12 +367,25 @@ public enum ExcelImportUtils {
         }
     }
 
-    private static boolean checkHeaderIfNecessary(Row row, Map<Integer, Map<String, Object>> headers) {
+    /**
+     * columns at their cell index, null for cells without a column
+     */
+    static ExcelColumn[] columnsByCellIndex(List<ExcelColumn> columns) {
+        ExcelColumn[] headers = new ExcelColumn[columns.get(columns.size() - 1).getIndex() + 1];
+        for (ExcelColumn column : columns) {
+            headers[column.getIndex()] = column;
+        }
+        return headers;
+    }
+
+    private static boolean checkHeaderIfNecessary(Row row, ExcelColumn[] headers) {
         Iterator<Cell> cellIterator = row.cellIterator();
         while (cellIterator.hasNext()) {
             Cell cell = cellIterator.next();
-            if (STRING.equals(cell.getCellType().name())
-                    && cell.getStringCellValue().equals(headers.get(cell.getColumnIndex()).get(ExcelTools.FIELD_NAME))) {
+            int columnIndex = cell.getColumnIndex();
+            if (STRING.equals(cell.getCellType().name()) && columnIndex < headers.length
+                    && Objects.nonNull(headers[columnIndex])
+                    && cell.getStringCellValue().equals(headers[columnIndex].getTitle())) {
                 return true;
             }
         }
@@ -0,0 +1,74 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.excel;
+
+/**
+ * <p>invalid cell of an imported row, see {@link ExcelImportResult}
+ * @author Jackie
+ * @version $id: ExcelRowError.java v 0.1 2021-10-22 14:10 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class ExcelRowError {
+
+    private final int rowNumber;
+
+    private final int columnIndex;
+
+    private final String title;
+
+    private final String value;
+
+    private final String message;
+
+    ExcelRowError(int rowNumber, int columnIndex, String title, String value, String message) {
+        this.rowNumber = rowNumber;
+        this.columnIndex = columnIndex;
+        this.title = title;
+        this.value = value;
+        this.message = message;
+    }
+
+    /**
+     * row number shown by excel, starting with 1
+     * @return row number
+     */
+    public int getRowNumber() {
+        return rowNumber;
+    }
+
+    /**
+     * zero based cell index of the column
+     * @return column index
+     */
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+
+    /**
+     * header of the column
+     * @return title
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * cell text, null for a missing value
+     * @return value
+     */
+    public String getValue() {
+        return value;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return "row " + rowNumber + " column " + columnIndex + " [" + title + "]: " + message
+                + (value == null ? "" : " [" + value + "]");
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.excel;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.RegionUtil;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>writes the sheets of an {@link ExcelFile} class into a workbook: the title row, the header row and the data
+ * rows. Styles and cell writers of the columns are resolved once when the writer is created.
+ * <p>sheets are created by the thread owning the workbook, the data rows of different sheets of an
+ * {@link org.apache.poi.xssf.streaming.SXSSFWorkbook} may be written by different threads, each sheet buffers
+ * its rows in its own temp file.
+ * @author Jackie
+ * @version $id: ExcelSheetWriter.java v 0.1 2021-10-20 10:30 Jackie Exp $$
+ * @since 1.0.3
+ */
+final class ExcelSheetWriter {
+
+    /**
+     * first data row, after the title row and the header row
+     */
+    static final int FIRST_DATA_ROW = 2;
+
+    private final Workbook workbook;
+
+    private final String sheetName;
+
+    private final float titleHeight;
+
+    private final CellStyle titleStyle;
+
+    private final ExcelColumn[] columns;
+
+    private final CellStyle[] headerStyles;
+
+    private final CellStyle[] styles;
+
+    private final ExcelCells.CellWriter[] writers;
+
+    private final float rowHeight;
+
+    private final boolean setRowHeight;
+
+    /**
+     * @param workbook workbook
+     * @param columns columns of the class
+     * @param excelFileMap config of the class
+     * @param xls xls styles the header with the column font and sets the row height, xlsx uses a fixed
+     *            header font, as the exports always did
+     */
+    ExcelSheetWriter(Workbook workbook, List<ExcelColumn> columns, Map<String, Object> excelFileMap, boolean xls) {
+        this.workbook = workbook;
+        this.sheetName = excelFileMap.get("sheetName").toString();
+        this.titleHeight = Float.parseFloat(excelFileMap.get(ExcelTools.HEIGHT).toString());
+        ExcelStylePool stylePool = new ExcelStylePool(workbook);
+        this.titleStyle = stylePool.style(false, stylePool.font(excelFileMap.get(ExcelTools.FONT_NAME).toString(),
+                (Boolean) excelFileMap.get(ExcelTools.BOLD), (Boolean) excelFileMap.get(ExcelTools.ITALIC),
+                (Short) excelFileMap.get(ExcelTools.COLOR), (Short) excelFileMap.get(ExcelTools.FONT_SIZE)), null);
+        int size = columns.size();
+        this.columns = columns.toArray(new ExcelColumn[0]);
+        this.headerStyles = new CellStyle[size];
+        this.styles = new CellStyle[size];
+        this.writers = new ExcelCells.CellWriter[size];
+        for (int i = 0; i < size; i++) {
+            ExcelColumn column = this.columns[i];
+            Font headerFont = xls
+                    ? stylePool.font(column.getFontName(), true, column.isItalic(), column.getColor(),
+                    column.getFontSize())
+                    : stylePool.font(column.getFontName(), true, false, Font.COLOR_NORMAL, (short) 15);
+            headerStyles[i] = stylePool.style(true, headerFont, null);
+            styles[i] = dataStyle(stylePool, column);
+            writers[i] = ExcelCells.writer(column.getValueType());
+        }
+        this.rowHeight = this.columns[size - 1].getHeight();
+        this.setRowHeight = xls;
+    }
+
+    /**
+     * style of the data cells of a column
+     * @param stylePool style pool of the workbook
+     * @param column column
+     * @return style
+     */
+    static CellStyle dataStyle(ExcelStylePool stylePool, ExcelColumn column) {
+        //整数列不设置数据格式
+        String format = column.getValueType() == ExcelValueType.INTEGER ? null : column.getFormat();
+        return stylePool.style(true, stylePool.font(column.getFontName(), column.isBold(), column.isItalic(),
+                column.getColor(), column.getFontSize()), format);
+    }
+
+    /**
+     * style of the data cells of the column at the position
+     * @param position position of the column in the index order
+     * @return style
+     */
+    CellStyle getStyle(int position) {
+        return styles[position];
+    }
+
+    /**
+     * create a sheet with the title row and the header row, called by the thread owning the workbook
+     * @param sheetIndex index of the sheet, the first sheet has the name of the class, the next ones a suffix
+     * @return sheet
+     */
+    Sheet createSheet(int sheetIndex) {
+        Sheet sheet = workbook.createSheet(sheetIndex == 0 ? sheetName : sheetName + "-" + (sheetIndex + 1));
+        createTitleRow(sheet);
+        Row headerRow = sheet.createRow(1);
+        for (int i = 0; i < columns.length; i++) {
+            sheet.setColumnWidth(columns[i].getIndex(), columns[i].getWidth() * 256);
+            Cell cell = headerRow.createCell(columns[i].getIndex());
+            cell.setCellValue(columns[i].getTitle());
+            cell.setCellStyle(headerStyles[i]);
+        }
+        return sheet;
+    }
+
+    /**
+     * write data rows from {@link #FIRST_DATA_ROW}
+     * @param sheet sheet created by this writer
+     * @param iterator data
+     * @param maxRows rows written at most, the rest is left in the iterator
+     * @param <E> data type
+     * @return rows written
+     */
+    <E> int writeRows(Sheet sheet, Iterator<? extends E> iterator, int maxRows) {
+        int count = 0;
+        while (count < maxRows && iterator.hasNext()) {
+            E data = iterator.next();
+            Row dataRow = sheet.createRow(FIRST_DATA_ROW + count);
+            if (setRowHeight) {
+                dataRow.setHeightInPoints(rowHeight);
+            }
+            for (int i = 0; i < columns.length; i++) {
+                Cell cell = dataRow.createCell(columns[i].getIndex());
+                cell.setCellStyle(styles[i]);
+                Object value = columns[i].getValue(data);
+                if (Objects.isNull(value)) {
+                    cell.setBlank();
+                } else {
+                    writers[i].write(cell, value);
+                }
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private void createTitleRow(Sheet sheet) {
+        Row titleRow = sheet.createRow(0);
+        titleRow.setHeightInPoints(titleHeight);
+        Cell titleCell = titleRow.createCell(0);
+        CellRangeAddress cellRangeAddress = new CellRangeAddress(0, 0, 0, columns.length - 1);
+        sheet.addMergedRegion(cellRangeAddress);
+        titleCell.setCellStyle(titleStyle);
+        RegionUtil.setBorderBottom(BorderStyle.THIN, cellRangeAddress, sheet);
+        RegionUtil.setBorderLeft(BorderStyle.THIN, cellRangeAddress, sheet);
+        RegionUtil.setBorderRight(BorderStyle.THIN, cellRangeAddress, sheet);
+        RegionUtil.setBorderTop(BorderStyle.THIN, cellRangeAddress, sheet);
+        titleCell.setCellValue(sheetName);
+    }
+}
@@ -0,0 +1,469 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.excel;
+
+import com.github.jackieonway.util.export.ImportException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.xml.sax.SAXException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Constructor;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * <p>reads the rows of an xlsx sheet one by one into beans without loading the workbook. The upload is copied to
+ * a temp file, the package is opened from the file, only the shared strings are kept in memory and the sheet xml
+ * is pulled with StAX, so the memory does not grow with the number of rows.
+ * <p>rows before the header row, e.g. the title row, are skipped. If no header is found in the first
+ * {@value #HEADER_SCAN_ROWS} rows the sheet has no header and every row is data.
+ * <p>not thread safe, close it to release the package and delete the temp file.
+ * @param <E> bean type
+ * @author Jackie
+ * @version $id: ExcelStreamingReader.java v 0.1 2021-10-19 15:10 Jackie Exp $$
+ * @since 1.0.3
+ */
+final class ExcelStreamingReader<E> implements Iterator<E>, Closeable {
+
+    private static final int HEADER_SCAN_ROWS = 10;
+
+    private static final String ROW = "row";
+    private static final String CELL = "c";
+    private static final String VALUE = "v";
+    private static final String TEXT = "t";
+    private static final String INLINE_STRING = "is";
+    private static final String REFERENCE = "r";
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+
+    static {
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final Constructor<E> constructor;
+
+    private final ExcelColumn[] headers;
+
+    private final File tempFile;
+
+    private final OPCPackage opcPackage;
+
+    private final ReadOnlySharedStringsTable sharedStrings;
+
+    private final InputStream sheetStream;
+
+    private final XMLStreamReader reader;
+
+    private final Deque<RawRow> pending = new ArrayDeque<>();
+
+    private boolean headerResolved;
+
+    private E next;
+
+    private ExcelStreamingReader(Class<E> clazz, String sheetName, File tempFile) throws IOException {
+        this.headers = ExcelImportUtils.columnsByCellIndex(ExcelTools.getColumns(clazz));
+        this.tempFile = tempFile;
+        try {
+            this.constructor = clazz.getDeclaredConstructor();
+            this.opcPackage = OPCPackage.open(tempFile, PackageAccess.READ);
+        } catch (NoSuchMethodException | OpenXML4JException e) {
+            throw new ImportException(e.getMessage(), e);
+        }
+        try {
+            XSSFReader xssfReader = new XSSFReader(opcPackage);
+            this.sharedStrings = new ReadOnlySharedStringsTable(opcPackage, false);
+            this.sheetStream = openSheet(xssfReader, sheetName);
+            this.reader = XML_INPUT_FACTORY.createXMLStreamReader(sheetStream);
+        } catch (OpenXML4JException | SAXException | XMLStreamException | RuntimeException e) {
+            opcPackage.revert();
+            throw new ImportException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * open the sheet of the class
+     * @param inputStream xlsx content, copied to a temp file and not closed
+     * @param clazz bean class
+     * @param sheetName sheet to read
+     * @param <E> bean type
+     * @return reader, the caller closes it
+     */
+    static <E> ExcelStreamingReader<E> open(InputStream inputStream, Class<E> clazz, String sheetName) {
+        File tempFile = null;
+        try {
+            tempFile = File.createTempFile("jackie-import", ".xlsx");
+            Files.copy(inputStream, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return new ExcelStreamingReader<>(clazz, sheetName, tempFile);
+        } catch (IOException e) {
+            deleteQuietly(tempFile);
+            throw new ImportException(e.getMessage(), e);
+        } catch (RuntimeException e) {
+            deleteQuietly(tempFile);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (Objects.nonNull(next)) {
+            return true;
+        }
+        RawRow row = nextRow();
+        if (Objects.isNull(row)) {
+            return false;
+        }
+        next = toBean(row);
+        return true;
+    }
+
+    /**
+     * next rows without converting them, the shared strings are already resolved, so the rows may be converted
+     * by other threads with {@link #toBeans(List)}, see {@link ExcelImportUtils#importExcel(InputStream, Class,
+     * int, java.util.function.Consumer, ExcelImportOptions)}
+     * @param size rows read at most
+     * @return rows, empty at the end of the sheet
+     */
+    List<RawRow> nextRows(int size) {
+        List<RawRow> rows = new ArrayList<>(size);
+        RawRow row;
+        while (rows.size() < size && Objects.nonNull(row = nextRow())) {
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * convert rows into beans, thread safe
+     * @param rows rows of {@link #nextRows(int)}
+     * @return beans in the order of the rows
+     */
+    List<E> toBeans(List<RawRow> rows) {
+        List<E> beans = new ArrayList<>(rows.size());
+        for (RawRow row : rows) {
+            beans.add(toBean(row));
+        }
+        return beans;
+    }
+
+    /**
+     * convert and validate a row, a missing required value, a text not matching the regex or a value that can not
+     * be converted is an error of the row
+     * @param row row of {@link #nextRows(int)}
+     * @param errors errors of the row are added
+     * @return bean, null if the row has errors
+     */
+    E toValidBean(RawRow row, List<ExcelRowError> errors) {
+        E instance;
+        try {
+            instance = constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ImportException(e.getMessage(), e);
+        }
+        boolean valid = true;
+        for (int i = 0; i < headers.length; i++) {
+            ExcelColumn column = headers[i];
+            if (Objects.isNull(column)) {
+                continue;
+            }
+            String value = row.values[i];
+            if (Objects.isNull(value) || value.isEmpty()) {
+                if (column.isRequired()) {
+                    errors.add(new ExcelRowError(row.number, i, column.getTitle(), null, "required"));
+                    valid = false;
+                }
+                continue;
+            }
+            if (!column.matches(value)) {
+                errors.add(new ExcelRowError(row.number, i, column.getTitle(), value,
+                        "does not match " + column.getRegex()));
+                valid = false;
+                continue;
+            }
+            try {
+                column.setValue(instance, convert(column.getValueType(), row.kinds[i], value));
+            } catch (RuntimeException e) {
+                errors.add(new ExcelRowError(row.number, i, column.getTitle(), value,
+                        "can not convert to " + column.getType().getSimpleName() + ": " + e.getMessage()));
+                valid = false;
+            }
+        }
+        return valid ? instance : null;
+    }
+
+    private RawRow nextRow() {
+        if (!headerResolved) {
+            resolveHeader();
+        }
+        return pending.isEmpty() ? readRow() : pending.poll();
+    }
+
+    @Override
+    public E next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        E bean = next;
+        next = null;
+        return bean;
+    }
+
+    @Override
+    public void close() {
+        try {
+            reader.close();
+            sheetStream.close();
+        } catch (XMLStreamException | IOException e) {
+            // released with the package
+        } finally {
+            opcPackage.revert();
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private static InputStream openSheet(XSSFReader xssfReader, String sheetName)
+            throws IOException, OpenXML4JException {
+        XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+        while (sheets.hasNext()) {
+            InputStream sheet = sheets.next();
+            if (sheetName.equals(sheets.getSheetName())) {
+                return sheet;
+            }
+            sheet.close();
+        }
+        throw new ImportException(String.format("excel can not find sheet [%s]", sheetName));
+    }
+
+    private void resolveHeader() {
+        headerResolved = true;
+        List<RawRow> scanned = new ArrayList<>(HEADER_SCAN_ROWS);
+        while (scanned.size() < HEADER_SCAN_ROWS) {
+            RawRow row = readRow();
+            if (Objects.isNull(row)) {
+                break;
+            }
+            if (isHeader(row)) {
+                return;
+            }
+            scanned.add(row);
+        }
+        pending.addAll(scanned);
+    }
+
+    private boolean isHeader(RawRow row) {
+        for (int i = 0; i < headers.length; i++) {
+            if (Objects.nonNull(row.values[i]) && row.kinds[i] == RawRow.STRING
+                    && row.values[i].equals(headers[i].getTitle())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * next row of the sheet
+     * @return row, null at the end of the sheet
+     */
+    private RawRow readRow() {
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && ROW.equals(reader.getLocalName())) {
+                    return parseRow();
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new ImportException(e.getMessage(), e);
+        }
+    }
+
+    private RawRow parseRow() throws XMLStreamException {
+        String rowReference = reader.getAttributeValue(null, REFERENCE);
+        RawRow row = new RawRow(Objects.isNull(rowReference) ? -1 : Integer.parseInt(rowReference), headers.length);
+        int column = -1;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT && ROW.equals(reader.getLocalName())) {
+                return row;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT && CELL.equals(reader.getLocalName())) {
+                String reference = reader.getAttributeValue(null, REFERENCE);
+                column = Objects.isNull(reference) ? column + 1 : columnIndex(reference);
+                parseCell(row, column, reader.getAttributeValue(null, TEXT));
+            }
+        }
+        return row;
+    }
+
+    private void parseCell(RawRow row, int column, String type) throws XMLStreamException {
+        StringBuilder value = null;
+        boolean inlineString = false;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = reader.getLocalName();
+                if (CELL.equals(name)) {
+                    break;
+                }
+                if (INLINE_STRING.equals(name)) {
+                    inlineString = false;
+                }
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                if (INLINE_STRING.equals(name)) {
+                    inlineString = true;
+                } else if (VALUE.equals(name) || (inlineString && TEXT.equals(name))) {
+                    if (Objects.isNull(value)) {
+                        value = new StringBuilder();
+                    }
+                    value.append(reader.getElementText());
+                }
+            }
+        }
+        if (Objects.isNull(value) || column >= headers.length || Objects.isNull(headers[column])) {
+            return;
+        }
+        String text = value.toString();
+        if (Objects.isNull(type) || "n".equals(type)) {
+            row.set(column, RawRow.NUMERIC, text);
+        } else if ("s".equals(type)) {
+            row.set(column, RawRow.STRING, sharedStrings.getItemAt(Integer.parseInt(text)).getString());
+        } else if ("b".equals(type)) {
+            row.set(column, RawRow.BOOLEAN, text);
+        } else if (!"e".equals(type)) {
+            //inlineStr, str 公式结果, d ISO 日期
+            row.set(column, RawRow.STRING, text);
+        }
+    }
+
+    private E toBean(RawRow row) {
+        E instance;
+        try {
+            instance = constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ImportException(e.getMessage(), e);
+        }
+        for (int i = 0; i < headers.length; i++) {
+            if (Objects.isNull(row.values[i])) {
+                continue;
+            }
+            try {
+                headers[i].setValue(instance, convert(headers[i].getValueType(), row.kinds[i], row.values[i]));
+            } catch (RuntimeException e) {
+                throw new ImportException(String.format("row %d column %d [%s]: %s", row.number, i,
+                        row.values[i], e.getMessage()), e);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * value of a cell as the field type, same conversions as the workbook import
+     */
+    private static Object convert(ExcelValueType valueType, byte kind, String value) {
+        boolean numeric = kind == RawRow.NUMERIC;
+        switch (valueType) {
+            case INTEGER:
+                return numeric ? Integer.valueOf((int) Double.parseDouble(value)) : Integer.valueOf(value);
+            case LONG:
+                return numeric ? Long.valueOf((long) Double.parseDouble(value)) : Long.valueOf(value);
+            case DOUBLE:
+                return Double.valueOf(value);
+            case FLOAT:
+                return numeric ? Float.valueOf((float) Double.parseDouble(value)) : Float.valueOf(value);
+            case BOOLEAN:
+                return kind == RawRow.BOOLEAN ? "1".equals(value) : Boolean.parseBoolean(value);
+            case BIG_DECIMAL:
+                return new BigDecimal(value);
+            case LOCAL_DATE:
+                return dateValue(numeric, value).toLocalDate();
+            case LOCAL_DATE_TIME:
+                return dateValue(numeric, value);
+            case DATE:
+                if (!numeric) {
+                    throw new IllegalStateException("not a date cell");
+                }
+                return DateUtil.getJavaDate(Double.parseDouble(value));
+            default:
+                return kind == RawRow.BOOLEAN ? String.valueOf("1".equals(value)) : value;
+        }
+    }
+
+    private static LocalDateTime dateValue(boolean numeric, String value) {
+        if (!numeric) {
+            throw new IllegalStateException("not a date cell");
+        }
+        return DateUtil.getLocalDateTime(Double.parseDouble(value));
+    }
+
+    /**
+     * zero based column of a cell reference, e.g. 2 of C7
+     */
+    private static int columnIndex(String reference) {
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char c = reference.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    private static void deleteQuietly(File file) {
+        if (Objects.nonNull(file) && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+
+    /**
+     * raw values of the cells of a row at their column
+     */
+    static final class RawRow {
+
+        private static final byte NUMERIC = 0;
+        private static final byte STRING = 1;
+        private static final byte BOOLEAN = 2;
+
+        private final int number;
+
+        private final String[] values;
+
+        private final byte[] kinds;
+
+        private RawRow(int number, int columns) {
+            this.number = number;
+            this.values = new String[columns];
+            this.kinds = new byte[columns];
+        }
+
+        private void set(int column, byte kind, String value) {
+            values[column] = value;
+            kinds[column] = kind;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.excel;
+
+import com.github.jackieonway.util.StringUtils;
+import org.apache.poi.ss.usermodel.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>fonts, cell styles and data formats of one workbook, each distinct combination is created once and shared
+ * by every cell using it. A workbook holds at most 64000 cell styles, a style per cell runs out of them.
+ * <p>not thread safe, like the workbook it belongs to.
+ * @author Jackie
+ * @version $id: ExcelStylePool.java v 0.1 2021-10-18 14:20 Jackie Exp $$
+ * @since 1.0.3
+ */
+final class ExcelStylePool {
+
+    private final Workbook workbook;
+
+    private final Map<String, Font> fonts = new HashMap<>();
+
+    private final Map<String, CellStyle> styles = new HashMap<>();
+
+    private DataFormat dataFormat;
+
+    ExcelStylePool(Workbook workbook) {
+        this.workbook = workbook;
+    }
+
+    /**
+     * shared font
+     * @param fontName font name
+     * @param bold bold
+     * @param italic italic
+     * @param color color
+     * @param fontSize font size in points
+     * @return font
+     */
+    Font font(String fontName, boolean bold, boolean italic, short color, short fontSize) {
+        String key = fontName + '|' + bold + '|' + italic + '|' + color + '|' + fontSize;
+        Font font = fonts.get(key);
+        if (Objects.isNull(font)) {
+            font = workbook.createFont();
+            font.setFontName(fontName);
+            font.setBold(bold);
+            font.setItalic(italic);
+            font.setColor(color);
+            font.setFontHeightInPoints(fontSize);
+            fonts.put(key, font);
+        }
+        return font;
+    }
+
+    /**
+     * shared bordered, centered and wrapped style
+     * @param filled solid foreground fill, as the header and data cells
+     * @param font font
+     * @param format data format, blank for the general format
+     * @return style
+     */
+    CellStyle style(boolean filled, Font font, String format) {
+        String key = filled + "|" + font.getIndexAsInt() + '|' + (StringUtils.isBlank(format) ? "" : format);
+        CellStyle style = styles.get(key);
+        if (Objects.isNull(style)) {
+            style = workbook.createCellStyle();
+            style.setBorderLeft(BorderStyle.THIN);
+            style.setBorderBottom(BorderStyle.THIN);
+            style.setBorderRight(BorderStyle.THIN);
+            style.setBorderTop(BorderStyle.THIN);
+            style.setAlignment(HorizontalAlignment.CENTER);
+            style.setVerticalAlignment(VerticalAlignment.CENTER);
+            style.setWrapText(true);
+            if (filled) {
+                style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            }
+            style.setFont(font);
+            if (StringUtils.isNotBlank(format)) {
+                if (Objects.isNull(dataFormat)) {
+                    dataFormat = workbook.createDataFormat();
+                }
+                style.setDataFormat(dataFormat.getFormat(format));
+            }
+            styles.put(key, style);
+        }
+        return style;
+    }
+}
@@ -0,0 +1,365 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.excel;
+
+import com.github.jackieonway.util.export.ExportException;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * <p>pre-rendered xlsx of an {@link ExcelFile} class, the title row, the header row and the styles of the data
+ * cells are rendered by poi once and kept as the parts of the file. An export copies the parts and streams only
+ * the xml of the data rows into the sheet, no workbook, style or temp file is created per export, which makes
+ * small exports several times faster, see {@link ExcelExportUtils#export(OutputStream, Iterator, ExcelTemplate)}.
+ * <p>{@link #of(Class)} renders the template from the annotations and caches it per class,
+ * {@link #load(InputStream, Class)} takes a styled xlsx, e.g. with a logo or notes above the header, the data
+ * rows are written below its last row with the styles of the {@link ExcelField}. The caller keeps the template
+ * of a file.
+ * <blockquote><pre>
+ *     private static final ExcelTemplate&lt;User&gt; USER_TEMPLATE =
+ *             ExcelTemplate.load(UserController.class.getResourceAsStream("/user.xlsx"), User.class);
+ *
+ *     ExcelExportUtils.export(response.getOutputStream(), users, USER_TEMPLATE);
+ * </pre></blockquote>
+ * <p>thread safe and immutable.
+ * @param <E> export type
+ * @author Jackie
+ * @version $id: ExcelTemplate.java v 0.1 2021-10-23 09:30 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class ExcelTemplate<E> {
+
+    private static final Map<Class<?>, ExcelTemplate<?>> TEMPLATE_CACHE = new ConcurrentHashMap<>(64);
+
+    private static final int MAX_ROWS = 1048576;
+
+    private static final String SHEET_DATA_END = "</sheetData>";
+
+    private static final String EMPTY_SHEET_DATA = "<sheetData/>";
+
+    private static final String DIMENSION = "<dimension ref=\"[^\"]*\"/>";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Class<E> type;
+
+    private final List<Part> parts;
+
+    private final String sheetPartName;
+
+    private final byte[] sheetPrefix;
+
+    private final byte[] sheetSuffix;
+
+    private final int firstDataRow;
+
+    private final ExcelColumn[] columns;
+
+    private final ExcelValueType[] valueTypes;
+
+    private final String[] cellStarts;
+
+    private final String[] cellStyles;
+
+    private final boolean date1904;
+
+    private ExcelTemplate(Class<E> type, XSSFWorkbook workbook, Sheet sheet, CellStyle[] styles,
+                          List<ExcelColumn> columns, int firstDataRow) throws IOException {
+        this.type = type;
+        this.firstDataRow = firstDataRow;
+        this.date1904 = workbook.isDate1904();
+        int size = columns.size();
+        this.columns = columns.toArray(new ExcelColumn[0]);
+        this.valueTypes = new ExcelValueType[size];
+        this.cellStarts = new String[size];
+        this.cellStyles = new String[size];
+        for (int i = 0; i < size; i++) {
+            valueTypes[i] = this.columns[i].getValueType();
+            cellStarts[i] = "<c r=\"" + CellReference.convertNumToColString(this.columns[i].getIndex());
+            short styleIndex = styles[i].getIndex();
+            cellStyles[i] = styleIndex == 0 ? "\"" : "\" s=\"" + styleIndex + "\"";
+        }
+        this.sheetPartName = ((XSSFSheet) sheet).getPackagePart().getPartName().getName().substring(1);
+        ByteArrayOutputStream rendered = new ByteArrayOutputStream();
+        workbook.write(rendered);
+        workbook.close();
+        this.parts = new ArrayList<>();
+        byte[] sheetXml = null;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(rendered.toByteArray()))) {
+            ZipEntry entry;
+            while (Objects.nonNull(entry = zip.getNextEntry())) {
+                byte[] content = readEntry(zip);
+                if (sheetPartName.equals(entry.getName())) {
+                    sheetXml = content;
+                }
+                parts.add(new Part(entry.getName(), content));
+            }
+        }
+        if (Objects.isNull(sheetXml)) {
+            throw new ExportException(String.format("template can not find sheet part [%s]", sheetPartName));
+        }
+        //行数变化后 dimension 不再准确, 去掉由 excel 重新计算
+        String xml = new String(sheetXml, StandardCharsets.UTF_8).replaceFirst(DIMENSION, "");
+        int end = xml.lastIndexOf(SHEET_DATA_END);
+        if (end >= 0) {
+            this.sheetPrefix = xml.substring(0, end).getBytes(StandardCharsets.UTF_8);
+            this.sheetSuffix = xml.substring(end).getBytes(StandardCharsets.UTF_8);
+        } else {
+            int empty = xml.indexOf(EMPTY_SHEET_DATA);
+            if (empty < 0) {
+                throw new ExportException("template sheet has no sheet data");
+            }
+            this.sheetPrefix = (xml.substring(0, empty) + "<sheetData>").getBytes(StandardCharsets.UTF_8);
+            this.sheetSuffix = (SHEET_DATA_END + xml.substring(empty + EMPTY_SHEET_DATA.length()))
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * template rendered from the annotations of the class, rendered once and cached
+     * @param clazz xlsx {@link ExcelFile} class
+     * @param <E> export type
+     * @return template
+     */
+    @SuppressWarnings("unchecked")
+    public static <E> ExcelTemplate<E> of(Class<E> clazz) {
+        ExcelTemplate<?> template = TEMPLATE_CACHE.get(clazz);
+        if (Objects.isNull(template)) {
+            template = TEMPLATE_CACHE.computeIfAbsent(clazz, ExcelTemplate::render);
+        }
+        return (ExcelTemplate<E>) template;
+    }
+
+    /**
+     * template of a styled xlsx, the sheet of the {@link ExcelFile#sheetName()} or else the first sheet is kept as
+     * it is and the data rows are written below its last row
+     * @param inputStream xlsx template, not closed
+     * @param clazz {@link ExcelFile} class
+     * @param <E> export type
+     * @return template
+     */
+    public static <E> ExcelTemplate<E> load(InputStream inputStream, Class<E> clazz) {
+        if (Objects.isNull(inputStream)) {
+            throw new ExportException("template inputStream is null");
+        }
+        Map<String, Object> excelFileMap = checkAndGetClassFile(clazz);
+        try {
+            XSSFWorkbook workbook = new XSSFWorkbook(inputStream);
+            Sheet sheet = workbook.getSheet(excelFileMap.get("sheetName").toString());
+            if (Objects.isNull(sheet)) {
+                sheet = workbook.getSheetAt(0);
+            }
+            List<ExcelColumn> columns = ExcelTools.getColumns(clazz);
+            ExcelStylePool stylePool = new ExcelStylePool(workbook);
+            CellStyle[] styles = new CellStyle[columns.size()];
+            for (int i = 0; i < styles.length; i++) {
+                styles[i] = ExcelSheetWriter.dataStyle(stylePool, columns.get(i));
+            }
+            int firstDataRow = sheet.getPhysicalNumberOfRows() == 0 ? 0 : sheet.getLastRowNum() + 1;
+            return new ExcelTemplate<>(clazz, workbook, sheet, styles, columns, firstDataRow);
+        } catch (IOException e) {
+            throw new ExportException(e.getMessage(), e);
+        }
+    }
+
+    private static <E> ExcelTemplate<E> render(Class<E> clazz) {
+        Map<String, Object> excelFileMap = checkAndGetClassFile(clazz);
+        if (ExcelType.XLS.equals(excelFileMap.get(ExcelTools.TYPE))) {
+            throw new ExportException("template export only supports xlsx");
+        }
+        List<ExcelColumn> columns = ExcelTools.getColumns(clazz);
+        XSSFWorkbook workbook = new XSSFWorkbook();
+        ExcelSheetWriter sheetWriter = new ExcelSheetWriter(workbook, columns, excelFileMap, false);
+        Sheet sheet = sheetWriter.createSheet(0);
+        CellStyle[] styles = new CellStyle[columns.size()];
+        for (int i = 0; i < styles.length; i++) {
+            styles[i] = sheetWriter.getStyle(i);
+        }
+        try {
+            return new ExcelTemplate<>(clazz, workbook, sheet, styles, columns, ExcelSheetWriter.FIRST_DATA_ROW);
+        } catch (IOException e) {
+            throw new ExportException(e.getMessage(), e);
+        }
+    }
+
+    private static Map<String, Object> checkAndGetClassFile(Class<?> clazz) {
+        if (!clazz.isAnnotationPresent(ExcelFile.class)){
+            throw new ExportException(String.format("class [%s] can  not find annotation ExcelFile",clazz));
+        }
+        return ExcelTools.putClassFileAndGet(clazz);
+    }
+
+    public Class<E> getType() {
+        return type;
+    }
+
+    /**
+     * write the template with the data rows
+     * @param outputStream xlsx output, not closed
+     * @param iterator data rows
+     */
+    void write(OutputStream outputStream, Iterator<? extends E> iterator) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(outputStream);
+        for (Part part : parts) {
+            zip.putNextEntry(new ZipEntry(part.name));
+            if (sheetPartName.equals(part.name)) {
+                zip.write(sheetPrefix);
+                Writer out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), BUFFER_SIZE);
+                writeRows(out, iterator);
+                out.flush();
+                zip.write(sheetSuffix);
+            } else {
+                zip.write(part.content);
+            }
+            zip.closeEntry();
+        }
+        zip.finish();
+    }
+
+    private void writeRows(Writer out, Iterator<? extends E> iterator) throws IOException {
+        int rowIndex = firstDataRow;
+        while (iterator.hasNext()) {
+            if (rowIndex >= MAX_ROWS) {
+                throw new ExportException("Excel 2007 type can export max less than 1048576 rows");
+            }
+            E data = iterator.next();
+            String rowNumber = Integer.toString(rowIndex + 1);
+            out.write("<row r=\"");
+            out.write(rowNumber);
+            out.write("\">");
+            for (int i = 0; i < columns.length; i++) {
+                out.write(cellStarts[i]);
+                out.write(rowNumber);
+                out.write(cellStyles[i]);
+                writeValue(out, valueTypes[i], columns[i].getValue(data));
+            }
+            out.write("</row>");
+            rowIndex++;
+        }
+    }
+
+    /**
+     * value of a cell after the style attribute, same cell types as {@link ExcelCells#writer(ExcelValueType)}
+     */
+    private void writeValue(Writer out, ExcelValueType valueType, Object value) throws IOException {
+        if (Objects.isNull(value)) {
+            out.write("/>");
+            return;
+        }
+        switch (valueType) {
+            case DOUBLE:
+            case FLOAT:
+                writeNumber(out, ((Number) value).doubleValue());
+                return;
+            case BOOLEAN:
+                out.write((Boolean) value ? " t=\"b\"><v>1</v></c>" : " t=\"b\"><v>0</v></c>");
+                return;
+            case LOCAL_DATE:
+                writeNumber(out, DateUtil.getExcelDate((LocalDate) value, date1904));
+                return;
+            case LOCAL_DATE_TIME:
+                writeNumber(out, DateUtil.getExcelDate((LocalDateTime) value, date1904));
+                return;
+            case DATE:
+                writeNumber(out, DateUtil.getExcelDate((Date) value, date1904));
+                return;
+            default:
+                writeText(out, value.toString());
+        }
+    }
+
+    private static void writeNumber(Writer out, double value) throws IOException {
+        if (Double.isNaN(value)) {
+            out.write(" t=\"e\"><v>#NUM!</v></c>");
+        } else if (Double.isInfinite(value)) {
+            out.write(" t=\"e\"><v>#DIV/0!</v></c>");
+        } else {
+            out.write("><v>");
+            out.write(Double.toString(value));
+            out.write("</v></c>");
+        }
+    }
+
+    private static void writeText(Writer out, String text) throws IOException {
+        int length = text.length();
+        boolean preserve = length > 0
+                && (Character.isWhitespace(text.charAt(0)) || Character.isWhitespace(text.charAt(length - 1)));
+        out.write(preserve ? " t=\"inlineStr\"><is><t xml:space=\"preserve\">" : " t=\"inlineStr\"><is><t>");
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            String escaped;
+            if (c == '<') {
+                escaped = "&lt;";
+            } else if (c == '>') {
+                escaped = "&gt;";
+            } else if (c == '&') {
+                escaped = "&amp;";
+            } else if (c == '"') {
+                escaped = "&quot;";
+            } else if (c == '\n') {
+                escaped = "&#xa;";
+            } else if (c == '\r') {
+                escaped = "&#xd;";
+            } else if (c == '\t') {
+                escaped = "&#x9;";
+            } else if (c < ' ' || c == '\uFFFE' || c == '\uFFFF') {
+                //xml 不允许的字符
+                escaped = "?";
+            } else {
+                continue;
+            }
+            out.write(text, start, i - start);
+            out.write(escaped);
+            start = i + 1;
+        }
+        out.write(text, start, length - start);
+        out.write("</t></is></c>");
+    }
+
+    private static byte[] readEntry(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) > 0) {
+            content.write(buffer, 0, read);
+        }
+        return content.toByteArray();
+    }
+
+    /**
+     * part of the xlsx package
+     */
+    private static final class Part {
+
+        private final String name;
+
+        private final byte[] content;
+
+        private Part(String name, byte[] content) {
+            this.name = name;
+            this.content = content;
+        }
+    }
+}
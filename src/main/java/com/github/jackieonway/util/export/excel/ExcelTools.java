@@ -8,8 +8,12 @@ import com.github.jackieonway.util.collection.CollectionUtils;
 import com.github.jackieonway.util.export.ExportException;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -30,6 +34,8 @@ public enum ExcelTools {
     private static final Map<String, Map<Integer, Map<String, Object>>> CLASS_FIELD_CACHE =
             new ConcurrentHashMap<>(512);
 
+    private static final Map<Class<?>, List<ExcelColumn>> CLASS_COLUMN_CACHE = new ConcurrentHashMap<>(512);
+
     public static final String HEIGHT = "height";
     public static final String BOLD = "bold";
     public static final String ITALIC = "italic";
@@ -69,6 +75,39 @@ public enum ExcelTools {
         return headers;
     }
 
+    /**
+     * columns of the class in the order of their index, compiled once per class
+     * @param clazz excel class
+     * @return immutable columns
+     * @throws ExportException a field misses {@link ExcelIndex}, or no field has {@link ExcelField}
+     * @since 1.0.3
+     */
+    public static List<ExcelColumn> getColumns(Class<?> clazz) {
+        List<ExcelColumn> columns = CLASS_COLUMN_CACHE.get(clazz);
+        if (Objects.isNull(columns)) {
+            columns = CLASS_COLUMN_CACHE.computeIfAbsent(clazz, ExcelTools::compileColumns);
+        }
+        return columns;
+    }
+
+    private static List<ExcelColumn> compileColumns(Class<?> clazz) {
+        Map<Integer, ExcelColumn> columns = new TreeMap<>();
+        for (Field declaredField : clazz.getDeclaredFields()) {
+            if (declaredField.isAnnotationPresent(ExcelField.class)) {
+                if (!declaredField.isAnnotationPresent(ExcelIndex.class)) {
+                    throw new ExportException("Export excel can not find annotation ExcelIndex");
+                }
+                ExcelIndex excelIndex = declaredField.getAnnotation(ExcelIndex.class);
+                ExcelField excelField = declaredField.getAnnotation(ExcelField.class);
+                columns.put(excelIndex.index(), new ExcelColumn(declaredField, excelIndex, excelField));
+            }
+        }
+        if (CollectionUtils.isEmpty(columns)){
+            throw new ExportException("can not find any excel field!");
+        }
+        return Collections.unmodifiableList(new ArrayList<>(columns.values()));
+    }
+
     private static Map<Integer, Map<String, Object>> getHeaders(Field[] declaredFields,String className) {
         Map<Integer,Map<String,Object>> headers = new TreeMap<>();
         for(Field declaredField : declaredFields){
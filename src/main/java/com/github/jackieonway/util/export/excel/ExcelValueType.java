@@ -0,0 +1,60 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.export.excel;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+
+/**
+ * value type of an excel column, resolved once from the field type
+ * @author Jackie
+ * @version $id: ExcelValueType.java v 0.1 2021-10-19 09:20 Jackie Exp $$
+ * @since 1.0.3
+ */
+enum ExcelValueType {
+    INTEGER,
+    LONG,
+    DOUBLE,
+    FLOAT,
+    BOOLEAN,
+    BIG_DECIMAL,
+    LOCAL_DATE,
+    LOCAL_DATE_TIME,
+    DATE,
+    STRING;
+
+    static ExcelValueType of(Class<?> type) {
+        if (int.class.equals(type) || Integer.class.equals(type)) {
+            return INTEGER;
+        }
+        if (long.class.equals(type) || Long.class.equals(type)) {
+            return LONG;
+        }
+        if (double.class.equals(type) || Double.class.equals(type)) {
+            return DOUBLE;
+        }
+        if (float.class.equals(type) || Float.class.equals(type)) {
+            return FLOAT;
+        }
+        if (boolean.class.equals(type) || Boolean.class.equals(type)) {
+            return BOOLEAN;
+        }
+        if (BigDecimal.class.equals(type)) {
+            return BIG_DECIMAL;
+        }
+        if (LocalDate.class.equals(type)) {
+            return LOCAL_DATE;
+        }
+        if (LocalDateTime.class.equals(type)) {
+            return LOCAL_DATE_TIME;
+        }
+        if (Date.class.equals(type)) {
+            return DATE;
+        }
+        return STRING;
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.idgenerator;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * what to do when the system clock goes backwards
+ * @author Jackie
+ * @version $id: ClockBackwardsStrategy.java v 0.1 2021-09-24 09:40 Jackie Exp $$
+ * @since 1.0.3
+ */
+public enum ClockBackwardsStrategy {
+
+    /**
+     * sleep until the clock catches up with the last issued timestamp,
+     * throw {@link IllegalStateException} if it is further behind than maxBackwardsMillis
+     */
+    WAIT {
+        @Override
+        long resolveTimestamp(SequenceClock clock, long lastTimestamp, long now) {
+            long behind = lastTimestamp - now;
+            if (behind > clock.getMaxBackwardsMillis()) {
+                clock.getStats().incrementClockBackwards();
+                clock.getStats().incrementRejected();
+                throw new IllegalStateException(String.format("clock moved backwards %s ms, max: [%s]",
+                        behind, clock.getMaxBackwardsMillis()));
+            }
+            try {
+                while ((now = clock.now()) < lastTimestamp) {
+                    TimeUnit.MILLISECONDS.sleep(lastTimestamp - now);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("interrupted while waiting for clock", e);
+            }
+            return now;
+        }
+    },
+
+    /**
+     * go on with the last issued timestamp until the clock catches up
+     */
+    USE_LAST {
+        @Override
+        long resolveTimestamp(SequenceClock clock, long lastTimestamp, long now) {
+            return lastTimestamp;
+        }
+    },
+
+    /**
+     * throw {@link IllegalStateException}
+     */
+    THROW {
+        @Override
+        long resolveTimestamp(SequenceClock clock, long lastTimestamp, long now) {
+            clock.getStats().incrementClockBackwards();
+            clock.getStats().incrementRejected();
+            throw new IllegalStateException(String.format("clock moved backwards %s ms",
+                    lastTimestamp - now));
+        }
+    };
+
+    /**
+     * timestamp for the next id, a successful resolution is counted by the clock
+     * @param clock clock
+     * @param lastTimestamp timestamp of the last issued id
+     * @param now current timestamp, less than lastTimestamp
+     * @return timestamp, not less than lastTimestamp
+     */
+    abstract long resolveTimestamp(SequenceClock clock, long lastTimestamp, long now);
+}
@@ -1,73 +1,197 @@
 package com.github.jackieonway.util.idgenerator;
 
+import com.github.jackieonway.util.CoarseClock;
 import com.github.jackieonway.util.StringUtils;
 
 import java.math.BigInteger;
+import java.util.Objects;
 
 /**
+ * <p>string id generator: yyyyMMddHHmmssSSS + businessType + workId + sequence, encoded in radix.
+ * <p>the sequence starts from 0 in every millisecond, a used up sequence is handled by the
+ * {@link SequenceOverflowStrategy} and a backwards clock by the {@link ClockBackwardsStrategy}
+ * of the builder, see {@link #getStats()} for how often they fire.
+ * <p>in striped mode every stripe has its own lock and issues the sequences congruent to its index
+ * modulo the stripe count, the calling thread picks the stripe, so threads on different stripes never contend.
  * @author Jackie
  */
 public final class IdGenerator {
 
-    private static final int MAX_LENGTH = 9;
     private static final int DEFAULT_LENGTH = 8;
+
+    /**
+     * max digits of a long sequence
+     */
+    private static final int MAX_SEQUENCE_LENGTH = 18;
+
     private String businessType;
 
     private String workId;
 
     private int radix;
 
-	private IdGenerator(String workId, String businessType, int radix){
+    private final SequenceClock clock;
+
+    private final Stripe[] stripes;
+
+    private final int stripeMask;
+
+	private IdGenerator(String workId, String businessType, int radix, SequenceClock clock, int stripes){
 	    this.workId = workId;
 	    this.businessType = businessType;
 	    this.radix= radix;
+	    this.clock = clock;
+	    this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(i);
+        }
+        this.stripeMask = stripes - 1;
     }
 
-    private long seq = 0;
-
     /**
      * 得到8位的序列号,长度不足8位,前面补0
      * @return idSequence
      */
-    public synchronized String getSequence() {
-        String str = String.valueOf(seq++);
-        int len = str.length();
-        //达到8位则重新开始
-        if (len == MAX_LENGTH) {
-			seq = 0;
-			len = 1;
-			str = "0";
-			seq++;
-		}
-        return getSequence(str, len, DEFAULT_LENGTH);
+    public String getSequence() {
+        return getSequenceByLength(DEFAULT_LENGTH);
     }
 
-        /**
+    /**
      * 得到指定位数的序列号,长度不足指定位,前面补0
+     * @param length 序列号位数
      * @return idSequence
      */
-    public synchronized String getSequenceByLength(int length) {
-        String str = String.valueOf(seq++);
-        int len = str.length();
-        //达到length+1位则重新开始
-        if (len == length+1) {
-            seq = 0;
-            len = 1;
-            str = "0";
-            seq++;
-        }
-        return getSequence(str, len, length);
+    public String getSequenceByLength(int length) {
+        if (length < 1) {
+            length = DEFAULT_LENGTH;
+        }
+        long max = maxLocalSequence(length);
+        Stripe stripe = stripe();
+        long sequence;
+        long timestamp;
+        synchronized (stripe) {
+            sequence = nextSequence(stripe, max);
+            timestamp = stripe.lastTimestamp;
+        }
+        return toRadix(appendPrefix(new StringBuilder(), timestamp), sequence, length);
     }
 
-    private String getSequence(String str, int len, int length) {
+    /**
+     * 批量得到8位的序列号,只获取一次锁和时间前缀
+     * @param n 序列号个数
+     * @return idSequences
+     * @since 1.0.3
+     */
+    public String[] getSequences(int n) {
+        return getSequencesByLength(n, DEFAULT_LENGTH);
+    }
+
+    /**
+     * 批量得到指定位数的序列号,只获取一次锁和时间前缀
+     * @param n 序列号个数
+     * @param length 序列号位数
+     * @return idSequences
+     * @since 1.0.3
+     */
+    public String[] getSequencesByLength(int n, int length) {
+        if (n < 1) {
+            throw new IllegalArgumentException(String.format("n must greater than 0, value: [%s]", n));
+        }
         if (length < 1) {
             length = DEFAULT_LENGTH;
         }
-        int rest = length - len;
+        long max = maxLocalSequence(length);
         StringBuilder sb = new StringBuilder();
-        sb.append(TimeThreadLocal.getTime());
+        long prefixTimestamp = -1L;
+        int prefixLength = 0;
+        String[] sequences = new String[n];
+        Stripe stripe = stripe();
+        synchronized (stripe) {
+            for (int i = 0; i < n; i++) {
+                long sequence = nextSequence(stripe, max);
+                //毫秒变化时才重新生成前缀
+                if (prefixTimestamp != stripe.lastTimestamp) {
+                    sb.setLength(0);
+                    prefixLength = appendPrefix(sb, stripe.lastTimestamp).length();
+                    prefixTimestamp = stripe.lastTimestamp;
+                }
+                sb.setLength(prefixLength);
+                sequences[i] = toRadix(sb, sequence, length);
+            }
+        }
+        return sequences;
+    }
+
+    public int getStripes() {
+        return stripes.length;
+    }
+
+    public IdGeneratorStats getStats() {
+        return clock.getStats();
+    }
+
+    private Stripe stripe() {
+        return stripes[(int) Thread.currentThread().getId() & stripeMask];
+    }
+
+    /**
+     * 得到当前毫秒的下一个序列号,同时更新 stripe 的 lastTimestamp, 调用方需持有 stripe 的锁
+     * @param stripe stripe
+     * @param max stripe 内序列号最大值
+     * @return sequence
+     */
+    private long nextSequence(Stripe stripe, long max) {
+        long now = clock.now();
+        if (now < stripe.lastTimestamp) {
+            now = clock.behind(stripe.lastTimestamp, now);
+        }
+        if (now > stripe.lastTimestamp) {
+            stripe.lastTimestamp = now;
+            stripe.seq = 0;
+        } else if (stripe.seq >= max) {
+            stripe.lastTimestamp = clock.overflow(stripe.lastTimestamp);
+            stripe.seq = 0;
+        } else {
+            stripe.seq++;
+        }
+        return stripe.seq * stripes.length + stripe.index;
+    }
+
+    private long maxLocalSequence(int length) {
+        long max = sequenceCount(length) / stripes.length - 1;
+        if (max < 0) {
+            throw new IllegalArgumentException(String.format("length %s is too short for %s stripes",
+                    length, stripes.length));
+        }
+        return max;
+    }
+
+    /**
+     * count of sequences of the length
+     * @param length 序列号位数
+     * @return count
+     */
+    private static long sequenceCount(int length) {
+        if (length > MAX_SEQUENCE_LENGTH) {
+            return Long.MAX_VALUE;
+        }
+        long count = 1;
+        for (int i = 0; i < length; i++) {
+            count *= 10;
+        }
+        return count;
+    }
+
+    private StringBuilder appendPrefix(StringBuilder sb, long timestamp) {
+        CoarseClock.appendTo(sb, timestamp);
         sb.append(businessType);
         sb.append(workId);
+        return sb;
+    }
+
+    private String toRadix(StringBuilder sb, long sequence, int length) {
+        String str = String.valueOf(sequence);
+        int rest = length - str.length();
         for (int i = 0; i < rest; i++) {
             sb.append('0');
         }
@@ -75,13 +199,44 @@ public final class IdGenerator {
         return new BigInteger(sb.toString()).toString(this.radix);
     }
 
+    private static final class Stripe {
+
+        private final int index;
+
+        private long lastTimestamp = -1L;
+
+        private long seq = 0;
+
+        private Stripe(int index) {
+            this.index = index;
+        }
+    }
+
     public static class IdGeneratorBuilder{
+
+        private static final long DEFAULT_MAX_BACKWARDS_MILLIS = 10L;
+
+        /**
+         * max stripes derived from available processors
+         */
+        private static final int DEFAULT_MAX_STRIPES = 16;
+
         private String businessType;
 
         private String workId;
 
         private int radix;
 
+        private long epoch = SnowflakeIdGenerator.DEFAULT_EPOCH;
+
+        private SequenceOverflowStrategy overflowStrategy = SequenceOverflowStrategy.SPIN_WAIT;
+
+        private ClockBackwardsStrategy clockBackwardsStrategy = ClockBackwardsStrategy.WAIT;
+
+        private long maxBackwardsMillis = DEFAULT_MAX_BACKWARDS_MILLIS;
+
+        private int stripes = 1;
+
         public static IdGeneratorBuilder builder(){
             return new IdGeneratorBuilder();
         }
@@ -102,6 +257,66 @@ public final class IdGenerator {
             return this;
         }
 
+        /**
+         * what to do when the sequence of a millisecond is used up, default {@link SequenceOverflowStrategy#SPIN_WAIT}
+         * @param overflowStrategy overflow strategy
+         * @return builder
+         */
+        public IdGeneratorBuilder overflowStrategy(SequenceOverflowStrategy overflowStrategy) {
+            this.overflowStrategy = overflowStrategy;
+            return this;
+        }
+
+        /**
+         * what to do when the clock goes backwards, default {@link ClockBackwardsStrategy#WAIT}
+         * @param clockBackwardsStrategy clock backwards strategy
+         * @return builder
+         */
+        public IdGeneratorBuilder clockBackwardsStrategy(ClockBackwardsStrategy clockBackwardsStrategy) {
+            this.clockBackwardsStrategy = clockBackwardsStrategy;
+            return this;
+        }
+
+        /**
+         * max millis {@link ClockBackwardsStrategy#WAIT} waits for the clock, default 10
+         * @param maxBackwardsMillis max backwards millis
+         * @return builder
+         */
+        public IdGeneratorBuilder maxBackwardsMillis(long maxBackwardsMillis) {
+            this.maxBackwardsMillis = maxBackwardsMillis;
+            return this;
+        }
+
+        /**
+         * striped mode with stripes derived from available processors, at most 16
+         * @return builder
+         * @see #stripes(int)
+         */
+        public IdGeneratorBuilder striped() {
+            return stripes(Math.min(Runtime.getRuntime().availableProcessors(), DEFAULT_MAX_STRIPES));
+        }
+
+        /**
+         * striped mode, every stripe owns a part of the sequence and is picked by the calling thread,
+         * rounded up to a power of 2, 1 means not striped
+         * @param stripes stripe count, at most {@link SnowflakeIdGenerator#MAX_STRIPES}
+         * @return builder
+         */
+        public IdGeneratorBuilder stripes(int stripes) {
+            this.stripes = stripes;
+            return this;
+        }
+
+        /**
+         * epoch of the timestamp bits, only used by {@link #buildSnowflake()}
+         * @param epoch millis since 1970-01-01 00:00:00 UTC
+         * @return builder
+         */
+        public IdGeneratorBuilder epoch(long epoch) {
+            this.epoch = epoch;
+            return this;
+        }
+
         public IdGenerator build(){
             if (StringUtils.isEmpty(this.workId)){
                 throw new IllegalArgumentException(String.format("workId can not be null, value: [%s]",
@@ -114,7 +329,69 @@ public final class IdGenerator {
             if (this.radix < 2 || this.radix > 36){
                 this.radix = 36;
             }
-            return new IdGenerator(this.workId,this.businessType,this.radix);
+            return new IdGenerator(this.workId,this.businessType,this.radix, buildClock(0L), normalizeStripes());
+        }
+
+        /**
+         * build a 64 bit numeric id generator, workId and businessType must be numbers
+         * that fit in their bit fields of {@link SnowflakeIdGenerator}
+         * @return snowflake id generator
+         * @since 1.0.3
+         */
+        public SnowflakeIdGenerator buildSnowflake(){
+            long workIdBits = parseBits("workId", this.workId, SnowflakeIdGenerator.MAX_WORK_ID);
+            long businessTypeBits = parseBits("businessType", this.businessType,
+                    SnowflakeIdGenerator.MAX_BUSINESS_TYPE);
+            if (this.epoch < 0 || this.epoch > System.currentTimeMillis()){
+                throw new IllegalArgumentException(String.format("epoch must between 0 and now, value: [%s]",
+                        epoch));
+            }
+            if (this.radix < 2 || this.radix > 36){
+                this.radix = 36;
+            }
+            return new SnowflakeIdGenerator(buildClock(this.epoch), businessTypeBits, workIdBits, this.radix,
+                    normalizeStripes());
+        }
+
+        private int normalizeStripes(){
+            if (this.stripes < 1 || this.stripes > SnowflakeIdGenerator.MAX_STRIPES){
+                throw new IllegalArgumentException(String.format("stripes must between 1 and %s, value: [%s]",
+                        SnowflakeIdGenerator.MAX_STRIPES, stripes));
+            }
+            int highest = Integer.highestOneBit(this.stripes);
+            return highest == this.stripes ? highest : highest << 1;
+        }
+
+        private SequenceClock buildClock(long clockEpoch){
+            if (Objects.isNull(this.overflowStrategy)){
+                this.overflowStrategy = SequenceOverflowStrategy.SPIN_WAIT;
+            }
+            if (Objects.isNull(this.clockBackwardsStrategy)){
+                this.clockBackwardsStrategy = ClockBackwardsStrategy.WAIT;
+            }
+            if (this.maxBackwardsMillis < 0){
+                throw new IllegalArgumentException(String.format("maxBackwardsMillis can not less than 0, value: [%s]",
+                        maxBackwardsMillis));
+            }
+            return new SequenceClock(clockEpoch, this.overflowStrategy, this.clockBackwardsStrategy,
+                    this.maxBackwardsMillis);
+        }
+
+        private static long parseBits(String name, String value, long max){
+            if (StringUtils.isEmpty(value)){
+                throw new IllegalArgumentException(String.format("%s can not be null, value: [%s]", name, value));
+            }
+            long bits;
+            try {
+                bits = Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(String.format("%s must be a number, value: [%s]", name, value), e);
+            }
+            if (bits < 0 || bits > max){
+                throw new IllegalArgumentException(String.format("%s must between 0 and %s, value: [%s]",
+                        name, max, value));
+            }
+            return bits;
         }
     }
 }
@@ -0,0 +1,117 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.idgenerator;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * counters of the slow paths of an id generator, every id request is counted at most once per counter,
+ * however often a lock free request retries
+ * @author Jackie
+ * @version $id: IdGeneratorStats.java v 0.1 2021-09-24 09:40 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class IdGeneratorStats {
+
+    private final LongAdder clockBackwards = new LongAdder();
+
+    private final LongAdder backwardsWait = new LongAdder();
+
+    private final LongAdder overflow = new LongAdder();
+
+    private final LongAdder overflowWait = new LongAdder();
+
+    private final LongAdder overflowBorrow = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    IdGeneratorStats() {
+    }
+
+    /**
+     * id requests that found the clock behind the highest value ever read
+     * @return count
+     */
+    public long getClockBackwardsCount() {
+        return clockBackwards.sum();
+    }
+
+    /**
+     * id requests that waited for a backwards clock to catch up
+     * @return count
+     */
+    public long getBackwardsWaitCount() {
+        return backwardsWait.sum();
+    }
+
+    /**
+     * id requests that found the sequence of the last millisecond used up, or reserved a range
+     * larger than a millisecond
+     * @return count
+     */
+    public long getOverflowCount() {
+        return overflow.sum();
+    }
+
+    /**
+     * id requests that spun for the next millisecond after an overflow
+     * @return count
+     */
+    public long getOverflowWaitCount() {
+        return overflowWait.sum();
+    }
+
+    /**
+     * id requests that borrowed a millisecond before the clock reached it
+     * @return count
+     */
+    public long getOverflowBorrowCount() {
+        return overflowBorrow.sum();
+    }
+
+    /**
+     * id requests rejected with an exception
+     * @return count
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    void incrementClockBackwards() {
+        clockBackwards.increment();
+    }
+
+    void incrementBackwardsWait() {
+        backwardsWait.increment();
+    }
+
+    void incrementOverflow() {
+        overflow.increment();
+    }
+
+    void incrementOverflowWait() {
+        overflowWait.increment();
+    }
+
+    void incrementOverflowBorrow() {
+        overflowBorrow.increment();
+    }
+
+    void incrementRejected() {
+        rejected.increment();
+    }
+
+    @Override
+    public String toString() {
+        return "IdGeneratorStats{" +
+                "clockBackwards=" + getClockBackwardsCount() +
+                ", backwardsWait=" + getBackwardsWaitCount() +
+                ", overflow=" + getOverflowCount() +
+                ", overflowWait=" + getOverflowWaitCount() +
+                ", overflowBorrow=" + getOverflowBorrowCount() +
+                ", rejected=" + getRejectedCount() +
+                '}';
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.idgenerator;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * <p>contiguous ids reserved by {@link SnowflakeIdGenerator#reserveRange(int)},
+ * ids are composed on demand so the range itself holds no array.
+ * <p>the cursor is not thread safe, share the range between threads by {@link #get(int)}
+ * @author Jackie
+ * @version $id: IdRange.java v 0.1 2021-09-22 14:30 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class IdRange implements PrimitiveIterator.OfLong {
+
+    private final SnowflakeIdGenerator generator;
+
+    private final int stripe;
+
+    /**
+     * timestamp and local sequence of the first id in the stripe
+     */
+    private final long first;
+
+    private final int size;
+
+    private int cursor;
+
+    IdRange(SnowflakeIdGenerator generator, int stripe, long first, int size) {
+        this.generator = generator;
+        this.stripe = stripe;
+        this.first = first;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * id at the index of this range
+     * @param index index, from 0 to size - 1
+     * @return id
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(String.format("index: [%s], size: [%s]", index, size));
+        }
+        return generator.compose(stripe, first + index);
+    }
+
+    /**
+     * count of ids not yet returned by {@link #nextLong()}
+     * @return remaining count
+     */
+    public int remaining() {
+        return size - cursor;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return cursor < size;
+    }
+
+    @Override
+    public long nextLong() {
+        if (cursor >= size) {
+            throw new NoSuchElementException("id range exhausted");
+        }
+        return generator.compose(stripe, first + cursor++);
+    }
+
+    /**
+     * all ids of this range, independent of the cursor
+     * @return ids
+     */
+    public long[] toArray() {
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = generator.compose(stripe, first + i);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,103 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.idgenerator;
+
+/**
+ * encode non-negative long ids into radix strings without going through {@link java.math.BigInteger}
+ * @author Jackie
+ * @version $id: RadixEncoder.java v 0.1 2021-09-20 10:12 Jackie Exp $$
+ * @since 1.0.3
+ */
+public enum RadixEncoder {
+
+    /**
+     * RadixEncoder 实例
+     */
+    INSTANCE;
+
+    private static final char[] DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    /**
+     * max chars of a positive long in radix 2
+     */
+    private static final int MAX_CHARS = 63;
+
+    /**
+     * encode id into radix string
+     * @param id id, must not be negative
+     * @param radix radix, between 2 and 36
+     * @return radix string
+     */
+    public static String encode(long id, int radix) {
+        return encode(id, radix, 0);
+    }
+
+    /**
+     * encode id into radix string, left padding with '0' to the width,
+     * so that ids with the same width keep their numeric order when compared as strings
+     * @param id id, must not be negative
+     * @param radix radix, between 2 and 36
+     * @param width min width of the result
+     * @return radix string
+     */
+    public static String encode(long id, int radix, int width) {
+        char[] buf = new char[Math.max(MAX_CHARS, width)];
+        int pos = fill(buf, id, radix, width);
+        return new String(buf, pos, buf.length - pos);
+    }
+
+    /**
+     * append radix string of id to the builder
+     * @param sb string builder
+     * @param id id, must not be negative
+     * @param radix radix, between 2 and 36
+     * @param width min width of the appended chars
+     * @return the builder
+     */
+    public static StringBuilder appendTo(StringBuilder sb, long id, int radix, int width) {
+        char[] buf = new char[Math.max(MAX_CHARS, width)];
+        int pos = fill(buf, id, radix, width);
+        return sb.append(buf, pos, buf.length - pos);
+    }
+
+    /**
+     * chars needed to encode the max value in radix
+     * @param maxValue max value
+     * @param radix radix, between 2 and 36
+     * @return width
+     */
+    public static int width(long maxValue, int radix) {
+        checkArgs(maxValue, radix);
+        int width = 1;
+        while ((maxValue /= radix) > 0) {
+            width++;
+        }
+        return width;
+    }
+
+    private static int fill(char[] buf, long id, int radix, int width) {
+        checkArgs(id, radix);
+        int pos = buf.length;
+        long value = id;
+        do {
+            buf[--pos] = DIGITS[(int) (value % radix)];
+            value /= radix;
+        } while (value > 0);
+        int start = buf.length - width;
+        while (pos > start) {
+            buf[--pos] = '0';
+        }
+        return pos;
+    }
+
+    private static void checkArgs(long id, int radix) {
+        if (id < 0) {
+            throw new IllegalArgumentException(String.format("id can not be negative, value: [%s]", id));
+        }
+        if (radix < Character.MIN_RADIX || radix > Character.MAX_RADIX) {
+            throw new IllegalArgumentException(String.format("radix must between 2 and 36, value: [%s]", radix));
+        }
+    }
+}
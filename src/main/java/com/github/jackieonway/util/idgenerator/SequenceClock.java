@@ -0,0 +1,169 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.idgenerator;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>clock of a time aware sequence, timestamps are millis since the epoch of the generator.
+ * <p>the highest timestamp ever read is kept, so a clock that really goes backwards can be told
+ * apart from a last issued timestamp that is ahead because a millisecond was borrowed.
+ * @author Jackie
+ * @version $id: SequenceClock.java v 0.1 2021-09-24 09:40 Jackie Exp $$
+ * @since 1.0.3
+ */
+final class SequenceClock {
+
+    /**
+     * the clock was behind the highest timestamp ever read
+     */
+    static final int CLOCK_BACKWARDS = 1;
+
+    /**
+     * the sequence of the last issued timestamp was used up
+     */
+    static final int SEQUENCE_OVERFLOW = 1 << 1;
+
+    /**
+     * a reserved range runs into following milliseconds
+     */
+    static final int RANGE_BORROW = 1 << 2;
+
+    private final long epoch;
+
+    private final SequenceOverflowStrategy overflowStrategy;
+
+    private final ClockBackwardsStrategy clockBackwardsStrategy;
+
+    private final long maxBackwardsMillis;
+
+    private final IdGeneratorStats stats = new IdGeneratorStats();
+
+    private final AtomicLong highestObserved = new AtomicLong(Long.MIN_VALUE);
+
+    SequenceClock(long epoch, SequenceOverflowStrategy overflowStrategy,
+                  ClockBackwardsStrategy clockBackwardsStrategy, long maxBackwardsMillis) {
+        this.epoch = epoch;
+        this.overflowStrategy = overflowStrategy;
+        this.clockBackwardsStrategy = clockBackwardsStrategy;
+        this.maxBackwardsMillis = maxBackwardsMillis;
+    }
+
+    /**
+     * current timestamp
+     * @return millis since epoch
+     */
+    long now() {
+        long now = System.currentTimeMillis() - epoch;
+        if (now > highestObserved.get()) {
+            highestObserved.accumulateAndGet(now, Math::max);
+        }
+        return now;
+    }
+
+    /**
+     * whether the clock really went backwards, a timestamp not below the highest one ever read is only behind a
+     * borrowed millisecond. The clock is read again, so a thread preempted after reading it is not taken for a
+     * backwards clock
+     * @param now current timestamp
+     * @return true if the clock is behind the highest timestamp ever read
+     */
+    boolean isBackwards(long now) {
+        return now < highestObserved.get() && System.currentTimeMillis() - epoch < highestObserved.get();
+    }
+
+    /**
+     * timestamp for the next id when the current timestamp is behind the last issued one, for callers holding a lock,
+     * lock free callers resolve by {@link #resolveBackwards(long, long)} and record after a successful CAS
+     * @param lastTimestamp timestamp of the last issued id
+     * @param now current timestamp
+     * @return timestamp, not less than lastTimestamp
+     */
+    long behind(long lastTimestamp, long now) {
+        if (!isBackwards(now)) {
+            return lastTimestamp;
+        }
+        long timestamp = resolveBackwards(lastTimestamp, now);
+        record(CLOCK_BACKWARDS);
+        return timestamp;
+    }
+
+    /**
+     * timestamp for the next id when the sequence of lastTimestamp is used up, for callers holding a lock
+     * @param lastTimestamp timestamp of the last issued id
+     * @return timestamp, greater than lastTimestamp
+     */
+    long overflow(long lastTimestamp) {
+        long timestamp = resolveOverflow(lastTimestamp);
+        record(SEQUENCE_OVERFLOW);
+        return timestamp;
+    }
+
+    /**
+     * apply the clock backwards strategy, only a rejection is counted
+     * @param lastTimestamp timestamp of the last issued id
+     * @param now current timestamp, behind the highest timestamp ever read
+     * @return timestamp, not less than lastTimestamp
+     */
+    long resolveBackwards(long lastTimestamp, long now) {
+        return clockBackwardsStrategy.resolveTimestamp(this, lastTimestamp, now);
+    }
+
+    /**
+     * apply the overflow strategy, only a rejection is counted
+     * @param lastTimestamp timestamp of the last issued id
+     * @return timestamp, greater than lastTimestamp
+     */
+    long resolveOverflow(long lastTimestamp) {
+        return overflowStrategy.nextTimestamp(this, lastTimestamp);
+    }
+
+    /**
+     * count the slow paths taken by one id request, once the request succeeded
+     * @param events {@link #CLOCK_BACKWARDS}, {@link #SEQUENCE_OVERFLOW} and {@link #RANGE_BORROW} bits
+     */
+    void record(int events) {
+        if ((events & CLOCK_BACKWARDS) != 0) {
+            stats.incrementClockBackwards();
+            if (clockBackwardsStrategy == ClockBackwardsStrategy.WAIT) {
+                stats.incrementBackwardsWait();
+            }
+        }
+        if ((events & (SEQUENCE_OVERFLOW | RANGE_BORROW)) != 0) {
+            stats.incrementOverflow();
+        }
+        boolean borrowed = (events & RANGE_BORROW) != 0;
+        if ((events & SEQUENCE_OVERFLOW) != 0) {
+            if (overflowStrategy == SequenceOverflowStrategy.SPIN_WAIT) {
+                stats.incrementOverflowWait();
+            } else if (overflowStrategy == SequenceOverflowStrategy.BORROW) {
+                borrowed = true;
+            }
+        }
+        if (borrowed) {
+            stats.incrementOverflowBorrow();
+        }
+    }
+
+    /**
+     * whether a used up sequence is rejected instead of waited for or borrowed
+     * @return true for {@link SequenceOverflowStrategy#THROW}
+     */
+    boolean rejectsOverflow() {
+        return overflowStrategy == SequenceOverflowStrategy.THROW;
+    }
+
+    long getEpoch() {
+        return epoch;
+    }
+
+    long getMaxBackwardsMillis() {
+        return maxBackwardsMillis;
+    }
+
+    IdGeneratorStats getStats() {
+        return stats;
+    }
+}
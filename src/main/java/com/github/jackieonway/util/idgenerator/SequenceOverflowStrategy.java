@@ -0,0 +1,58 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.idgenerator;
+
+/**
+ * what to do when the sequence of the current millisecond is used up
+ * @author Jackie
+ * @version $id: SequenceOverflowStrategy.java v 0.1 2021-09-24 09:40 Jackie Exp $$
+ * @since 1.0.3
+ */
+public enum SequenceOverflowStrategy {
+
+    /**
+     * spin until the clock reaches the next millisecond
+     */
+    SPIN_WAIT {
+        @Override
+        long nextTimestamp(SequenceClock clock, long lastTimestamp) {
+            long now;
+            while ((now = clock.now()) <= lastTimestamp) {
+                Thread.yield();
+            }
+            return now;
+        }
+    },
+
+    /**
+     * go on with the next millisecond before the clock reaches it
+     */
+    BORROW {
+        @Override
+        long nextTimestamp(SequenceClock clock, long lastTimestamp) {
+            return lastTimestamp + 1;
+        }
+    },
+
+    /**
+     * throw {@link IllegalStateException}
+     */
+    THROW {
+        @Override
+        long nextTimestamp(SequenceClock clock, long lastTimestamp) {
+            clock.getStats().incrementOverflow();
+            clock.getStats().incrementRejected();
+            throw new IllegalStateException(String.format("sequence overflow at timestamp: [%s]", lastTimestamp));
+        }
+    };
+
+    /**
+     * timestamp for the next id, whose sequence starts from 0, a successful overflow is counted by the clock
+     * @param clock clock
+     * @param lastTimestamp timestamp of the last issued id
+     * @return timestamp, greater than lastTimestamp
+     */
+    abstract long nextTimestamp(SequenceClock clock, long lastTimestamp);
+}
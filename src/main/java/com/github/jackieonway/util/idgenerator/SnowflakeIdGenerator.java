@@ -0,0 +1,264 @@
+/**
+ * Jackie.
+ * Copyright (c)) 2019 - 2021 All Right Reserved
+ */
+package com.github.jackieonway.util.idgenerator;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>64 bit numeric id generator, the bit layout is:
+ * <blockquote><pre>
+ *  0 | 41 bit timestamp (millis since epoch) | 5 bit businessType | 5 bit workId | 12 bit sequence
+ * </pre></blockquote>
+ * <p>{@link #nextLong()} is lock free and allocation free, the timestamp and the sequence
+ * are kept in one atomic long and advanced by CAS. Ids are always increasing, a used up
+ * sequence is handled by the {@link SequenceOverflowStrategy} and a backwards clock by the
+ * {@link ClockBackwardsStrategy} of the builder, see {@link #getStats()} for how often they fire.
+ * <p>in striped mode the high bits of the sequence are a stripe index picked by the calling thread,
+ * every stripe has its own state, so threads on different stripes never contend. Ids stay unique but
+ * are only increasing within a stripe, and every stripe gets 4096 / stripes ids per millisecond.
+ * <p>build it by {@link IdGenerator.IdGeneratorBuilder#buildSnowflake()}
+ * @author Jackie
+ * @version $id: SnowflakeIdGenerator.java v 0.1 2021-09-20 10:12 Jackie Exp $$
+ * @since 1.0.3
+ */
+public final class SnowflakeIdGenerator {
+
+    /**
+     * default epoch, 2021-01-01 00:00:00 UTC
+     */
+    public static final long DEFAULT_EPOCH = 1609459200000L;
+
+    public static final int TIMESTAMP_BITS = 41;
+    public static final int BUSINESS_TYPE_BITS = 5;
+    public static final int WORK_ID_BITS = 5;
+    public static final int SEQUENCE_BITS = 12;
+
+    public static final long MAX_BUSINESS_TYPE = ~(-1L << BUSINESS_TYPE_BITS);
+    public static final long MAX_WORK_ID = ~(-1L << WORK_ID_BITS);
+
+    /**
+     * max stripes, leaves at least 64 ids per millisecond for every stripe
+     */
+    public static final int MAX_STRIPES = 64;
+
+    static final long MAX_TIMESTAMP = ~(-1L << TIMESTAMP_BITS);
+    static final long SEQUENCE_MASK = ~(-1L << SEQUENCE_BITS);
+
+    private static final int WORK_ID_SHIFT = SEQUENCE_BITS;
+    private static final int BUSINESS_TYPE_SHIFT = WORK_ID_SHIFT + WORK_ID_BITS;
+    private static final int TIMESTAMP_SHIFT = BUSINESS_TYPE_SHIFT + BUSINESS_TYPE_BITS;
+
+    /**
+     * states of stripes are 8 longs apart, so they do not share a cache line
+     */
+    private static final int STRIPE_PADDING_SHIFT = 3;
+
+    private final SequenceClock clock;
+
+    private final long businessType;
+
+    private final long workId;
+
+    private final int radix;
+
+    /**
+     * businessType and workId bits, fixed for this generator
+     */
+    private final long nodeBits;
+
+    private final int stripeMask;
+
+    private final int paddingShift;
+
+    /**
+     * sequence bits owned by one stripe
+     */
+    private final int localBits;
+
+    private final long localMask;
+
+    /**
+     * timestamp &lt;&lt; localBits | local sequence of the last issued id of every stripe
+     */
+    private final AtomicLongArray states;
+
+    SnowflakeIdGenerator(SequenceClock clock, long businessType, long workId, int radix, int stripes) {
+        this.clock = clock;
+        this.businessType = businessType;
+        this.workId = workId;
+        this.radix = radix;
+        this.nodeBits = (businessType << BUSINESS_TYPE_SHIFT) | (workId << WORK_ID_SHIFT);
+        this.stripeMask = stripes - 1;
+        this.paddingShift = stripes > 1 ? STRIPE_PADDING_SHIFT : 0;
+        this.localBits = SEQUENCE_BITS - Integer.numberOfTrailingZeros(stripes);
+        this.localMask = ~(-1L << localBits);
+        this.states = new AtomicLongArray(stripes << paddingShift);
+    }
+
+    /**
+     * next 64 bit id
+     * @return id
+     */
+    public long nextLong() {
+        int stripe = stripe();
+        int index = stripe << paddingShift;
+        //策略解出的时间戳, 失败的 CAS 重试时不再重复等待和计数
+        long resolved = Long.MIN_VALUE;
+        int events = 0;
+        for (;;) {
+            long current = states.get(index);
+            long lastTimestamp = current >>> localBits;
+            long now = Math.max(clock.now(), resolved);
+            long next;
+            if (now > lastTimestamp) {
+                next = now << localBits;
+            } else if (now < lastTimestamp && clock.isBackwards(now)) {
+                resolved = clock.resolveBackwards(lastTimestamp, now);
+                events |= SequenceClock.CLOCK_BACKWARDS;
+                continue;
+            } else if ((current & localMask) == localMask) {
+                resolved = clock.resolveOverflow(lastTimestamp);
+                events |= SequenceClock.SEQUENCE_OVERFLOW;
+                continue;
+            } else {
+                next = current + 1;
+            }
+            if (states.compareAndSet(index, current, next)) {
+                if (events != 0) {
+                    clock.record(events);
+                }
+                return compose(stripe, next);
+            }
+        }
+    }
+
+    /**
+     * <p>reserve n contiguous ids with one CAS. A range that does not fit in the rest of the current millisecond
+     * is a sequence overflow handled by the {@link SequenceOverflowStrategy}, so it starts in a following millisecond
+     * or is rejected.
+     * <p>a range larger than the ids of one millisecond ({@code 4096 / stripes}) always borrows the sequence of
+     * following milliseconds, {@link SequenceOverflowStrategy#THROW} rejects it.
+     * @param n count of ids
+     * @return range cursor of the reserved ids
+     * @throws IllegalArgumentException if n is less than 1, or larger than the ids of one millisecond with
+     *         {@link SequenceOverflowStrategy#THROW}
+     */
+    public IdRange reserveRange(int n) {
+        if (n < 1) {
+            throw new IllegalArgumentException(String.format("n must greater than 0, value: [%s]", n));
+        }
+        long perMillis = localMask + 1;
+        boolean borrow = n > perMillis;
+        if (borrow && clock.rejectsOverflow()) {
+            throw new IllegalArgumentException(String.format("n must not greater than %s ids per millisecond, "
+                    + "value: [%s]", perMillis, n));
+        }
+        int stripe = stripe();
+        int index = stripe << paddingShift;
+        long resolved = Long.MIN_VALUE;
+        int events = borrow ? SequenceClock.RANGE_BORROW : 0;
+        for (;;) {
+            long current = states.get(index);
+            long lastTimestamp = current >>> localBits;
+            long now = Math.max(clock.now(), resolved);
+            long first;
+            if (now > lastTimestamp) {
+                first = now << localBits;
+            } else if (now < lastTimestamp && clock.isBackwards(now)) {
+                resolved = clock.resolveBackwards(lastTimestamp, now);
+                events |= SequenceClock.CLOCK_BACKWARDS;
+                continue;
+            } else if ((current & localMask) == localMask || (!borrow && (current & localMask) + n > localMask)) {
+                //当前毫秒剩余的序列号不够
+                resolved = clock.resolveOverflow(lastTimestamp);
+                events |= SequenceClock.SEQUENCE_OVERFLOW;
+                continue;
+            } else {
+                first = current + 1;
+            }
+            if (states.compareAndSet(index, current, first + n - 1)) {
+                if (events != 0) {
+                    clock.record(events);
+                }
+                return new IdRange(this, stripe, first, n);
+            }
+        }
+    }
+
+    /**
+     * next n ids, reserved with one CAS
+     * @param n count of ids
+     * @return ids
+     * @see #reserveRange(int)
+     */
+    public long[] nextBatch(int n) {
+        return reserveRange(n).toArray();
+    }
+
+    /**
+     * next id encoded in the radix of the builder
+     * @return id string
+     */
+    public String nextString() {
+        return RadixEncoder.encode(nextLong(), radix);
+    }
+
+    /**
+     * millis when the id was generated
+     * @param id id
+     * @return millis since 1970-01-01 00:00:00 UTC
+     */
+    public long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + clock.getEpoch();
+    }
+
+    public static long businessTypeOf(long id) {
+        return (id >>> BUSINESS_TYPE_SHIFT) & MAX_BUSINESS_TYPE;
+    }
+
+    public static long workIdOf(long id) {
+        return (id >>> WORK_ID_SHIFT) & MAX_WORK_ID;
+    }
+
+    public static long sequenceOf(long id) {
+        return id & SEQUENCE_MASK;
+    }
+
+    public long getEpoch() {
+        return clock.getEpoch();
+    }
+
+    public long getBusinessType() {
+        return businessType;
+    }
+
+    public long getWorkId() {
+        return workId;
+    }
+
+    public int getRadix() {
+        return radix;
+    }
+
+    public int getStripes() {
+        return stripeMask + 1;
+    }
+
+    public IdGeneratorStats getStats() {
+        return clock.getStats();
+    }
+
+    private int stripe() {
+        return (int) Thread.currentThread().getId() & stripeMask;
+    }
+
+    long compose(int stripe, long value) {
+        long timestamp = value >>> localBits;
+        if (timestamp > MAX_TIMESTAMP) {
+            throw new IllegalStateException(String.format("timestamp overflow, epoch: [%s]", clock.getEpoch()));
+        }
+        return (timestamp << TIMESTAMP_SHIFT) | nodeBits | ((long) stripe << localBits) | (value & localMask);
+    }
+}
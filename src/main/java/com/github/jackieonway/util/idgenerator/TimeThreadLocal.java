@@ -1,9 +1,9 @@
 package com.github.jackieonway.util.idgenerator;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import com.github.jackieonway.util.CoarseClock;
 
 /**
+ * yyyyMMddHHmmssSSS time of id prefixes, rendered by {@link CoarseClock}
  * @author Jackie
  * @version 1.0
  **/
@@ -11,15 +11,17 @@ public class TimeThreadLocal {
 
     private TimeThreadLocal(){}
 
-    private  static final ThreadLocal<SimpleDateFormat> TIME_THREAD_LOCAL = new ThreadLocal<SimpleDateFormat>(){
-
-        @Override
-        protected synchronized SimpleDateFormat initialValue(){
-            return new SimpleDateFormat("yyyyMMddHHmmssSSS");
-        }
-    };
-
     public static String getTime(){
-        return TIME_THREAD_LOCAL.get().format(new Date());
+        return CoarseClock.now();
+    }
+
+    /**
+     * format millis as yyyyMMddHHmmssSSS
+     * @param millis millis since 1970-01-01 00:00:00 UTC
+     * @return time
+     * @since 1.0.3
+     */
+    public static String getTime(long millis){
+        return CoarseClock.format(millis);
     }
 }
@@ -2,11 +2,176 @@ package com.github.jackieonway.util.validation;
 
 import com.github.jackieonway.util.StringUtils;
 
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public final class RegExpValidatorUtils {
 
+    /**
+     * 验证邮箱
+     */
+    public static final String EMAIL = "^([\\w-\\.]+)@((\\[[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.)|" +
+            "(([\\w-]+\\.)+))([a-zA-Z]{2,4}|[0-9]{1,3})(\\]?)$";
+
+    private static final String IP_SEGMENT = "(25[0-5]|2[0-4]\\d|[0-1]\\d{2}|[1-9]?\\d)";
+
+    /**
+     * 验证IP地址
+     */
+    public static final String IP = "^" + IP_SEGMENT + "\\." + IP_SEGMENT + "\\." + IP_SEGMENT + "\\."
+            + IP_SEGMENT + "$";
+
+    /**
+     * 验证网址
+     */
+    public static final String WEB = "^([hH][tT]{2}[pP]:/*|[hH][tT]{2}[pP][sS]:/*|[fF][tT][pP]:/*)" +
+            "(([A-Za-z0-9-~]+).)+([A-Za-z0-9-~\\/])+(\\?{0,1}(([A-Za-z0-9-~]+\\={0,1})([A-Za-z0-9-~]*)\\&{0,1})*)$";
+
+    /**
+     * 验证网址Url
+     */
+    public static final String URL = "http(s)?://([\\w-]+\\.)+[\\w-]+(/[\\w- ./?%&=]*)?";
+
+    /**
+     * 验证电话号码
+     */
+    public static final String TELEPHONE = "^(\\d{3,4}-)?\\d{6,8}$";
+
+    /**
+     * 验证输入密码条件(字符与数据同时出现)
+     */
+    public static final String PASSWORD = "[A-Za-z]+[0-9]";
+
+    /**
+     * 验证输入密码长度 (6-18位)
+     */
+    public static final String PASSWORD_LENGTH = "^\\d{6,18}$";
+
+    /**
+     * 验证输入邮政编号
+     */
+    public static final String POSTAL_CODE = "^\\d{6}$";
+
+    /**
+     * 验证输入手机号码
+     */
+    public static final String HANDSET = "^[1]+[3,4,5,6,7,8,9]+\\d{9}$";
+
+    /**
+     * 验证输入身份证号
+     */
+    public static final String ID_CARD = "(^\\d{18}$)|(^\\d{15}$)";
+
+    /**
+     * 验证输入两位小数
+     */
+    public static final String DECIMAL = "^[0-9]+(.[0-9]{2})?$";
+
+    /**
+     * 验证输入一年的12个月
+     */
+    public static final String MONTH = "^(0?[[1-9]|1[0-2])$";
+
+    /**
+     * 验证输入一个月的31天
+     */
+    public static final String DAY = "^((0?[1-9])|((1|2)[0-9])|30|31)$";
+
+    /**
+     * 验证日期时间
+     */
+    // 严格验证时间格式的(匹配[2002-01-31], [1997-04-30],
+    // [2004-01-01])不匹配([2002-01-32], [2003-02-29], [04-01-01])
+    // String regex =
+    // "^((((19|20)(([02468][048])|([13579][26]))-02-29))|((20[0-9][0-9])|(19[0-9][0-9]))-((((0[1-9])|(1[0-2]))-(
+    // (0[1-9])|(1\\d)|(2[0-8])))|((((0[13578])|(1[02]))-31)|(((01,3-9])|(1[0-2]))-(29|30)))))$";
+    // 没加时间验证的YYYY-MM-DD
+    // String regex =
+    // "^((((1[6-9]|[2-9]\\d)\\d{2})-(0?[13578]|1[02])-(0?[1-9]|[12]\\d|3[01]))|(((1[6-9]|[2-9]\\d)\\d{2})-
+    // (0?[13456789]|1[012])-(0?[1-9]|[12]\\d|30))|(((1[6-9]|[2-9]\\d)\\d{2})-0?2-(0?[1-9]|1\\d|2[0-8]))|((
+    // (1[6-9]|[2-9]\\d)(0[48]|[2468][048]|[13579][26])|((16|[2468][048]|[3579][26])00))-0?2-29-))$";
+    // 加了时间验证的YYYY-MM-DD 00:00:00
+    public static final String DATE = "^((((1[6-9]|[2-9]\\d)\\d{2})-(0?[13578]|1[02])-(0?[1-9]|[12]\\d|3[01]))|" +
+            "(((1[6-9]|[2-9]\\d)\\d{2})-(0?[13456789]|1[012])-(0?[1-9]|[12]\\d|30))|(((1[6-9]|[2-9]\\d)\\d{2})-0?2-" +
+            "(0?[1-9]|1\\d|2[0-8]))|(((1[6-9]|[2-9]\\d)(0[48]|[2468][048]|[13579][26])|(" +
+            "(16|[2468][048]|[3579][26])00))-0?2-29-)) (20|21|22|23|[0-1]?\\d):[0-5]?\\d:[0-5]?\\d$";
+
+    /**
+     * 验证数字输入
+     */
+    public static final String NUMBER = "^[0-9]*$";
+
+    /**
+     * 验证非零的正整数
+     */
+    public static final String INT_NUMBER = "^\\+?[1-9][0-9]*$";
+
+    /**
+     * 验证大写字母
+     */
+    public static final String UP_CHAR = "^[A-Z]+$";
+
+    /**
+     * 验证小写字母
+     */
+    public static final String LOW_CHAR = "^[a-z]+$";
+
+    /**
+     * 验证验证输入字母
+     */
+    public static final String LETTER = "^[A-Za-z]+$";
+
+    /**
+     * 验证验证输入汉字
+     */
+    public static final String CHINESE = "^[\u4e00-\u9fa5],{0,}$";
+
+    /**
+     * 验证验证输入字符串
+     */
+    public static final String LENGTH = "^.{8,}$";
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL);
+
+    private static final Pattern IP_PATTERN = Pattern.compile(IP);
+
+    private static final Pattern WEB_PATTERN = Pattern.compile(WEB);
+
+    private static final Pattern URL_PATTERN = Pattern.compile(URL);
+
+    private static final Pattern TELEPHONE_PATTERN = Pattern.compile(TELEPHONE);
+
+    private static final Pattern PASSWORD_PATTERN = Pattern.compile(PASSWORD);
+
+    private static final Pattern PASSWORD_LENGTH_PATTERN = Pattern.compile(PASSWORD_LENGTH);
+
+    private static final Pattern POSTAL_CODE_PATTERN = Pattern.compile(POSTAL_CODE);
+
+    private static final Pattern HANDSET_PATTERN = Pattern.compile(HANDSET);
+
+    private static final Pattern ID_CARD_PATTERN = Pattern.compile(ID_CARD);
+
+    private static final Pattern DECIMAL_PATTERN = Pattern.compile(DECIMAL);
+
+    private static final Pattern MONTH_PATTERN = Pattern.compile(MONTH);
+
+    private static final Pattern DAY_PATTERN = Pattern.compile(DAY);
+
+    private static final Pattern DATE_PATTERN = Pattern.compile(DATE);
+
+    private static final Pattern NUMBER_PATTERN = Pattern.compile(NUMBER);
+
+    private static final Pattern INT_NUMBER_PATTERN = Pattern.compile(INT_NUMBER);
+
+    private static final Pattern UP_CHAR_PATTERN = Pattern.compile(UP_CHAR);
+
+    private static final Pattern LOW_CHAR_PATTERN = Pattern.compile(LOW_CHAR);
+
+    private static final Pattern LETTER_PATTERN = Pattern.compile(LETTER);
+
+    private static final Pattern CHINESE_PATTERN = Pattern.compile(CHINESE);
+
+    private static final Pattern LENGTH_PATTERN = Pattern.compile(LENGTH);
+
     public static String hidePhone(String reg) {
         if (StringUtils.isEmpty(reg)) {
             return reg;
@@ -35,9 +200,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isEmail(String str) {
-        String regex = "^([\\w-\\.]+)@((\\[[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.)|(([\\w-]+\\.)+))([a-zA-Z]{2," +
-                "4}|[0-9]{1,3})(\\]?)$";
-        return match(regex, str);
+        return matches(EMAIL_PATTERN, str);
     }
 
     /**
@@ -47,9 +210,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isIP(String str) {
-        String num = "(25[0-5]|2[0-4]\\d|[0-1]\\d{2}|[1-9]?\\d)";
-        String regex = "^" + num + "\\." + num + "\\." + num + "\\." + num + "$";
-        return match(regex, str);
+        return matches(IP_PATTERN, str);
     }
 
     /**
@@ -59,9 +220,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isWeb(String str) {
-        String regex = "^([hH][tT]{2}[pP]:/*|[hH][tT]{2}[pP][sS]:/*|[fF][tT][pP]:/*)(([A-Za-z0-9-~]+).)" +
-                "+([A-Za-z0-9-~\\/])+(\\?{0,1}(([A-Za-z0-9-~]+\\={0,1})([A-Za-z0-9-~]*)\\&{0,1})*)$";
-        return match(regex, str);
+        return matches(WEB_PATTERN, str);
     }
 
     /**
@@ -71,8 +230,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isUrl(String str) {
-        String regex = "http(s)?://([\\w-]+\\.)+[\\w-]+(/[\\w- ./?%&=]*)?";
-        return match(regex, str);
+        return matches(URL_PATTERN, str);
     }
 
     /**
@@ -82,8 +240,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isTelephone(String str) {
-        String regex = "^(\\d{3,4}-)?\\d{6,8}$";
-        return match(regex, str);
+        return matches(TELEPHONE_PATTERN, str);
     }
 
     /**
@@ -93,8 +250,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isPassword(String str) {
-        String regex = "[A-Za-z]+[0-9]";
-        return match(regex, str);
+        return matches(PASSWORD_PATTERN, str);
     }
 
     /**
@@ -104,8 +260,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isPasswordLength(String str) {
-        String regex = "^\\d{6,18}$";
-        return match(regex, str);
+        return matches(PASSWORD_LENGTH_PATTERN, str);
     }
 
     /**
@@ -115,8 +270,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isPostalCode(String str) {
-        String regex = "^\\d{6}$";
-        return match(regex, str);
+        return matches(POSTAL_CODE_PATTERN, str);
     }
 
     /**
@@ -126,8 +280,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isHandset(String str) {
-        String regex = "^[1]+[3,4,5,6,7,8,9]+\\d{9}$";
-        return match(regex, str);
+        return matches(HANDSET_PATTERN, str);
     }
 
     /**
@@ -137,8 +290,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isIdCard(String str) {
-        String regex = "(^\\d{18}$)|(^\\d{15}$)";
-        return match(regex, str);
+        return matches(ID_CARD_PATTERN, str);
     }
 
     /**
@@ -148,8 +300,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isDecimal(String str) {
-        String regex = "^[0-9]+(.[0-9]{2})?$";
-        return match(regex, str);
+        return matches(DECIMAL_PATTERN, str);
     }
 
     /**
@@ -159,8 +310,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isMonth(String str) {
-        String regex = "^(0?[[1-9]|1[0-2])$";
-        return match(regex, str);
+        return matches(MONTH_PATTERN, str);
     }
 
     /**
@@ -170,8 +320,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isDay(String str) {
-        String regex = "^((0?[1-9])|((1|2)[0-9])|30|31)$";
-        return match(regex, str);
+        return matches(DAY_PATTERN, str);
     }
 
     /**
@@ -181,22 +330,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合网址格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isDate(String str) {
-        // 严格验证时间格式的(匹配[2002-01-31], [1997-04-30],
-        // [2004-01-01])不匹配([2002-01-32], [2003-02-29], [04-01-01])
-        // String regex =
-        // "^((((19|20)(([02468][048])|([13579][26]))-02-29))|((20[0-9][0-9])|(19[0-9][0-9]))-((((0[1-9])|(1[0-2]))-(
-        // (0[1-9])|(1\\d)|(2[0-8])))|((((0[13578])|(1[02]))-31)|(((01,3-9])|(1[0-2]))-(29|30)))))$";
-        // 没加时间验证的YYYY-MM-DD
-        // String regex =
-        // "^((((1[6-9]|[2-9]\\d)\\d{2})-(0?[13578]|1[02])-(0?[1-9]|[12]\\d|3[01]))|(((1[6-9]|[2-9]\\d)\\d{2})-
-        // (0?[13456789]|1[012])-(0?[1-9]|[12]\\d|30))|(((1[6-9]|[2-9]\\d)\\d{2})-0?2-(0?[1-9]|1\\d|2[0-8]))|((
-        // (1[6-9]|[2-9]\\d)(0[48]|[2468][048]|[13579][26])|((16|[2468][048]|[3579][26])00))-0?2-29-))$";
-        // 加了时间验证的YYYY-MM-DD 00:00:00
-        String regex = "^((((1[6-9]|[2-9]\\d)\\d{2})-(0?[13578]|1[02])-(0?[1-9]|[12]\\d|3[01]))|(((1[6-9]|[2-9]\\d)" +
-                "\\d{2})-(0?[13456789]|1[012])-(0?[1-9]|[12]\\d|30))|(((1[6-9]|[2-9]\\d)\\d{2})-0?2-" +
-                "(0?[1-9]|1\\d|2[0-8]))|(((1[6-9]|[2-9]\\d)(0[48]|[2468][048]|[13579][26])|(" +
-                "(16|[2468][048]|[3579][26])00))-0?2-29-)) (20|21|22|23|[0-1]?\\d):[0-5]?\\d:[0-5]?\\d$";
-        return match(regex, str);
+        return matches(DATE_PATTERN, str);
     }
 
     /**
@@ -206,8 +340,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isNumber(String str) {
-        String regex = "^[0-9]*$";
-        return match(regex, str);
+        return matches(NUMBER_PATTERN, str);
     }
 
     /**
@@ -217,8 +350,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isIntNumber(String str) {
-        String regex = "^\\+?[1-9][0-9]*$";
-        return match(regex, str);
+        return matches(INT_NUMBER_PATTERN, str);
     }
 
     /**
@@ -228,8 +360,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isUpChar(String str) {
-        String regex = "^[A-Z]+$";
-        return match(regex, str);
+        return matches(UP_CHAR_PATTERN, str);
     }
 
     /**
@@ -239,8 +370,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isLowChar(String str) {
-        String regex = "^[a-z]+$";
-        return match(regex, str);
+        return matches(LOW_CHAR_PATTERN, str);
     }
 
     /**
@@ -250,8 +380,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isLetter(String str) {
-        String regex = "^[A-Za-z]+$";
-        return match(regex, str);
+        return matches(LETTER_PATTERN, str);
     }
 
     /**
@@ -261,8 +390,7 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isChinese(String str) {
-        String regex = "^[\u4e00-\u9fa5],{0,}$";
-        return match(regex, str);
+        return matches(CHINESE_PATTERN, str);
     }
 
     /**
@@ -272,18 +400,20 @@ public final class RegExpValidatorUtils {
      * @return 如果是符合格式的字符串, 返回 <b>true </b>,否则为 <b>false </b>
      */
     public static boolean isLength(String str) {
-        String regex = "^.{8,}$";
-        return match(regex, str);
+        return matches(LENGTH_PATTERN, str);
     }
 
     /**
+     * 表达式每次调用都重新编译, 重复匹配时应保存 {@link Pattern#compile(String)} 的结果
      * @param regex 正则表达式字符串
      * @param str   要匹配的字符串
      * @return 如果str 符合 regex的正则表达式格式,返回true, 否则返回 false;
      */
-    private static boolean match(String regex, String str) {
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(str);
-        return matcher.matches();
+    public static boolean match(String regex, String str) {
+        return matches(Pattern.compile(regex), str);
+    }
+
+    private static boolean matches(Pattern pattern, String str) {
+        return pattern.matcher(str).matches();
     }
 }
\ No newline at end of file